@@ -0,0 +1,32 @@
+package com.example.ghostlib.bench;
+
+import com.example.ghostlib.history.BlockSnapshot;
+import net.minecraft.core.registries.BuiltInRegistries;
+
+/**
+ * Brings up vanilla's registries once, so benchmarks can build block states outside a running game.
+ */
+public final class BenchBootstrap {
+    private static boolean done;
+
+    private BenchBootstrap() {
+    }
+
+    public static synchronized void init() {
+        if (done) return;
+        net.minecraft.SharedConstants.tryDetectVersion();
+        net.minecraft.server.Bootstrap.bootStrap();
+        done = true;
+    }
+
+    /**
+     * Default states of the first {@code count} registered blocks, as distinct snapshots.
+     */
+    public static BlockSnapshot[] snapshots(int count) {
+        init();
+        return BuiltInRegistries.BLOCK.stream()
+                .limit(count)
+                .map(block -> new BlockSnapshot(block.defaultBlockState(), null))
+                .toArray(BlockSnapshot[]::new);
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.ghostlib.bench;
+
+import org.openjdk.jol.info.GraphLayout;
+
+/**
+ * Retained heap measured by walking the object graph, so the numbers don't depend on GC timing.
+ */
+public final class Footprint {
+    private Footprint() {
+    }
+
+    /**
+     * @param shared Objects the structure only points at (block states, pooled snapshots); left out of the total.
+     * @return Bytes reachable from {@code root} that aren't reachable from {@code shared}.
+     */
+    public static long retained(Object root, Object... shared) {
+        GraphLayout layout = GraphLayout.parseInstance(root);
+        return shared.length == 0 ? layout.totalSize() : layout.subtract(GraphLayout.parseInstance(shared)).totalSize();
+    }
+
+    public static void print(String label, long count, long bytes) {
+        System.out.printf("  %-36s %,14d bytes  %8.1f bytes/entry%n", label, bytes, (double) bytes / count);
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.ghostlib.history;
+
+import com.example.ghostlib.bench.BenchBootstrap;
+import com.example.ghostlib.bench.Footprint;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Heap held by the coordinate ledger at 1M touched coordinates, two versions each (the natural
+ * state and one intended state), against the per-coordinate map the ledger replaced.
+ *
+ * Three shapes: a solid 100^3 box, 1-block walls, and positions scattered over a 4096x4096 area,
+ * which is the worst case for per-section storage. Snapshots are shared by both layouts and left
+ * out of the totals. Then every other position is undone, and the palettes are pruned the way
+ * {@link WorldHistoryManager#compact()} does.
+ *
+ * Run with {@code ./gradlew footprint}.
+ */
+public class LedgerFootprint {
+    private static final int COORDINATES = 1_000_000;
+
+    public static void main(String[] args) {
+        BlockSnapshot[] snapshots = BenchBootstrap.snapshots(64);
+        System.out.printf("Ledger footprint, %,d coordinates x 2 versions%n", COORDINATES);
+        measure("box 100x100x100", box(), snapshots);
+        measure("walls 1000x100, 10 rows", walls(), snapshots);
+        measure("scattered", scattered(new Random(1)), snapshots);
+    }
+
+    private static void measure(String shape, long[] positions, BlockSnapshot[] snapshots) {
+        System.out.println(shape + ":");
+        Map<BlockPos, List<BlockSnapshot>> perCoordinate = new ConcurrentHashMap<>();
+        Long2ObjectOpenHashMap<LedgerSection> ledger = new Long2ObjectOpenHashMap<>();
+        for (int i = 0; i < positions.length; i++) {
+            BlockPos pos = BlockPos.of(positions[i]);
+            // Natural state from a few common blocks, intended state from a wider palette
+            BlockSnapshot natural = snapshots[i % 4];
+            BlockSnapshot intended = snapshots[4 + i % (snapshots.length - 4)];
+            List<BlockSnapshot> stack = new ArrayList<>();
+            stack.add(natural);
+            stack.add(intended);
+            perCoordinate.put(pos, stack);
+            LedgerSection section = ledger.computeIfAbsent(SectionPos.blockToSection(positions[i]), k -> new LedgerSection());
+            section.push(SectionPos.sectionRelativePos(pos), natural);
+            section.push(SectionPos.sectionRelativePos(pos), intended);
+        }
+        Footprint.print("per-coordinate map (old)", positions.length, Footprint.retained(perCoordinate, (Object[]) snapshots));
+        Footprint.print("ledger sections", positions.length, Footprint.retained(ledger, (Object[]) snapshots));
+        perCoordinate = null;
+
+        // Undo every other position, then prune like a compaction does
+        for (int i = 0; i < positions.length; i += 2) {
+            BlockPos pos = BlockPos.of(positions[i]);
+            ledger.get(SectionPos.blockToSection(positions[i])).pop(SectionPos.sectionRelativePos(pos));
+        }
+        Footprint.print("ledger after undo", positions.length, Footprint.retained(ledger, (Object[]) snapshots));
+        for (LedgerSection section : ledger.values()) section.prunePalette();
+        Footprint.print("ledger after undo + prune", positions.length, Footprint.retained(ledger, (Object[]) snapshots));
+    }
+
+    private static long[] box() {
+        long[] positions = new long[COORDINATES];
+        int i = 0;
+        for (int y = 0; y < 100; y++) {
+            for (int z = 0; z < 100; z++) {
+                for (int x = 0; x < 100; x++) positions[i++] = BlockPos.asLong(x, y, z);
+            }
+        }
+        return positions;
+    }
+
+    private static long[] walls() {
+        long[] positions = new long[COORDINATES];
+        int i = 0;
+        for (int row = 0; row < 10; row++) {
+            for (int y = 0; y < 100; y++) {
+                for (int x = 0; x < 1000; x++) positions[i++] = BlockPos.asLong(x, y, row * 24);
+            }
+        }
+        return positions;
+    }
+
+    private static long[] scattered(Random random) {
+        LongOpenHashSet positions = new LongOpenHashSet(COORDINATES);
+        while (positions.size() < COORDINATES) {
+            positions.add(BlockPos.asLong(random.nextInt(4096) - 2048, random.nextInt(384) - 64, random.nextInt(4096) - 2048));
+        }
+        return positions.toLongArray();
+    }
+}
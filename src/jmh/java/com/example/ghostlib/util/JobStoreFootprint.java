@@ -0,0 +1,101 @@
+package com.example.ghostlib.util;
+
+import com.example.ghostlib.bench.BenchBootstrap;
+import com.example.ghostlib.bench.Footprint;
+import com.example.ghostlib.block.entity.GhostBlockEntity;
+import com.example.ghostlib.history.BlockSnapshot;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.state.BlockState;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Heap held by 1M queued construction jobs, one in eight of them claimed by one of 256 drones,
+ * against the nested maps {@link GhostJobManager} used to keep: chunk key to
+ * {@code ConcurrentHashMap<BlockPos, BlockState>}, plus a drone UUID per claimed position and a
+ * per-chunk set of claimed positions.
+ *
+ * The new figure is the whole manager, spatial indexes and scheduler included; the old one is only
+ * the maps it replaced, so the comparison favours the old layout. Block states and drone UUIDs are
+ * shared by both and left out of the totals.
+ *
+ * Run with {@code ./gradlew footprint -Pbench=com.example.ghostlib.util.JobStoreFootprint}.
+ */
+public class JobStoreFootprint {
+    private static final int JOBS = 1_000_000;
+    private static final int DRONES = 256;
+    private static final int CLAIM_EVERY = 8;
+
+    public static void main(String[] args) {
+        BlockState[] states = Arrays.stream(BenchBootstrap.snapshots(64)).map(BlockSnapshot::state)
+                .filter(state -> !state.isAir()).toArray(BlockState[]::new);
+        UUID[] drones = new UUID[DRONES];
+        Random random = new Random(1);
+        for (int i = 0; i < DRONES; i++) drones[i] = new UUID(random.nextLong(), random.nextLong());
+        Object[] shared = new Object[states.length + drones.length];
+        System.arraycopy(states, 0, shared, 0, states.length);
+        System.arraycopy(drones, 0, shared, states.length, drones.length);
+
+        System.out.printf("Job store footprint, %,d construction jobs, 1 in %d claimed%n", JOBS, CLAIM_EVERY);
+        measure("paste 100x100x100", box(), states, drones, shared);
+        measure("scattered", scattered(random), states, drones, shared);
+    }
+
+    private static void measure(String shape, long[] positions, BlockState[] states, UUID[] drones, Object[] shared) {
+        System.out.println(shape + ":");
+        Footprint.print("nested maps (old)", positions.length, Footprint.retained(oldLayout(positions, states, drones), shared));
+
+        GhostJobManager manager = new GhostJobManager();
+        for (int i = 0; i < positions.length; i++) {
+            BlockPos pos = BlockPos.of(positions[i]);
+            manager.registerJob(pos, GhostBlockEntity.GhostState.UNASSIGNED, states[i % states.length]);
+            if (i % CLAIM_EVERY == 0) manager.restoreAssignment(pos, drones[i % DRONES]);
+        }
+        Footprint.print("GhostJobManager", positions.length, Footprint.retained(manager, shared));
+    }
+
+    /**
+     * The queue and assignment maps as they were before the primitive store.
+     */
+    private static Object[] oldLayout(long[] positions, BlockState[] states, UUID[] drones) {
+        Map<Long, Map<BlockPos, BlockState>> constructionJobs = new ConcurrentHashMap<>();
+        Map<BlockPos, UUID> assignedPositions = new ConcurrentHashMap<>();
+        Map<Long, Set<BlockPos>> assignedInChunk = new ConcurrentHashMap<>();
+        for (int i = 0; i < positions.length; i++) {
+            BlockPos pos = BlockPos.of(positions[i]);
+            long chunk = ChunkPos.asLong(pos);
+            constructionJobs.computeIfAbsent(chunk, k -> new ConcurrentHashMap<>()).put(pos, states[i % states.length]);
+            if (i % CLAIM_EVERY == 0) {
+                assignedPositions.put(pos, drones[i % DRONES]);
+                assignedInChunk.computeIfAbsent(chunk, k -> ConcurrentHashMap.newKeySet()).add(pos);
+            }
+        }
+        return new Object[]{constructionJobs, assignedPositions, assignedInChunk};
+    }
+
+    private static long[] box() {
+        long[] positions = new long[JOBS];
+        int i = 0;
+        for (int y = 0; y < 100; y++) {
+            for (int z = 0; z < 100; z++) {
+                for (int x = 0; x < 100; x++) positions[i++] = BlockPos.asLong(x, y, z);
+            }
+        }
+        return positions;
+    }
+
+    private static long[] scattered(Random random) {
+        LongOpenHashSet positions = new LongOpenHashSet(JOBS);
+        while (positions.size() < JOBS) {
+            positions.add(BlockPos.asLong(random.nextInt(4096) - 2048, random.nextInt(384) - 64, random.nextInt(4096) - 2048));
+        }
+        return positions.toLongArray();
+    }
+}
@@ -43,6 +43,11 @@ public class DronePortBlockEntity extends BlockEntity implements IDronePort, net
     
     private final EnergyStorage energyStorage = new EnergyStorage(1000000, 50000, 50000); // 50k FE/t
 
+    /** This port's drones while no player is in range, simulated instead of ticked as entities. */
+    private final java.util.List<com.example.ghostlib.logic.VirtualDrone> virtualDrones = new java.util.ArrayList<>();
+    private boolean observed = true;
+    private boolean chunkUnloading = false;
+
     public DronePortBlockEntity(BlockPos pos, BlockState state) {
         super(ModBlockEntities.DRONE_PORT.get(), pos, state);
     }
@@ -85,10 +90,27 @@ public class DronePortBlockEntity extends BlockEntity implements IDronePort, net
         }
     }
 
+    @Override
+    public void onChunkUnloaded() {
+        super.onChunkUnloaded();
+        this.chunkUnloading = true;
+        // Claims don't outlive the chunk; cargo stays with the saved drones
+        if (level instanceof net.minecraft.server.level.ServerLevel sl) {
+            for (com.example.ghostlib.logic.VirtualDrone drone : virtualDrones) drone.release(sl);
+        }
+    }
+
     @Override
     public void setRemoved() {
         if (level != null && !level.isClientSide) {
             LogisticsNetworkManager.get(level).leaveNetwork(worldPosition);
+            // Port broken: its virtual drones come back as real (and now orphaned) drones
+            if (!chunkUnloading) {
+                materializeAll();
+                // Sleeping drones only notice they lost their port once awake
+                com.example.ghostlib.logic.DroneSleep.get(level).wakePort(worldPosition);
+                GhostJobManager.get(level).retireClaimer(UUID.nameUUIDFromBytes(worldPosition.toString().getBytes()));
+            }
         }
         super.setRemoved();
     }
@@ -112,9 +134,109 @@ public class DronePortBlockEntity extends BlockEntity implements IDronePort, net
             }
         }
 
-        if (level.getGameTime() % 20 == 0) {
-            be.trySpawnDrone();
+        long now = level.getGameTime();
+        for (com.example.ghostlib.logic.VirtualDrone drone : be.virtualDrones) {
+            drone.tick((net.minecraft.server.level.ServerLevel) level, be, now);
+        }
+
+        if (now % 20 == 0) {
+            be.updateObserved();
+            if (be.observed) be.trySpawnDrone();
+            else be.dispatchVirtualDrones(now);
+        }
+    }
+
+    /**
+     * Folds idle drones into virtual ones when no player is in range, and materializes them
+     * again as soon as one is.
+     */
+    private void updateObserved() {
+        double range = com.example.ghostlib.config.GhostLibConfig.PORT_ACTIVATION_RANGE;
+        observed = level.hasNearbyAlivePlayer(worldPosition.getX() + 0.5, worldPosition.getY() + 0.5, worldPosition.getZ() + 0.5, range);
+        if (observed) {
+            materializeAll();
+            return;
+        }
+
+        java.util.List<DroneEntity> idle = level.getEntitiesOfClass(DroneEntity.class, new net.minecraft.world.phys.AABB(worldPosition).inflate(range),
+                drone -> drone.canVirtualize() && drone.getPortPos().filter(worldPosition::equals).isPresent());
+        for (DroneEntity drone : idle) {
+            virtualDrones.add(com.example.ghostlib.logic.VirtualDrone.of(drone));
+            drone.discard();
+        }
+        if (!idle.isEmpty()) setChanged();
+    }
+
+    private void materializeAll() {
+        if (virtualDrones.isEmpty() || !(level instanceof net.minecraft.server.level.ServerLevel sl)) return;
+        long now = level.getGameTime();
+        for (com.example.ghostlib.logic.VirtualDrone drone : virtualDrones) {
+            level.addFreshEntity(drone.materialize(sl, worldPosition, now));
         }
+        virtualDrones.clear();
+        setChanged();
+    }
+
+    /**
+     * Hands jobs to idle virtual drones, hatching eggs into new ones while work remains.
+     */
+    private void dispatchVirtualDrones(long now) {
+        net.minecraft.server.level.ServerLevel sl = (net.minecraft.server.level.ServerLevel) level;
+        GhostJobManager manager = GhostJobManager.get(level);
+        for (int i = 0; i <= virtualDrones.size(); i++) {
+            com.example.ghostlib.logic.VirtualDrone drone;
+            GhostJobManager.Job job;
+            if (i < virtualDrones.size()) {
+                drone = virtualDrones.get(i);
+                if (drone.isBusy(now) || !drone.charge(this)) continue;
+                job = manager.requestJob(worldPosition, drone.getId(), true);
+                if (job == null) return;
+            } else {
+                // Every drone is out; only hatch another if there is a job for it
+                UUID portId = UUID.nameUUIDFromBytes(worldPosition.toString().getBytes());
+                job = manager.requestJob(worldPosition, portId, true);
+                if (job == null) return;
+                drone = hatchVirtualDrone();
+                if (drone == null) {
+                    manager.releaseJob(job.pos(), portId);
+                    return;
+                }
+                manager.reassignJob(job.pos(), portId, drone.getId());
+            }
+
+            if (!drone.chargeFor(this, job)) {
+                // Too far for what the port can charge; hand the job back rather than fly on credit
+                manager.releaseJob(job.pos(), drone.getId());
+                return;
+            }
+            if (!drone.dispatch(sl, this, job, now)) {
+                manager.releaseJob(job.pos(), drone.getId());
+                if (level.getBlockEntity(job.pos()) instanceof GhostBlockEntity gbe) {
+                    gbe.setState(GhostBlockEntity.GhostState.MISSING_ITEMS);
+                }
+                return;
+            }
+            setChanged();
+        }
+    }
+
+    private com.example.ghostlib.logic.VirtualDrone hatchVirtualDrone() {
+        for (int i = 0; i < inventory.getSlots(); i++) {
+            ItemStack stack = inventory.getStackInSlot(i);
+            if (stack.getItem() != com.example.ghostlib.registry.ModItems.DRONE_SPAWN_EGG.get()) continue;
+            DroneEntity drone = new DroneEntity(ModEntities.DRONE.get(), level);
+            net.minecraft.world.item.component.CustomData customData = stack.get(net.minecraft.core.component.DataComponents.ENTITY_DATA);
+            if (customData != null) {
+                customData.loadInto(drone);
+            }
+            drone.setPos(worldPosition.getX() + 0.5, worldPosition.getY() + 1.0, worldPosition.getZ() + 0.5);
+            drone.setPort(worldPosition);
+            stack.shrink(1);
+            com.example.ghostlib.logic.VirtualDrone virtual = com.example.ghostlib.logic.VirtualDrone.of(drone);
+            virtualDrones.add(virtual);
+            return virtual;
+        }
+        return null;
     }
 
     public ItemStackHandler getInventory() {
@@ -225,10 +347,14 @@ public class DronePortBlockEntity extends BlockEntity implements IDronePort, net
 
     @Override
     public ItemStack insertItem(ItemStack stack, boolean simulate) {
+        ItemStack offered = stack;
         for (int i = 0; i < inventory.getSlots(); i++) {
             stack = inventory.insertItem(i, stack, simulate);
             if (stack.isEmpty()) break;
         }
+        if (!simulate && stack.getCount() < offered.getCount()) {
+            GhostJobManager.notifyItemAvailable(level, worldPosition, offered, false);
+        }
         return stack;
     }
 
@@ -246,6 +372,11 @@ public class DronePortBlockEntity extends BlockEntity implements IDronePort, net
         super.saveAdditional(tag, registries);
         tag.put("Inventory", inventory.serializeNBT(registries));
         tag.putInt("Energy", energyStorage.getEnergyStored());
+        if (!virtualDrones.isEmpty()) {
+            net.minecraft.nbt.ListTag drones = new net.minecraft.nbt.ListTag();
+            for (com.example.ghostlib.logic.VirtualDrone drone : virtualDrones) drones.add(drone.save(registries));
+            tag.put("VirtualDrones", drones);
+        }
     }
 
     @Override
@@ -253,10 +384,19 @@ public class DronePortBlockEntity extends BlockEntity implements IDronePort, net
         super.loadAdditional(tag, registries);
         if (tag.contains("Inventory")) inventory.deserializeNBT(registries, tag.getCompound("Inventory"));
         if (tag.contains("Energy")) energyStorage.receiveEnergy(tag.getInt("Energy"), false);
+        virtualDrones.clear();
+        net.minecraft.nbt.ListTag drones = tag.getList("VirtualDrones", net.minecraft.nbt.Tag.TAG_COMPOUND);
+        for (int i = 0; i < drones.size(); i++) {
+            virtualDrones.add(com.example.ghostlib.logic.VirtualDrone.load(drones.getCompound(i), registries));
+        }
     }
 
     @Override
-    public CompoundTag getUpdateTag(HolderLookup.Provider registries) { return saveWithoutMetadata(registries); }
+    public CompoundTag getUpdateTag(HolderLookup.Provider registries) {
+        CompoundTag tag = saveWithoutMetadata(registries);
+        tag.remove("VirtualDrones"); // Server-side only
+        return tag;
+    }
 
     @Override
     public net.minecraft.network.protocol.Packet<net.minecraft.network.protocol.game.ClientGamePacketListener> getUpdatePacket() {
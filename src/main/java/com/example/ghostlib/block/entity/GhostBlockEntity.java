@@ -7,6 +7,7 @@ import net.minecraft.core.HolderLookup;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.NbtUtils;
 import net.minecraft.network.protocol.game.ClientboundBlockEntityDataPacket;
+import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.state.BlockState;
@@ -59,6 +60,7 @@ public class GhostBlockEntity extends BlockEntity {
     private CompoundTag capturedNbt = null;
     private GhostState currentState = GhostState.UNASSIGNED;
     private UUID assignedTo = null;
+    private boolean chunkUnloading = false;
 
     public GhostBlockEntity(BlockPos pos, BlockState state) {
         super(ModBlockEntities.GHOST_BLOCK_ENTITY.get(), pos, state);
@@ -117,12 +119,25 @@ public class GhostBlockEntity extends BlockEntity {
     public void onLoad() {
         super.onLoad();
         if (level != null && !level.isClientSide) {
+            GhostJobManager manager = GhostJobManager.get(level);
+            // The chunk's queues normally come back in bulk from the cold tier; only register if they didn't
+            manager.loadChunk(ChunkPos.asLong(getBlockPos()));
+            if (manager.isTracked(getBlockPos())) return;
             if (!targetState.isAir() || currentState == GhostState.TO_REMOVE || currentState == GhostState.REMOVING) {
-                GhostJobManager.get(level).registerJob(getBlockPos(), this.currentState, targetState);
+                manager.registerJob(getBlockPos(), this.currentState, targetState);
             }
         }
     }
 
+    /**
+     * Chunk unloads page the job out to the cold tier, so {@link #setRemoved()} must not cancel it.
+     */
+    @Override
+    public void onChunkUnloaded() {
+        super.onChunkUnloaded();
+        this.chunkUnloading = true;
+    }
+
     public void setAssignedTo(@Nullable UUID assignedTo) {
         this.assignedTo = assignedTo;
         if (assignedTo != null) {
@@ -154,7 +169,7 @@ public class GhostBlockEntity extends BlockEntity {
      */
     @Override
     public void setRemoved() {
-        if (level != null && !level.isClientSide) {
+        if (level != null && !level.isClientSide && !chunkUnloading) {
             GhostJobManager.get(level).removeJob(getBlockPos());
         }
         super.setRemoved();
@@ -24,7 +24,10 @@ import net.minecraft.world.inventory.MenuType;
 public class LogisticalChestBlockEntity extends BlockEntity implements net.minecraft.world.MenuProvider, com.lowdragmc.lowdraglib2.gui.factory.BlockUIMenuType.BlockUI, com.lowdragmc.lowdraglib2.gui.factory.IContainerUIHolder {
     private final ItemStackHandler inventory = new ItemStackHandler(27) {
         @Override
-        protected void onContentsChanged(int slot) { setChanged(); }
+        protected void onContentsChanged(int slot) {
+            setChanged();
+            com.example.ghostlib.util.GhostJobManager.notifyItemAvailable(level, worldPosition, getStackInSlot(slot), false);
+        }
     };
 
     public LogisticalChestBlockEntity(BlockPos pos, BlockState state) {
@@ -48,6 +48,11 @@ import java.util.ArrayList;
 @EventBusSubscriber(modid = GhostLib.MODID, bus = EventBusSubscriber.Bus.MOD, value = Dist.CLIENT)
 public class ClientModEventSubscriber {
 
+    @SubscribeEvent
+    public static void onClientSetup(net.neoforged.fml.event.lifecycle.FMLClientSetupEvent event) {
+        com.example.ghostlib.config.GhostLibConfig.loadClient();
+    }
+
     @SubscribeEvent
     public static void registerRenderers(EntityRenderersEvent.RegisterRenderers event) {
         event.registerBlockEntityRenderer(ModBlockEntities.GHOST_BLOCK_ENTITY.get(),
@@ -543,11 +548,9 @@ public class ClientModEventSubscriber {
                 }
             }
 
-            Map<Long, Map<BlockPos, BlockState>> jobs = manager.getDirectDeconstructJobs();
-            for (Map<BlockPos, BlockState> map : jobs.values()) {
-                for (BlockPos pos : map.keySet()) {
-                    renderFloatingText(poseStack, bufferSource, pos, "Job: Deconstruct", 0xFF0000);
-                }
+            it.unimi.dsi.fastutil.longs.LongIterator jobs = manager.getDirectDeconstructJobs().keySet().iterator();
+            while (jobs.hasNext()) {
+                renderFloatingText(poseStack, bufferSource, BlockPos.of(jobs.nextLong()), "Job: Deconstruct", 0xFF0000);
             }
 
             poseStack.popPose();
@@ -582,7 +585,7 @@ public class ClientModEventSubscriber {
         private static void renderDeconstructionMarkers(RenderLevelStageEvent event) {
             Minecraft mc = Minecraft.getInstance();
             GhostJobManager manager = GhostJobManager.get(mc.level);
-            Map<Long, Map<BlockPos, BlockState>> jobs = manager.getDirectDeconstructJobs();
+            it.unimi.dsi.fastutil.longs.LongIterator jobs = manager.getDirectDeconstructJobs().keySet().iterator();
 
             PoseStack poseStack = event.getPoseStack();
             Vec3 cameraPos = event.getCamera().getPosition();
@@ -593,14 +596,16 @@ public class ClientModEventSubscriber {
             poseStack.pushPose();
             poseStack.translate(-cameraPos.x, -cameraPos.y, -cameraPos.z);
 
-            for (Map<BlockPos, BlockState> map : jobs.values()) {
-                for (BlockPos pos : map.keySet()) {
-                    float s = 0.005f;
-                    net.minecraft.client.renderer.LevelRenderer.renderLineBox(poseStack, lineConsumer,
-                            pos.getX() - s, pos.getY() - s, pos.getZ() - s,
-                            pos.getX() + 1 + s, pos.getY() + 1 + s, pos.getZ() + 1 + s,
-                            1.0f, 0.0f, 0.0f, 1.0f);
-                }
+            while (jobs.hasNext()) {
+                long packed = jobs.nextLong();
+                int x = BlockPos.getX(packed);
+                int y = BlockPos.getY(packed);
+                int z = BlockPos.getZ(packed);
+                float s = 0.005f;
+                net.minecraft.client.renderer.LevelRenderer.renderLineBox(poseStack, lineConsumer,
+                        x - s, y - s, z - s,
+                        x + 1 + s, y + 1 + s, z + 1 + s,
+                        1.0f, 0.0f, 0.0f, 1.0f);
             }
 
             poseStack.popPose();
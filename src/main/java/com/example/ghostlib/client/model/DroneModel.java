@@ -10,9 +10,9 @@ import net.minecraft.client.model.geom.builders.CubeListBuilder;
 import net.minecraft.client.model.geom.builders.LayerDefinition;
 import net.minecraft.client.model.geom.builders.MeshDefinition;
 import net.minecraft.client.model.geom.builders.PartDefinition;
-import net.minecraft.world.entity.PathfinderMob;
+import net.minecraft.world.entity.Mob;
 
-public class DroneModel<T extends PathfinderMob> extends EntityModel<T> {
+public class DroneModel<T extends Mob> extends EntityModel<T> {
     private final ModelPart body;
 
     public DroneModel(ModelPart root) {
@@ -0,0 +1,24 @@
+package com.example.ghostlib.client.util;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.network.chat.Component;
+
+/**
+ * Shows the server's reconcile progress ("Reconciling 45%") above the hotbar.
+ */
+public class ClientReconcileProgress {
+    public static int done = 0;
+    public static int total = 0;
+
+    public static void update(int done, int total) {
+        ClientReconcileProgress.done = done;
+        ClientReconcileProgress.total = total;
+        Minecraft mc = Minecraft.getInstance();
+        if (mc.player == null || total <= 0) return;
+        int percent = (int) (100L * done / total);
+        Component message = done >= total
+                ? Component.literal("Reconciled " + total + " blocks")
+                : Component.literal("Reconciling " + percent + "% (" + done + "/" + total + ")");
+        mc.player.displayClientMessage(message, true);
+    }
+}
@@ -33,9 +33,76 @@ public class GhostCommand {
             .then(Commands.literal("assembler")
                 .executes(context -> openAssemblerGui(context.getSource()))
             )
+            .then(Commands.literal("sync_stats")
+                .executes(context -> showSyncStats(context.getSource()))
+                .then(Commands.literal("reset")
+                    .executes(context -> {
+                        com.example.ghostlib.network.SyncBandwidth.reset();
+                        context.getSource().sendSuccess(() -> Component.literal("Sync counters reset."), false);
+                        return 1;
+                    })
+                )
+            )
+            .then(Commands.literal("stats")
+                .executes(context -> {
+                    String summary = com.example.ghostlib.util.GhostJobManager.get(context.getSource().getLevel()).getMetrics().summary()
+                            + "\n" + com.example.ghostlib.logic.DroneTickScheduler.get(context.getSource().getLevel()).summary()
+                            + "\nSleeping drones: " + com.example.ghostlib.logic.DroneSleep.get(context.getSource().getLevel()).sleeping()
+                            + "\n" + com.example.ghostlib.history.WorldHistoryManager.get(context.getSource().getLevel()).ledgerSummary()
+                            + "\n" + com.example.ghostlib.history.WorldHistoryManager.get(context.getSource().getLevel()).historySummary()
+                            + String.format("%nReconciler: %d positions dirty, %.0f%% of backlog done",
+                                    com.example.ghostlib.history.WorldHistoryManager.get(context.getSource().getLevel()).dirtyCount(),
+                                    100 * com.example.ghostlib.history.WorldReconciler.get(context.getSource().getLevel()).progress(context.getSource().getLevel()));
+                    context.getSource().sendSuccess(() -> Component.literal(summary), false);
+                    return 1;
+                })
+                .then(Commands.literal("reset")
+                    .executes(context -> {
+                        com.example.ghostlib.util.GhostJobManager.get(context.getSource().getLevel()).getMetrics().reset();
+                        com.example.ghostlib.logic.DroneTickScheduler.get(context.getSource().getLevel()).resetStats();
+                        context.getSource().sendSuccess(() -> Component.literal("Job metrics reset."), false);
+                        return 1;
+                    })
+                )
+            )
+            .then(Commands.literal("fairness")
+                .executes(context -> showFairness(context.getSource()))
+                .then(Commands.literal("reset")
+                    .executes(context -> {
+                        com.example.ghostlib.util.GhostJobManager.get(context.getSource().getLevel()).getFairShare().resetStats();
+                        context.getSource().sendSuccess(() -> Component.literal("Latency stats reset."), false);
+                        return 1;
+                    })
+                )
+            )
         );
     }
 
+    private static int showFairness(CommandSourceStack source) {
+        var fairShare = com.example.ghostlib.util.GhostJobManager.get(source.getLevel()).getFairShare();
+        var players = source.getServer().getPlayerList();
+        StringBuilder sb = new StringBuilder("Job latency per owner (seconds since the action was issued):");
+        fairShare.forEachOwner((owner, stats) -> {
+            String name = "<world>";
+            if (owner != null) {
+                var player = players.getPlayer(owner);
+                name = player != null ? player.getName().getString() : owner.toString().substring(0, 8);
+            }
+            sb.append(String.format("%n %s: %d queued, %d done, mean %.1fs, p95 %.1fs, max %.1fs, last action %s",
+                    name, fairShare.queuedJobs(owner), stats.jobsCompleted(),
+                    stats.meanLatency() / 20.0, stats.recentPercentile(0.95) / 20.0, stats.maxLatency() / 20.0,
+                    stats.lastActionLatency() < 0 ? "n/a" : String.format("%.1fs", stats.lastActionLatency() / 20.0)));
+        });
+        source.sendSuccess(() -> Component.literal(sb.toString()), false);
+        return 1;
+    }
+
+    private static int showSyncStats(CommandSourceStack source) {
+        String summary = com.example.ghostlib.network.SyncBandwidth.summary();
+        source.sendSuccess(() -> Component.literal(summary), false);
+        return 1;
+    }
+
     private static int openAssemblerGui(CommandSourceStack source) {
         try {
             if (source.getEntity() instanceof net.minecraft.server.level.ServerPlayer player) {
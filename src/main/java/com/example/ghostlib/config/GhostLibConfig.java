@@ -17,16 +17,36 @@ public class GhostLibConfig {
     public static double DRONE_INTERACTION_RANGE = 12.0;
     public static int DRONE_SEARCH_RANGE_H = 32;
     public static int DRONE_SEARCH_RANGE_V = 16;
-    public static boolean RENDER_DRONE_BEAMS = true;
+    public static int MAX_ACTION_BLOCKS = 16777216;
+    public static int DRONE_TICK_BUDGET_US = 2000;
+    public static int RECONCILE_BUDGET_US = 5000;
+    public static int RECONCILE_MAX_PER_TICK = 4096;
+    public static int HIBERNATION_SWEEP_INTERVAL = 100;
+    public static int HISTORY_COMPACT_INTERVAL = 6000;
+    public static int HISTORY_MEMORY_KB = 16384;
+    public static int HISTORY_DISK_MB = 512;
     
     // UX Config
     public static boolean EXIT_MODE_AFTER_PLACE = true;
 
+    // Logging Config
+    public static boolean VERBOSE_DRONE_LOG = false;
+
+    // Client Config (ghostlib_client.yml, only read on the client)
+    public static boolean RENDER_DRONE_BEAMS = true;
+
     public static void load() {
         loadYaml("drone_port.yml", "port");
         loadYaml("drone.yml", "drone");
     }
 
+    /**
+     * Client-only settings. Called from client setup; dedicated servers never read this file.
+     */
+    public static void loadClient() {
+        loadYaml("ghostlib_client.yml", "client");
+    }
+
     private static void loadYaml(String fileName, String type) {
         Path configPath = Paths.get("config", fileName);
         if (!Files.exists(configPath)) {
@@ -42,10 +62,24 @@ public class GhostLibConfig {
                       interaction_range: 12.0
                       search_range_horizontal: 32
                       search_range_vertical: 16
-                    visuals:
-                      render_beams: true # Aesthetic laser beams on place/break
+                      max_action_blocks: 16777216 # Largest area or paste a single action may cover
+                    performance:
+                      drone_tick_budget_us: 2000 # Microseconds per tick for drone searches and validation
+                      reconcile_budget_us: 5000 # Microseconds per tick for turning edits into ghosts and jobs
+                      reconcile_max_per_tick: 4096 # Positions reconciled per tick at most
+                      hibernation_sweep_interval: 100 # Ticks between inventory sweeps for jobs waiting on items
+                      history_compact_interval: 6000 # Ticks between history journal checkpoints
+                      history_memory_kb: 16384 # Undo/redo steps kept in memory; older ones move to disk
+                      history_disk_mb: 512 # Undo/redo steps kept on disk; older ones are forgotten
                     ux:
                       exit_mode_after_place: true # Automatically exit selection mode after confirming action
+                    logging:
+                      verbose_drones: false # Log every drone action to logs/ghostlib/verbose.log
+                    """;
+                } else if (type.equals("client")) {
+                    content = """
+                    visuals:
+                      render_beams: true # Aesthetic laser beams on place/break
                     """;
                 } else {
                     content = """
@@ -93,8 +127,17 @@ public class GhostLibConfig {
                 case "logic.interaction_range" -> DRONE_INTERACTION_RANGE = Double.parseDouble(value);
                 case "logic.search_range_horizontal" -> DRONE_SEARCH_RANGE_H = Integer.parseInt(value);
                 case "logic.search_range_vertical" -> DRONE_SEARCH_RANGE_V = Integer.parseInt(value);
+                case "logic.max_action_blocks" -> MAX_ACTION_BLOCKS = Integer.parseInt(value);
+                case "performance.drone_tick_budget_us" -> DRONE_TICK_BUDGET_US = Integer.parseInt(value);
+                case "performance.reconcile_budget_us" -> RECONCILE_BUDGET_US = Integer.parseInt(value);
+                case "performance.reconcile_max_per_tick" -> RECONCILE_MAX_PER_TICK = Integer.parseInt(value);
+                case "performance.hibernation_sweep_interval" -> HIBERNATION_SWEEP_INTERVAL = Integer.parseInt(value);
+                case "performance.history_compact_interval" -> HISTORY_COMPACT_INTERVAL = Integer.parseInt(value);
+                case "performance.history_memory_kb" -> HISTORY_MEMORY_KB = Integer.parseInt(value);
+                case "performance.history_disk_mb" -> HISTORY_DISK_MB = Integer.parseInt(value);
                 case "visuals.render_beams" -> RENDER_DRONE_BEAMS = Boolean.parseBoolean(value);
                 case "ux.exit_mode_after_place" -> EXIT_MODE_AFTER_PLACE = Boolean.parseBoolean(value);
+                case "logging.verbose_drones" -> VERBOSE_DRONE_LOG = Boolean.parseBoolean(value);
             }
         } catch (Exception e) {}
     }
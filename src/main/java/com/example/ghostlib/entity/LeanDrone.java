@@ -0,0 +1,240 @@
+package com.example.ghostlib.entity;
+
+import com.example.ghostlib.registry.ModAttributes;
+import net.minecraft.core.Holder;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.Mth;
+import net.minecraft.world.damagesource.DamageSource;
+import net.minecraft.world.effect.MobEffectInstance;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.Mob;
+import net.minecraft.world.entity.ai.attributes.Attribute;
+import net.minecraft.world.entity.ai.attributes.AttributeInstance;
+import net.minecraft.world.entity.ai.navigation.PathNavigation;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.pathfinder.FlyNodeEvaluator;
+import net.minecraft.world.level.pathfinder.Path;
+import net.minecraft.world.level.pathfinder.PathFinder;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.phys.Vec3;
+
+/**
+ * Base for flying worker drones: a {@link Mob} with the AI machinery switched off.
+ *
+ * Drones steer themselves from their own state machine, so this class drops everything a
+ * pathfinding mob ticks on their behalf: goal and target selectors, navigation (a no-op one that
+ * never plans), sensing and the move/look/jump controls ({@link #serverAiStep} is empty), entity
+ * pushing and fall damage. Of the living-entity base tick it also skips the per-tick fluid scan,
+ * effect ticking (drones take no effects) and the enchantment checks on every block moved.
+ * Movement is a small integrator over the delta set by the subclass, and the attributes the
+ * drone reads every tick are resolved once instead of looked up in the attribute map each time.
+ * A parked drone skips movement and the environment part of the base tick altogether.
+ *
+ * Equipment change detection still runs: it is private to {@code LivingEntity}, and with empty
+ * slots it compares a few empty stacks and allocates nothing.
+ */
+public abstract class LeanDrone extends Mob {
+    /** Velocity kept per tick, the drag ordinary flying movement applies. */
+    protected static final double DRAG = 0.91;
+    /** Handed to every drone's navigation, which never searches, so one instance serves all. */
+    private static final PathFinder NO_PATHS = new PathFinder(new FlyNodeEvaluator(), 0);
+
+    private AttributeInstance interactionRange;
+    private AttributeInstance workSpeed;
+    private AttributeInstance maxEnergy;
+    private AttributeInstance energyEfficiency;
+    private AttributeInstance silkTouch;
+    private boolean parked;
+
+    protected LeanDrone(EntityType<? extends Mob> type, Level level) {
+        super(type, level);
+        this.setNoGravity(true);
+        this.noPhysics = true;
+    }
+
+    @Override
+    protected void serverAiStep() {
+        // No goals, navigation or controls; the subclass' tick drives everything
+    }
+
+    @Override
+    protected PathNavigation createNavigation(Level level) {
+        return new IdleNavigation(this, level);
+    }
+
+    @Override
+    public void baseTick() {
+        if (!parked || this.level().isClientSide) {
+            super.baseTick();
+            return;
+        }
+        // Parked: keep damage and death bookkeeping, skip fire, fluid, portal, air and block checks
+        this.firstTick = false;
+        if (this.hurtTime > 0) this.hurtTime--;
+        if (this.invulnerableTime > 0) this.invulnerableTime--;
+        if (this.isDeadOrDying()) this.tickDeath();
+        this.yRotO = this.getYRot();
+        this.xRotO = this.getXRot();
+        this.yBodyRotO = this.yBodyRot;
+        this.yHeadRotO = this.yHeadRot;
+    }
+
+    @Override
+    protected boolean updateInWaterStateAndDoFluidPushing() {
+        // Drones fly through fluids as they do through blocks: no currents, buoyancy or lava contact
+        return false;
+    }
+
+    @Override
+    public boolean canBeAffected(MobEffectInstance effect) {
+        return false;
+    }
+
+    @Override
+    protected void tickEffects() {
+        // Only effects from an old save can be present; they still run out normally
+        if (!this.getActiveEffectsMap().isEmpty()) super.tickEffects();
+    }
+
+    @Override
+    protected void onChangedBlock(ServerLevel level, BlockPos pos) {
+        // Drones wear nothing, so there are no location-based enchantment effects to re-check
+    }
+
+    @Override
+    public void aiStep() {
+        // Parked drones hang in place: no movement, no collision or environment checks
+        if (parked && !this.level().isClientSide) return;
+        super.aiStep();
+    }
+
+    protected void setParked(boolean parked) {
+        this.parked = parked;
+        if (parked) this.setDeltaMovement(Vec3.ZERO);
+    }
+
+    protected boolean isParked() {
+        return parked;
+    }
+
+    @Override
+    protected void pushEntities() {
+    }
+
+    @Override
+    public boolean causeFallDamage(float fallDistance, float multiplier, DamageSource source) {
+        return false;
+    }
+
+    @Override
+    protected void checkFallDamage(double y, boolean onGround, BlockState state, BlockPos pos) {
+    }
+
+    @Override
+    public void travel(Vec3 travelVector) {
+        if (this.isEffectiveAi() || this.isControlledByLocalInstance()) {
+            if (this.noPhysics) {
+                // Drones pass through blocks, so integrate the delta directly instead of resolving collisions
+                Vec3 delta = this.getDeltaMovement();
+                if (delta.lengthSqr() > 1.0E-7) {
+                    this.setPos(this.getX() + delta.x, this.getY() + delta.y, this.getZ() + delta.z);
+                    this.setDeltaMovement(delta.scale(DRAG));
+                } else if (delta != Vec3.ZERO) {
+                    this.setDeltaMovement(Vec3.ZERO);
+                }
+            } else {
+                super.travel(travelVector);
+            }
+        }
+    }
+
+    /**
+     * Turns body and head towards a point. Stands in for the look control, which no longer ticks.
+     */
+    protected void faceTowards(double x, double y, double z) {
+        double dx = x - this.getX();
+        double dy = y - this.getEyeY();
+        double dz = z - this.getZ();
+        double horizontal = Math.sqrt(dx * dx + dz * dz);
+        if (horizontal < 1.0E-5 && Math.abs(dy) < 1.0E-5) return;
+        float yaw = (float) (Mth.atan2(dz, dx) * Mth.RAD_TO_DEG) - 90.0F;
+        this.setYRot(yaw);
+        this.setYHeadRot(yaw);
+        this.yBodyRot = yaw;
+        this.setXRot((float) -(Mth.atan2(dy, horizontal) * Mth.RAD_TO_DEG));
+    }
+
+    /**
+     * Navigation that never plans a path and has nothing to tick.
+     */
+    private static final class IdleNavigation extends PathNavigation {
+        IdleNavigation(Mob mob, Level level) {
+            super(mob, level);
+        }
+
+        @Override
+        protected PathFinder createPathFinder(int maxVisitedNodes) {
+            return NO_PATHS;
+        }
+
+        @Override
+        protected Vec3 getTempMobPos() {
+            return this.mob.position();
+        }
+
+        @Override
+        protected boolean canUpdatePath() {
+            return false;
+        }
+
+        @Override
+        public Path createPath(BlockPos pos, int accuracy) {
+            return null;
+        }
+
+        @Override
+        public Path createPath(Entity entity, int accuracy) {
+            return null;
+        }
+
+        @Override
+        public void tick() {
+        }
+    }
+
+    // Attribute instances recompute their value only when modifiers change; caching the
+    // instance skips the attribute map lookup on the hot path.
+
+    private AttributeInstance resolve(Holder<Attribute> attribute) {
+        AttributeInstance instance = this.getAttribute(attribute);
+        if (instance == null) throw new IllegalStateException("Drone is missing attribute " + attribute.getRegisteredName());
+        return instance;
+    }
+
+    protected double interactionRange() {
+        if (interactionRange == null) interactionRange = resolve(ModAttributes.INTERACTION_RANGE);
+        return interactionRange.getValue();
+    }
+
+    protected double workSpeed() {
+        if (workSpeed == null) workSpeed = resolve(ModAttributes.WORK_SPEED);
+        return workSpeed.getValue();
+    }
+
+    public double maxEnergy() {
+        if (maxEnergy == null) maxEnergy = resolve(ModAttributes.MAX_ENERGY);
+        return maxEnergy.getValue();
+    }
+
+    public double energyEfficiency() {
+        if (energyEfficiency == null) energyEfficiency = resolve(ModAttributes.ENERGY_EFFICIENCY);
+        return energyEfficiency.getValue();
+    }
+
+    public boolean hasSilkTouch() {
+        if (silkTouch == null) silkTouch = resolve(ModAttributes.SILK_TOUCH);
+        return silkTouch.getValue() >= 1.0;
+    }
+}
@@ -39,6 +39,12 @@ public class CommonModEventSubscriber {
         GhostHistoryManager.saveHistory(event.getServer().overworld());
     }
 
+    @SubscribeEvent
+    public static void onServerStopped(net.neoforged.neoforge.event.server.ServerStoppedEvent event) {
+        // The final save only queued the history journal's writes
+        com.example.ghostlib.history.HistoryJournal.awaitWrites();
+    }
+
     @SubscribeEvent
     public static void onRegisterCommands(net.neoforged.neoforge.event.RegisterCommandsEvent event) {
         com.example.ghostlib.command.GhostCommand.register(event.getDispatcher());
@@ -131,6 +137,22 @@ public class CommonModEventSubscriber {
         }
     }
 
+    @SubscribeEvent
+    public static void onItemPickup(net.neoforged.neoforge.event.entity.player.ItemEntityPickupEvent.Post event) {
+        Player player = event.getPlayer();
+        com.example.ghostlib.util.GhostJobManager.notifyItemAvailable(player.level(), player.blockPosition(), event.getOriginalStack(), true);
+    }
+
+    @SubscribeEvent
+    public static void onContainerClose(net.neoforged.neoforge.event.entity.player.PlayerContainerEvent.Close event) {
+        // Items taken out of a container land in the player's inventory without a pickup event
+        Player player = event.getEntity();
+        if (player.level().isClientSide()) return;
+        for (int i = 0; i < player.getInventory().getContainerSize(); i++) {
+            com.example.ghostlib.util.GhostJobManager.notifyItemAvailable(player.level(), player.blockPosition(), player.getInventory().getItem(i), true);
+        }
+    }
+
     @SubscribeEvent
     public static void onServerTick(ServerTickEvent.Post event) {
         for (ServerLevel sl : event.getServer().getAllLevels()) {
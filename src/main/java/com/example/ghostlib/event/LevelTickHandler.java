@@ -8,6 +8,7 @@ import net.minecraft.world.level.Level;
 import net.neoforged.bus.api.SubscribeEvent;
 import net.neoforged.fml.common.EventBusSubscriber;
 import net.neoforged.neoforge.event.level.ChunkEvent;
+import net.neoforged.neoforge.event.level.ChunkWatchEvent;
 import net.neoforged.neoforge.event.tick.LevelTickEvent;
 
 /**
@@ -17,6 +18,16 @@ import net.neoforged.neoforge.event.tick.LevelTickEvent;
 @EventBusSubscriber(modid = GhostLib.MODID)
 public class LevelTickHandler {
 
+    /**
+     * Opens the level's drone AI budget before its entities tick.
+     */
+    @SubscribeEvent
+    public static void onLevelTickPre(LevelTickEvent.Pre event) {
+        if (event.getLevel() instanceof Level level && !level.isClientSide) {
+            com.example.ghostlib.logic.DroneTickScheduler.get(level).beginTick();
+        }
+    }
+
     /**
      * Ticks the job manager for the current level.
      */
@@ -24,13 +35,21 @@ public class LevelTickHandler {
     public static void onLevelTick(LevelTickEvent.Post event) {
         if (event.getLevel() instanceof Level level && !level.isClientSide) {
             com.example.ghostlib.util.GhostJobManager.get(level).tick(level);
+            com.example.ghostlib.logic.DroneSleep.get(level).tick(level.getGameTime());
+            // Drones enlisted during the entity tick get their jobs here, all matched together
+            long dispatchStart = System.nanoTime();
+            com.example.ghostlib.logic.SwarmDispatcher.get(level).tick((net.minecraft.server.level.ServerLevel)level);
+            com.example.ghostlib.logic.DroneTickScheduler.get(level).chargeDeferredWork(System.nanoTime() - dispatchStart);
             com.example.ghostlib.history.WorldReconciler.get(level).tick((net.minecraft.server.level.ServerLevel)level);
+            com.example.ghostlib.logic.DroneWorkEvents.get(level).flush((net.minecraft.server.level.ServerLevel)level);
+            if (level.getGameTime() % Math.max(1, com.example.ghostlib.config.GhostLibConfig.HISTORY_COMPACT_INTERVAL) == 0) {
+                com.example.ghostlib.history.WorldHistoryManager.get(level).compact();
+            }
         }
     }
 
     /**
-     * Cleans up jobs when chunks unload to prevent memory leaks.
-     * This is critical for long-running servers.
+     * Moves a chunk's jobs to the cold tier when it unloads.
      */
     @SubscribeEvent
     public static void onChunkUnload(ChunkEvent.Unload event) {
@@ -40,14 +59,38 @@ public class LevelTickHandler {
         long chunkKey = event.getChunk().getPos().toLong();
         GhostJobManager manager = GhostJobManager.get((Level) event.getLevel());
 
-        // CRITICAL: Clean up volatile job maps to prevent memory leak.
-        // Persistence is handled separately by GhostJobSavedData.
-        manager.getConstructionJobsMap().remove(chunkKey);
-        manager.getGhostRemovalJobsMap().remove(chunkKey);
-        manager.getDirectDeconstructJobs().remove(chunkKey);
-        manager.getHibernatingJobsMap().remove(chunkKey);
-        manager.releaseAssignmentsInChunk(chunkKey);
+        // Page the chunk's queues out to the cold tier; the hot maps only hold loaded chunks.
+        manager.unloadChunk(chunkKey);
+
+        GhostLib.LOGGER.debug("Paged out jobs in chunk {} during unload", event.getChunk().getPos());
+    }
 
-        GhostLib.LOGGER.debug("Cleaned up jobs and assignments in chunk {} during unload", event.getChunk().getPos());
+    /**
+     * Brings a chunk's paged-out jobs back in one bulk copy.
+     */
+    @SubscribeEvent
+    public static void onChunkLoad(ChunkEvent.Load event) {
+        if (event.getLevel().isClientSide() || !(event.getLevel() instanceof Level level))
+            return;
+        GhostJobManager.get(level).loadChunk(event.getChunk().getPos().toLong());
+    }
+
+    /**
+     * Sends the deconstruction overlay of a chunk as soon as a player starts tracking it.
+     */
+    @SubscribeEvent
+    public static void onChunkWatch(ChunkWatchEvent.Watch event) {
+        GhostJobManager manager = GhostJobManager.get(event.getLevel());
+        // Chunks loaded before the job data was read have no load event left to warm them
+        manager.loadChunk(event.getPos().toLong());
+        manager.syncChunk(event.getPlayer(), event.getPos().toLong(), true);
+    }
+
+    /**
+     * Clears the overlay of a chunk the player no longer tracks.
+     */
+    @SubscribeEvent
+    public static void onChunkUnWatch(ChunkWatchEvent.UnWatch event) {
+        GhostJobManager.get(event.getLevel()).syncChunk(event.getPlayer(), event.getPos().toLong(), false);
     }
 }
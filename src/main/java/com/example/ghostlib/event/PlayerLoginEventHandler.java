@@ -2,6 +2,8 @@ package com.example.ghostlib.event;
 
 import com.example.ghostlib.GhostLib;
 import com.example.ghostlib.registry.ModItems;
+import com.example.ghostlib.util.GhostJobManager;
+import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.item.ItemStack;
 import net.neoforged.bus.api.SubscribeEvent;
@@ -26,5 +28,16 @@ public class PlayerLoginEventHandler {
                     .withStyle(net.minecraft.ChatFormatting.AQUA), false);
             // Drones are given as items. Players must manually deploy them.
         }
+
+        if (player instanceof ServerPlayer serverPlayer) {
+            GhostJobManager.get(serverPlayer.level()).resyncPlayer(serverPlayer);
+        }
+    }
+
+    @SubscribeEvent
+    public static void onPlayerChangedDimension(PlayerEvent.PlayerChangedDimensionEvent event) {
+        if (event.getEntity() instanceof ServerPlayer serverPlayer) {
+            GhostJobManager.get(serverPlayer.level()).resyncPlayer(serverPlayer);
+        }
     }
 }
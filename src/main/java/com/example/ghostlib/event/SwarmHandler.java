@@ -21,6 +21,9 @@ public class SwarmHandler {
         if (player.level().isClientSide || !(player.level() instanceof ServerLevel serverLevel))
             return;
 
+        // Parked drones follow once their owner walks off; a map lookup, not a per-drone check
+        com.example.ghostlib.logic.DroneSleep.get(serverLevel).onOwnerTick(player);
+
         // Run logic every 20 ticks (1 second) to prevent lag
         if (player.tickCount % 20 != 0)
             return;
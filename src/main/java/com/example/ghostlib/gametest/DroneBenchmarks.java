@@ -0,0 +1,183 @@
+package com.example.ghostlib.gametest;
+
+import com.example.ghostlib.GhostLib;
+import com.example.ghostlib.entity.DroneEntity;
+import com.example.ghostlib.entity.LeanDrone;
+import com.example.ghostlib.registry.ModEntities;
+import net.minecraft.core.BlockPos;
+import net.minecraft.gametest.framework.GameTest;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.Mob;
+import net.minecraft.world.level.Level;
+import net.neoforged.neoforge.gametest.EmptyTemplate;
+import net.neoforged.neoforge.gametest.GameTestHolder;
+import net.neoforged.neoforge.gametest.PrefixGameTestTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Drone benchmarks that need a live server level. They run with the other game tests
+ * ({@code ./gradlew runGameTestServer}), aren't required to pass and write their results to the log.
+ *
+ * The drones are created but never added to the level and are ticked here by hand, so the figures
+ * cover the drones alone, without entity tracking, chunk sections or other tests in between.
+ */
+@GameTestHolder(GhostLib.MODID)
+@PrefixGameTestTemplate(false)
+public class DroneBenchmarks {
+    private static final int DRONES = 2000;
+    private static final int WARMUP_TICKS = 10;
+    private static final int TICKS = 40;
+
+    private static final int ALLOC_DRONES = 200;
+    private static final int ALLOC_WARMUP_TICKS = 60;
+    private static final int ALLOC_TICKS = 60;
+    /** Slack for allocations the JIT removes in one group and not the other. */
+    private static final double ALLOC_TOLERANCE = 8;
+    /** Speed of a drone returning in low power mode. */
+    private static final double LOW_POWER_SPEED = 0.7 * 0.2;
+
+    /**
+     * Tick cost of 2,000 awake drones flying back to their owner. For the figure before the lean
+     * base, run this class on the parent of the commit that introduced {@code LeanDrone}.
+     */
+    @EmptyTemplate(floor = true)
+    @GameTest(required = false)
+    public static void droneTickCost(GameTestHelper helper) {
+        List<DroneEntity> drones = createFlyingDrones(helper, spawnOwner(helper), DRONES, 16);
+        for (int t = 0; t < WARMUP_TICKS; t++) tickAll(drones);
+
+        long start = System.nanoTime();
+        for (int t = 0; t < TICKS; t++) tickAll(drones);
+        long elapsed = System.nanoTime() - start;
+
+        GhostLib.LOGGER.info(String.format("Drone tick: %d drones x %d ticks, %.2f us per drone, %.2f ms per server tick",
+                DRONES, TICKS, elapsed / 1000.0 / DRONES / TICKS, elapsed / 1.0E6 / TICKS));
+        drones.forEach(Entity::discard);
+        helper.succeed();
+    }
+
+    /**
+     * Bytes a flying drone's state machine allocates per tick, the figure JMH's {@code -prof gc}
+     * reports as {@code gc.alloc.rate.norm}, read from the same per-thread counter. Entities can't
+     * exist outside a level, so this runs here rather than under JMH.
+     *
+     * Vanilla's part of the tick (position, bounding box and velocity are immutable objects) is
+     * measured on bare {@link LeanDrone}s flying the same course and subtracted, which leaves what
+     * {@code DroneEntity} adds. Fails if that is more than rounding.
+     */
+    @EmptyTemplate(floor = true)
+    @GameTest(required = false)
+    public static void droneTickAllocation(GameTestHelper helper) {
+        ServerPlayer owner = spawnOwner(helper);
+        List<DroneEntity> drones = createFlyingDrones(helper, owner, ALLOC_DRONES, 24);
+        List<BareDrone> bare = new ArrayList<>(ALLOC_DRONES);
+        for (DroneEntity drone : drones) {
+            BareDrone reference = new BareDrone(ModEntities.DRONE.get(), helper.getLevel(), owner.getX(), owner.getY() + 2.0, owner.getZ());
+            reference.moveTo(drone.getX(), drone.getY(), drone.getZ(), 0, 0);
+            bare.add(reference);
+        }
+        for (int t = 0; t < ALLOC_WARMUP_TICKS; t++) {
+            tickAll(bare);
+            tickAll(drones);
+        }
+
+        double bareBytes = allocatedPerTick(bare);
+        double droneBytes = allocatedPerTick(drones);
+        double added = droneBytes - bareBytes;
+        GhostLib.LOGGER.info(String.format("Drone tick allocation: %.1f bytes per drone tick, %.1f of them vanilla's, %.1f added",
+                droneBytes, bareBytes, added));
+        drones.forEach(Entity::discard);
+        bare.forEach(Entity::discard);
+
+        if (added > ALLOC_TOLERANCE) {
+            helper.fail(String.format("A flying drone's tick allocates %.1f bytes on top of vanilla's", added));
+        } else {
+            helper.succeed();
+        }
+    }
+
+    private static double allocatedPerTick(List<? extends Mob> mobs) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int t = 0; t < ALLOC_TICKS; t++) tickAll(mobs);
+        return (double) (threads.getCurrentThreadAllocatedBytes() - before) / mobs.size() / ALLOC_TICKS;
+    }
+
+    private static ServerPlayer spawnOwner(GameTestHelper helper) {
+        BlockPos center = helper.absolutePos(new BlockPos(1, 2, 1));
+        ServerPlayer owner = helper.makeMockServerPlayerInLevel();
+        owner.moveTo(center.getX() + 0.5, center.getY(), center.getZ() + 0.5, 0, 0);
+        return owner;
+    }
+
+    /**
+     * Drones spread 9 blocks deep from {@code minRadius} around the owner and out of energy, so
+     * they head back to it in low power mode. At that speed none arrives within a benchmark.
+     */
+    private static List<DroneEntity> createFlyingDrones(GameTestHelper helper, ServerPlayer owner, int count, int minRadius) {
+        ServerLevel level = helper.getLevel();
+        List<DroneEntity> drones = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            DroneEntity drone = ModEntities.DRONE.get().create(level);
+            if (drone == null) throw new IllegalStateException("Drone entity type is disabled");
+            // Golden angle spiral, so the drones don't share positions
+            double angle = i * 2.399963;
+            double radius = minRadius + i % 9;
+            drone.moveTo(owner.getX() + Math.cos(angle) * radius, owner.getY() + 2 + i % 5,
+                    owner.getZ() + Math.sin(angle) * radius, 0, 0);
+            drone.setOwner(owner);
+
+            CompoundTag tag = drone.saveWithoutId(new CompoundTag());
+            tag.putInt("Energy", 0);
+            drone.load(tag);
+            drones.add(drone);
+        }
+        return drones;
+    }
+
+    /**
+     * One server tick for every mob, as {@code ServerLevel.tickNonPassenger} runs it.
+     */
+    private static void tickAll(List<? extends Mob> mobs) {
+        for (Mob mob : mobs) {
+            mob.setOldPosAndRot();
+            mob.tickCount++;
+            mob.tick();
+        }
+    }
+
+    /**
+     * The lean base with no state machine, steering to a fixed point the way a returning drone does.
+     */
+    private static final class BareDrone extends LeanDrone {
+        private final double targetX;
+        private final double targetY;
+        private final double targetZ;
+
+        BareDrone(EntityType<? extends Mob> type, Level level, double targetX, double targetY, double targetZ) {
+            super(type, level);
+            this.targetX = targetX;
+            this.targetY = targetY;
+            this.targetZ = targetZ;
+        }
+
+        @Override
+        public void tick() {
+            super.tick();
+            double dx = targetX - this.getX();
+            double dy = targetY - this.getY();
+            double dz = targetZ - this.getZ();
+            double scale = LOW_POWER_SPEED / Math.sqrt(dx * dx + dy * dy + dz * dz);
+            this.setDeltaMovement(dx * scale, dy * scale, dz * scale);
+            faceTowards(targetX, targetY, targetZ);
+        }
+    }
+}
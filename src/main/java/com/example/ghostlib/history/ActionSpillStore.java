@@ -0,0 +1,174 @@
+package com.example.ghostlib.history;
+
+import com.example.ghostlib.GhostLib;
+import net.minecraft.core.HolderLookup;
+import net.minecraft.nbt.NbtAccounter;
+import net.minecraft.nbt.NbtIo;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * File-backed overflow for the undo and redo stacks.
+ *
+ * {@link WorldHistoryManager} writes the actions that no longer fit its memory budget here and
+ * reads them back when an undo or redo reaches them. The file is append-only: a record never
+ * changes once written, so the timeline checkpoint can refer to records by offset, and an action
+ * paged in and spilled again reuses its old record. Space held by dropped records is reclaimed
+ * by {@link #rewrite} into a new file.
+ */
+class ActionSpillStore {
+    private static final Pattern FILE_NAME = Pattern.compile("history\\.(\\d+)\\.spill");
+
+    /** Where a spilled action is stored. */
+    record Ref(long offset, int length) {}
+
+    private final Path dir;
+    private final HolderLookup.Provider registries;
+    private String fileName;
+    private FileChannel channel;
+    private long liveBytes;
+
+    ActionSpillStore(Path dir, HolderLookup.Provider registries) {
+        this.dir = dir;
+        this.registries = registries;
+    }
+
+    /** Name of the file records are in, or null if none was written yet. */
+    String fileName() {
+        return fileName;
+    }
+
+    void open(String name) throws IOException {
+        close();
+        Files.createDirectories(dir);
+        channel = FileChannel.open(dir.resolve(name), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        fileName = name;
+    }
+
+    void close() {
+        if (channel == null) return;
+        try {
+            channel.close();
+        } catch (IOException ignored) {}
+        channel = null;
+    }
+
+    /** Name for a file no checkpoint can refer to yet. */
+    private String freshName() throws IOException {
+        long max = 0;
+        if (Files.isDirectory(dir)) {
+            try (Stream<Path> files = Files.list(dir)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    Matcher m = FILE_NAME.matcher(file.getFileName().toString());
+                    if (m.matches()) max = Math.max(max, Long.parseLong(m.group(1)));
+                }
+            }
+        }
+        return "history." + (max + 1) + ".spill";
+    }
+
+    /**
+     * @return Where the action was written, or null if it couldn't be.
+     */
+    Ref write(WorldHistoryManager.HistoryAction action) {
+        try {
+            if (channel == null) open(freshName());
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            NbtIo.writeCompressed(action.save(registries), bytes);
+            long offset = channel.size();
+            ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+            while (buffer.hasRemaining()) channel.write(buffer, offset + buffer.position());
+            Ref ref = new Ref(offset, bytes.size());
+            retain(ref);
+            return ref;
+        } catch (IOException e) {
+            GhostLib.LOGGER.error("Failed to spill history action {}", action.name(), e);
+            return null;
+        }
+    }
+
+    /**
+     * @return The action, or null if its record can't be read.
+     */
+    WorldHistoryManager.HistoryAction read(Ref ref) {
+        try {
+            if (channel == null) throw new IOException("No spill file open");
+            ByteBuffer buffer = ByteBuffer.allocate(ref.length());
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, ref.offset() + buffer.position()) < 0) throw new IOException("Spill record past end of file");
+            }
+            return WorldHistoryManager.HistoryAction.load(
+                    NbtIo.readCompressed(new ByteArrayInputStream(buffer.array()), NbtAccounter.unlimitedHeap()), registries);
+        } catch (IOException e) {
+            GhostLib.LOGGER.error("Failed to read spilled history action at {} in {}", ref.offset(), fileName, e);
+            return null;
+        }
+    }
+
+    void retain(Ref ref) {
+        liveBytes += ref.length();
+    }
+
+    /** The record is no longer referenced; its space is reclaimed by the next {@link #rewrite}. */
+    void release(Ref ref) {
+        liveBytes -= ref.length();
+    }
+
+    long liveBytes() {
+        return liveBytes;
+    }
+
+    /** Whether dropped records take up most of the file. */
+    boolean isSparse() {
+        try {
+            return channel != null && channel.size() > 2 * liveBytes + (1 << 20);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Copies the given records into a new file and switches to it. The old file is left for the
+     * journal to delete once a checkpoint points at the new one.
+     *
+     * @return The new refs, in the order given; null if the copy failed and nothing changed.
+     */
+    List<Ref> rewrite(List<Ref> live) {
+        FileChannel old = channel;
+        String oldName = fileName;
+        try {
+            channel = null;
+            open(freshName());
+            List<Ref> moved = new ArrayList<>(live.size());
+            long offset = 0;
+            for (Ref ref : live) {
+                long copied = 0;
+                while (copied < ref.length()) {
+                    copied += old.transferTo(ref.offset() + copied, ref.length() - copied, channel);
+                }
+                moved.add(new Ref(offset, ref.length()));
+                offset += ref.length();
+            }
+            old.close();
+            return moved;
+        } catch (IOException e) {
+            GhostLib.LOGGER.error("Failed to rewrite history spill file {}", oldName, e);
+            close();
+            channel = old;
+            fileName = oldName;
+            return null;
+        }
+    }
+}
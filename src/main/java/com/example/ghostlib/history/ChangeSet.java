@@ -0,0 +1,292 @@
+package com.example.ghostlib.history;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.HolderLookup;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.NbtUtils;
+import net.minecraft.nbt.Tag;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The intended states written by one {@link WorldHistoryManager.HistoryAction}.
+ *
+ * Area tools describe what they change as a shape (a filled box, a tiled blueprint) instead of
+ * a position map, so an action costs the same memory however many blocks it covers. Entries are
+ * expanded by index when the action is pushed, undone or redone. No position is listed twice.
+ */
+public interface ChangeSet {
+
+    int size();
+
+    /** Position of entry {@code index}; always immutable. */
+    BlockPos pos(int index);
+
+    BlockSnapshot state(int index);
+
+    CompoundTag save(HolderLookup.Provider registries);
+
+    /** Rough heap footprint in bytes; snapshots are shared, so only references to them count. */
+    long estimateBytes();
+
+    static ChangeSet of(Map<BlockPos, BlockSnapshot> changes) {
+        BlockPos[] positions = new BlockPos[changes.size()];
+        BlockSnapshot[] states = new BlockSnapshot[changes.size()];
+        int i = 0;
+        for (Map.Entry<BlockPos, BlockSnapshot> entry : changes.entrySet()) {
+            positions[i] = entry.getKey().immutable();
+            states[i++] = entry.getValue();
+        }
+        return new Explicit(positions, states);
+    }
+
+    /**
+     * Number of positions {@link #box} would cover. Corners come from clients, so this is a long
+     * and callers check it before building the change set.
+     */
+    static long boxSize(BlockPos a, BlockPos b) {
+        return (Math.abs((long) a.getX() - b.getX()) + 1)
+                * (Math.abs((long) a.getY() - b.getY()) + 1)
+                * (Math.abs((long) a.getZ() - b.getZ()) + 1);
+    }
+
+    /**
+     * Number of entries {@link #tiled} would hold, before overlapping copies are merged.
+     */
+    static long tiledSize(int patternSize, int countX, int countZ) {
+        return (long) patternSize * Math.max(0, countX) * Math.max(0, countZ);
+    }
+
+    /**
+     * Every position between two corners (inclusive, in any order) becomes {@code state}.
+     *
+     * @throws IllegalArgumentException If the box holds more than {@link Integer#MAX_VALUE} positions.
+     */
+    static ChangeSet box(BlockPos a, BlockPos b, BlockSnapshot state) {
+        if (boxSize(a, b) > Integer.MAX_VALUE) throw new IllegalArgumentException("Box too large: " + boxSize(a, b) + " positions");
+        return new BoxFill(
+                new BlockPos(Math.min(a.getX(), b.getX()), Math.min(a.getY(), b.getY()), Math.min(a.getZ(), b.getZ())),
+                new BlockPos(Math.max(a.getX(), b.getX()), Math.max(a.getY(), b.getY()), Math.max(a.getZ(), b.getZ())),
+                state);
+    }
+
+    /**
+     * A pattern stamped on a grid of origins: {@code start + (i * stepX, 0, k * stepZ)} for
+     * {@code i < countX}, {@code k < countZ}. Rotation and mirroring are already applied to the
+     * pattern by the time it reaches the server.
+     *
+     * If copies can overlap, the later copy wins and the result is expanded into an explicit map
+     * instead, which keeps the no-duplicates guarantee.
+     *
+     * @param pattern Relative position -> state, air already left out.
+     * @throws IllegalArgumentException If the copies hold more than {@link Integer#MAX_VALUE} entries.
+     */
+    static ChangeSet tiled(Map<BlockPos, BlockSnapshot> pattern, BlockPos start, int stepX, int stepZ, int countX, int countZ) {
+        if (pattern.isEmpty()) return of(pattern);
+        long total = tiledSize(pattern.size(), countX, countZ);
+        if (total > Integer.MAX_VALUE) throw new IllegalArgumentException("Placement too large: " + total + " entries");
+        long[] rels = new long[pattern.size()];
+        BlockSnapshot[] states = new BlockSnapshot[pattern.size()];
+        int minX = Integer.MAX_VALUE, maxX = Integer.MIN_VALUE, minZ = Integer.MAX_VALUE, maxZ = Integer.MIN_VALUE;
+        int i = 0;
+        for (Map.Entry<BlockPos, BlockSnapshot> entry : pattern.entrySet()) {
+            BlockPos rel = entry.getKey();
+            minX = Math.min(minX, rel.getX());
+            maxX = Math.max(maxX, rel.getX());
+            minZ = Math.min(minZ, rel.getZ());
+            maxZ = Math.max(maxZ, rel.getZ());
+            rels[i] = rel.asLong();
+            states[i++] = entry.getValue();
+        }
+        BlueprintRef ref = new BlueprintRef(rels, states, start.immutable(), stepX, stepZ, countX, countZ);
+
+        // 1. Copies in different columns can't collide if each step clears the pattern's footprint
+        boolean overlaps = (countX > 1 && Math.abs(stepX) <= maxX - minX) || (countZ > 1 && Math.abs(stepZ) <= maxZ - minZ);
+        if (!overlaps) return ref;
+
+        // 2. Otherwise resolve the collisions once, in placement order
+        Map<BlockPos, BlockSnapshot> expanded = new LinkedHashMap<>();
+        for (int j = 0; j < ref.size(); j++) expanded.put(ref.pos(j), ref.state(j));
+        return of(expanded);
+    }
+
+    /**
+     * Reads a change set written by {@link #save}. Also reads the old per-position
+     * {@code Changes} list that actions used to be saved with.
+     */
+    static ChangeSet load(CompoundTag tag, HolderLookup.Provider registries) {
+        switch (tag.getString("Kind")) {
+            case "Box":
+                return new BoxFill(
+                        NbtUtils.readBlockPos(tag, "Min").orElse(BlockPos.ZERO),
+                        NbtUtils.readBlockPos(tag, "Max").orElse(BlockPos.ZERO),
+                        BlockSnapshot.load(tag.getCompound("Snapshot"), registries));
+            case "Blueprint": {
+                ListTag list = tag.getList("Pattern", Tag.TAG_COMPOUND);
+                long[] rels = new long[list.size()];
+                BlockSnapshot[] states = new BlockSnapshot[list.size()];
+                for (int i = 0; i < list.size(); i++) {
+                    CompoundTag entry = list.getCompound(i);
+                    rels[i] = entry.getLong("Rel");
+                    states[i] = BlockSnapshot.load(entry.getCompound("Snapshot"), registries);
+                }
+                return new BlueprintRef(rels, states, NbtUtils.readBlockPos(tag, "Start").orElse(BlockPos.ZERO),
+                        tag.getInt("StepX"), tag.getInt("StepZ"), Math.max(1, tag.getInt("CountX")), Math.max(1, tag.getInt("CountZ")));
+            }
+            default: {
+                ListTag list = tag.getList("Changes", Tag.TAG_COMPOUND);
+                BlockPos[] positions = new BlockPos[list.size()];
+                BlockSnapshot[] states = new BlockSnapshot[list.size()];
+                for (int i = 0; i < list.size(); i++) {
+                    CompoundTag changeTag = list.getCompound(i);
+                    positions[i] = NbtUtils.readBlockPos(changeTag, "Pos").orElse(BlockPos.ZERO);
+                    states[i] = BlockSnapshot.load(changeTag.getCompound("Snapshot"), registries);
+                }
+                return new Explicit(positions, states);
+            }
+        }
+    }
+
+    /**
+     * One entry per position, for single-block and irregular changes.
+     */
+    record Explicit(BlockPos[] targets, BlockSnapshot[] states) implements ChangeSet {
+        @Override
+        public int size() {
+            return targets.length;
+        }
+
+        @Override
+        public BlockPos pos(int index) {
+            return targets[index];
+        }
+
+        @Override
+        public BlockSnapshot state(int index) {
+            return states[index];
+        }
+
+        @Override
+        public long estimateBytes() {
+            // Arrays, plus a BlockPos object and two references per entry
+            return 48 + targets.length * 40L;
+        }
+
+        @Override
+        public CompoundTag save(HolderLookup.Provider registries) {
+            CompoundTag tag = new CompoundTag();
+            ListTag list = new ListTag();
+            for (int i = 0; i < targets.length; i++) {
+                CompoundTag changeTag = new CompoundTag();
+                changeTag.put("Pos", NbtUtils.writeBlockPos(targets[i]));
+                changeTag.put("Snapshot", states[i].save(registries));
+                list.add(changeTag);
+            }
+            tag.put("Changes", list);
+            return tag;
+        }
+    }
+
+    /**
+     * Every position in {@code min..max} (inclusive) becomes {@code snapshot}. Expanded bottom
+     * layer first, x fastest.
+     */
+    record BoxFill(BlockPos min, BlockPos max, BlockSnapshot snapshot) implements ChangeSet {
+        private int sizeX() {
+            return max.getX() - min.getX() + 1;
+        }
+
+        private int sizeZ() {
+            return max.getZ() - min.getZ() + 1;
+        }
+
+        @Override
+        public int size() {
+            return Math.toIntExact(boxSize(min, max));
+        }
+
+        @Override
+        public BlockPos pos(int index) {
+            int sx = sizeX();
+            int layer = sx * sizeZ();
+            int inLayer = index % layer;
+            return new BlockPos(min.getX() + inLayer % sx, min.getY() + index / layer, min.getZ() + inLayer / sx);
+        }
+
+        @Override
+        public BlockSnapshot state(int index) {
+            return snapshot;
+        }
+
+        @Override
+        public long estimateBytes() {
+            return 80;
+        }
+
+        @Override
+        public CompoundTag save(HolderLookup.Provider registries) {
+            CompoundTag tag = new CompoundTag();
+            tag.putString("Kind", "Box");
+            tag.put("Min", NbtUtils.writeBlockPos(min));
+            tag.put("Max", NbtUtils.writeBlockPos(max));
+            tag.put("Snapshot", snapshot.save(registries));
+            return tag;
+        }
+    }
+
+    /**
+     * A pattern and the grid it was stamped on; see {@link ChangeSet#tiled}. Holds the pattern
+     * once, however many copies were placed.
+     *
+     * @param rels   Packed relative positions of the pattern's non-air blocks.
+     * @param states State per entry of {@code rels}.
+     */
+    record BlueprintRef(long[] rels, BlockSnapshot[] states, BlockPos start, int stepX, int stepZ, int countX, int countZ) implements ChangeSet {
+        @Override
+        public int size() {
+            return Math.toIntExact(tiledSize(rels.length, countX, countZ));
+        }
+
+        @Override
+        public BlockPos pos(int index) {
+            int copy = index / rels.length;
+            long rel = rels[index % rels.length];
+            return new BlockPos(
+                    start.getX() + (copy % countX) * stepX + BlockPos.getX(rel),
+                    start.getY() + BlockPos.getY(rel),
+                    start.getZ() + (copy / countX) * stepZ + BlockPos.getZ(rel));
+        }
+
+        @Override
+        public BlockSnapshot state(int index) {
+            return states[index % rels.length];
+        }
+
+        @Override
+        public long estimateBytes() {
+            return 96 + rels.length * 12L;
+        }
+
+        @Override
+        public CompoundTag save(HolderLookup.Provider registries) {
+            CompoundTag tag = new CompoundTag();
+            tag.putString("Kind", "Blueprint");
+            ListTag list = new ListTag();
+            for (int i = 0; i < rels.length; i++) {
+                CompoundTag entry = new CompoundTag();
+                entry.putLong("Rel", rels[i]);
+                entry.put("Snapshot", states[i].save(registries));
+                list.add(entry);
+            }
+            tag.put("Pattern", list);
+            tag.put("Start", NbtUtils.writeBlockPos(start));
+            tag.putInt("StepX", stepX);
+            tag.putInt("StepZ", stepZ);
+            tag.putInt("CountX", countX);
+            tag.putInt("CountZ", countZ);
+            return tag;
+        }
+    }
+}
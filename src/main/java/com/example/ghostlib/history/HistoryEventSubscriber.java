@@ -49,7 +49,7 @@ public class HistoryEventSubscriber {
         BlockSnapshot after = new BlockSnapshot(newState, null); // Manual placement NBT is usually uninitialized
 
         WorldHistoryManager.get((Level)event.getLevel()).pushAction(
-            new WorldHistoryManager.HistoryAction("Manual Place", Map.of(pos, after)),
+            new WorldHistoryManager.HistoryAction("Manual Place", Map.of(pos, after), player.getUUID()),
             (Level)event.getLevel(),
             Map.of(pos, before)
         );
@@ -72,7 +72,7 @@ public class HistoryEventSubscriber {
         BlockSnapshot before = new BlockSnapshot(oldState, oldNbt);
 
         WorldHistoryManager.get((Level)event.getLevel()).pushAction(
-            new WorldHistoryManager.HistoryAction("Manual Break", Map.of(pos, BlockSnapshot.AIR)),
+            new WorldHistoryManager.HistoryAction("Manual Break", Map.of(pos, BlockSnapshot.AIR), player.getUUID()),
             (Level)event.getLevel(),
             Map.of(pos, before)
         );
@@ -0,0 +1,501 @@
+package com.example.ghostlib.history;
+
+import com.example.ghostlib.GhostLib;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.HolderLookup;
+import net.minecraft.core.SectionPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.NbtAccounter;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.world.level.ChunkPos;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Append-only persistence for {@link WorldHistoryManager}.
+ *
+ * Every ledger change (a version pushed or popped) is appended to the log of the region
+ * (32x32 chunks) it falls in, and every timeline change (action pushed, undo, redo) to the
+ * timeline log. Records are buffered in memory and handed to one background writer on autosave,
+ * so a save costs what changed since the last one rather than the size of the ledger.
+ *
+ * Each flush is one batch. Every log it touches gets a frame (batch number, length, records), and
+ * once all frames are on disk the writer records the batch number in {@code commit.dat}. Loading
+ * stops every log at the first frame past that number and cuts it off, so a flush interrupted
+ * halfway through its region and timeline logs is dropped as a whole.
+ *
+ * Logs are split into generations. Compaction copies the state of every shard whose log grew,
+ * starts a new generation for it, and leaves it to the writer to turn the copy into a checkpoint
+ * and delete the generations it covers. Loading reads each shard's checkpoint and replays the
+ * generations written after it.
+ *
+ * Files: {@code r.<x>.<z>.dat}, {@code r.<x>.<z>.<gen>.log}, {@code timeline.dat}, {@code timeline.<gen>.log},
+ * {@code commit.dat}.
+ */
+public class HistoryJournal {
+    private static final ExecutorService WRITER = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "GhostLib History Writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final Pattern FILE_NAME = Pattern.compile("(r\\.-?\\d+\\.-?\\d+|timeline)(?:\\.(\\d+))?\\.(dat|log)");
+    private static final Pattern SPILL_NAME = Pattern.compile("history\\.(\\d+)\\.spill");
+    private static final String TIMELINE = "timeline";
+    private static final String COMMIT = "commit.dat";
+    /** Batch number and length in front of each frame. */
+    private static final int FRAME_HEADER = Long.BYTES + Integer.BYTES;
+
+    // Region log records
+    private static final int DEFINE = 0;
+    private static final int PUSH = 1;
+    private static final int POP = 2;
+    // Timeline log records
+    private static final int ACTION = 0;
+    private static final int UNDO = 1;
+    private static final int REDO = 2;
+
+    private static class Shard {
+        final String name;
+        long generation;
+        final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(pending);
+        /** Snapshots already written to this generation's log, by the id records refer to them with. */
+        final Object2IntOpenHashMap<BlockSnapshot> defined = new Object2IntOpenHashMap<>();
+        /** Logged to since the last checkpoint. */
+        boolean changed;
+
+        Shard(String name, long generation) {
+            this.name = name;
+            this.generation = generation;
+            defined.defaultReturnValue(-1);
+        }
+    }
+
+    private final Path dir;
+    private final HolderLookup.Provider registries;
+    private final Long2ObjectOpenHashMap<Shard> regions = new Long2ObjectOpenHashMap<>();
+    private Shard timeline;
+    private long nextGeneration = 1;
+    private long nextBatch = 1;
+    /** Writer thread only. Set once a batch failed to write; later batches build on it and are never committed. */
+    private boolean writeFailed;
+
+    public HistoryJournal(Path dir, HolderLookup.Provider registries) {
+        this.dir = dir;
+        this.registries = registries;
+    }
+
+    private static long regionOf(long packedPos) {
+        return ChunkPos.asLong(BlockPos.getX(packedPos) >> 9, BlockPos.getZ(packedPos) >> 9);
+    }
+
+    private static long regionOfSection(long sectionKey) {
+        return ChunkPos.asLong(SectionPos.x(sectionKey) >> 5, SectionPos.z(sectionKey) >> 5);
+    }
+
+    private Shard region(long region) {
+        Shard shard = regions.get(region);
+        if (shard == null) {
+            shard = new Shard("r." + ChunkPos.getX(region) + "." + ChunkPos.getZ(region), nextGeneration);
+            regions.put(region, shard);
+        }
+        return shard;
+    }
+
+    private Shard timeline() {
+        if (timeline == null) timeline = new Shard(TIMELINE, nextGeneration);
+        return timeline;
+    }
+
+    public void logPush(long packedPos, BlockSnapshot snapshot) {
+        Shard shard = region(regionOf(packedPos));
+        try {
+            int id = shard.defined.getInt(snapshot);
+            if (id == -1) {
+                id = shard.defined.size();
+                shard.defined.put(snapshot, id);
+                shard.out.writeByte(DEFINE);
+                shard.out.writeInt(id);
+                NbtIo.write(snapshot.save(registries), shard.out);
+            }
+            shard.out.writeByte(PUSH);
+            shard.out.writeLong(packedPos);
+            shard.out.writeInt(id);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        shard.changed = true;
+    }
+
+    public void logPop(long packedPos) {
+        Shard shard = region(regionOf(packedPos));
+        try {
+            shard.out.writeByte(POP);
+            shard.out.writeLong(packedPos);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        shard.changed = true;
+    }
+
+    public void logAction(WorldHistoryManager.HistoryAction action) {
+        Shard shard = timeline();
+        try {
+            shard.out.writeByte(ACTION);
+            NbtIo.write(action.save(registries), shard.out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        shard.changed = true;
+    }
+
+    public void logUndo() {
+        logTimeline(UNDO);
+    }
+
+    public void logRedo() {
+        logTimeline(REDO);
+    }
+
+    private void logTimeline(int record) {
+        Shard shard = timeline();
+        try {
+            shard.out.writeByte(record);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        shard.changed = true;
+    }
+
+    /**
+     * Hands every buffered record to the writer as one batch. Called on save.
+     */
+    public void flush() {
+        long batch = nextBatch;
+        List<Map.Entry<Path, byte[]>> frames = new ArrayList<>();
+        for (Shard shard : regions.values()) frame(shard, batch, frames);
+        if (timeline != null) frame(timeline, batch, frames);
+        if (frames.isEmpty()) return;
+        nextBatch++;
+        WRITER.execute(() -> {
+            if (writeFailed) return;
+            try {
+                Files.createDirectories(dir);
+                for (Map.Entry<Path, byte[]> frame : frames) {
+                    Files.write(frame.getKey(), frame.getValue(), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                }
+                CompoundTag commit = new CompoundTag();
+                commit.putLong("Batch", batch);
+                Path tmp = dir.resolve(COMMIT + ".tmp");
+                NbtIo.write(commit, tmp);
+                Files.move(tmp, dir.resolve(COMMIT), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                writeFailed = true;
+                GhostLib.LOGGER.error("Failed to write history batch {}; history logged from here on is dropped on the next load", batch, e);
+            }
+        });
+    }
+
+    private void frame(Shard shard, long batch, List<Map.Entry<Path, byte[]>> frames) {
+        if (shard.pending.size() == 0) return;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(FRAME_HEADER + shard.pending.size());
+        try {
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeLong(batch);
+            out.writeInt(shard.pending.size());
+            shard.pending.writeTo(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        shard.pending.reset();
+        frames.add(Map.entry(dir.resolve(shard.name + "." + shard.generation + ".log"), bytes.toByteArray()));
+    }
+
+    /**
+     * Checkpoints every shard logged to since its last checkpoint.
+     *
+     * @param all Checkpoint every region with ledger data, e.g. after loading an old-format save.
+     */
+    public void compact(WorldHistoryManager manager, boolean all) {
+        flush();
+
+        // 1. Copy the state of the regions to checkpoint; sections and dirty positions are grouped by region
+        Long2ObjectOpenHashMap<CompoundTag> checkpoints = new Long2ObjectOpenHashMap<>();
+        Long2ObjectOpenHashMap<List<Map.Entry<Long, LedgerSection>>> sections = new Long2ObjectOpenHashMap<>();
+        for (Long2ObjectMap.Entry<LedgerSection> entry : manager.ledgerSections().long2ObjectEntrySet()) {
+            long region = regionOfSection(entry.getLongKey());
+            Shard shard = regions.get(region);
+            if (!all && (shard == null || !shard.changed)) continue;
+            sections.computeIfAbsent(region, k -> new ArrayList<>()).add(Map.entry(entry.getLongKey(), entry.getValue().copy()));
+        }
+        for (Long2ObjectMap.Entry<Shard> entry : regions.long2ObjectEntrySet()) {
+            if (entry.getValue().changed) sections.computeIfAbsent(entry.getLongKey(), k -> new ArrayList<>());
+        }
+        Long2ObjectOpenHashMap<LongArrayList> dirty = new Long2ObjectOpenHashMap<>();
+        for (LongIterator it = manager.dirtyChunks().iterator(); it.hasNext(); ) {
+            long chunk = it.nextLong();
+            long region = ChunkPos.asLong(ChunkPos.getX(chunk) >> 5, ChunkPos.getZ(chunk) >> 5);
+            if (!sections.containsKey(region)) continue;
+            LongArrayList regionDirty = dirty.computeIfAbsent(region, k -> new LongArrayList());
+            regionDirty.addElements(regionDirty.size(), manager.dirtyIn(chunk));
+        }
+
+        // 2. Start new generations; the checkpoints cover everything up to the current ones
+        for (Long2ObjectMap.Entry<List<Map.Entry<Long, LedgerSection>>> entry : sections.long2ObjectEntrySet()) {
+            Shard shard = region(entry.getLongKey());
+            long covered = rotate(shard);
+            List<Map.Entry<Long, LedgerSection>> copies = entry.getValue();
+            LongArrayList regionDirty = dirty.get(entry.getLongKey());
+            long[] dirtyPositions = regionDirty == null ? new long[0] : regionDirty.toLongArray();
+            WRITER.execute(() -> {
+                CompoundTag tag = new CompoundTag();
+                tag.putLong("Gen", covered);
+                ListTag list = new ListTag();
+                for (Map.Entry<Long, LedgerSection> copy : copies) {
+                    CompoundTag sectionTag = copy.getValue().save(registries);
+                    sectionTag.putLong("Section", copy.getKey());
+                    list.add(sectionTag);
+                }
+                tag.put("Sections", list);
+                tag.putLongArray("Dirty", dirtyPositions);
+                writeCheckpoint(shard.name, covered, tag);
+            });
+        }
+
+        // 3. The in-memory part of the timeline is bounded by its budget, so it is saved whole
+        if (all || (timeline != null && timeline.changed)) checkpointTimeline(manager);
+    }
+
+    /**
+     * Checkpoints the timeline now, e.g. because the spill file it refers to was replaced.
+     */
+    public void checkpointTimeline(WorldHistoryManager manager) {
+        // The whole batch, so the logged timeline never gets ahead of the ledger changes it made
+        flush();
+        CompoundTag tag = manager.saveTimeline(registries);
+        long covered = rotate(timeline());
+        tag.putLong("Gen", covered);
+        WRITER.execute(() -> writeCheckpoint(TIMELINE, covered, tag));
+    }
+
+    /** @return The generation that just closed. */
+    private long rotate(Shard shard) {
+        long covered = shard.generation;
+        shard.generation = nextGeneration++;
+        shard.defined.clear();
+        shard.changed = false;
+        return covered;
+    }
+
+    /** Writer thread: replaces a shard's checkpoint, then drops the logs it covers. */
+    private void writeCheckpoint(String name, long covered, CompoundTag tag) {
+        try {
+            Files.createDirectories(dir);
+            Path tmp = dir.resolve(name + ".dat.tmp");
+            NbtIo.writeCompressed(tag, tmp);
+            Files.move(tmp, dir.resolve(name + ".dat"), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            for (Map.Entry<Long, Path> log : logs(name).entrySet()) {
+                if (log.getKey() <= covered) Files.deleteIfExists(log.getValue());
+            }
+            // Spill files older than the one the timeline points at have been replaced by it
+            Matcher current = SPILL_NAME.matcher(tag.getString("SpillFile"));
+            if (name.equals(TIMELINE) && current.matches()) {
+                long keep = Long.parseLong(current.group(1));
+                try (Stream<Path> files = Files.list(dir)) {
+                    for (Path file : (Iterable<Path>) files::iterator) {
+                        Matcher m = SPILL_NAME.matcher(file.getFileName().toString());
+                        if (m.matches() && Long.parseLong(m.group(1)) < keep) Files.deleteIfExists(file);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            GhostLib.LOGGER.error("Failed to write history checkpoint {}", name, e);
+        }
+    }
+
+    /** Log files of a shard by generation. */
+    private TreeMap<Long, Path> logs(String name) throws IOException {
+        TreeMap<Long, Path> logs = new TreeMap<>();
+        if (!Files.isDirectory(dir)) return logs;
+        try (Stream<Path> files = Files.list(dir)) {
+            files.forEach(file -> {
+                Matcher m = FILE_NAME.matcher(file.getFileName().toString());
+                if (m.matches() && m.group(1).equals(name) && m.group(2) != null) logs.put(Long.parseLong(m.group(2)), file);
+            });
+        }
+        return logs;
+    }
+
+    /**
+     * Rebuilds {@code manager} from the checkpoints and the logs written after them.
+     * Call before the journal is attached, so the replay isn't logged again.
+     */
+    public void replay(WorldHistoryManager manager) {
+        if (!Files.isDirectory(dir)) return;
+        Set<String> shards = new HashSet<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            files.forEach(file -> {
+                Matcher m = FILE_NAME.matcher(file.getFileName().toString());
+                if (m.matches()) shards.add(m.group(1));
+                if (m.matches() && m.group(2) != null) nextGeneration = Math.max(nextGeneration, Long.parseLong(m.group(2)) + 1);
+            });
+        } catch (IOException e) {
+            GhostLib.LOGGER.error("Failed to list history journal {}", dir, e);
+            return;
+        }
+
+        long committed = 0;
+        try {
+            CompoundTag commit = NbtIo.read(dir.resolve(COMMIT));
+            if (commit != null) committed = commit.getLong("Batch");
+        } catch (IOException e) {
+            GhostLib.LOGGER.error("Failed to read history commit marker in {}", dir, e);
+        }
+        nextBatch = committed + 1;
+
+        for (String name : shards) {
+            try {
+                // 1. Checkpoint, if the shard ever had one
+                long covered = 0;
+                Path dat = dir.resolve(name + ".dat");
+                if (Files.exists(dat)) {
+                    CompoundTag tag = NbtIo.readCompressed(dat, NbtAccounter.unlimitedHeap());
+                    covered = tag.getLong("Gen");
+                    nextGeneration = Math.max(nextGeneration, covered + 1);
+                    if (name.equals(TIMELINE)) manager.loadTimeline(tag, registries);
+                    else manager.loadCheckpoint(tag, registries);
+                }
+
+                // 2. Logs written after it, oldest first. Once one is cut short, the ones after it
+                //    build on records that are gone and are dropped as well.
+                boolean intact = true;
+                for (Map.Entry<Long, Path> log : logs(name).entrySet()) {
+                    if (log.getKey() <= covered) continue;
+                    if (intact) intact = replayLog(manager, log.getValue(), name.equals(TIMELINE), committed);
+                    else Files.deleteIfExists(log.getValue());
+                }
+            } catch (IOException e) {
+                GhostLib.LOGGER.error("Failed to replay history shard {}", name, e);
+            }
+        }
+    }
+
+    /**
+     * Replays the committed frames of one log. Stops at the first frame that is uncommitted, partial
+     * or can't be applied, and cuts the file off there.
+     *
+     * @return false if the log was cut short.
+     */
+    private boolean replayLog(WorldHistoryManager manager, Path log, boolean isTimeline, long committed) throws IOException {
+        List<BlockSnapshot> defined = new ArrayList<>();
+        long size = Files.size(log);
+        long offset = 0;
+        String problem = null;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(log)))) {
+            while (offset < size) {
+                if (size - offset < FRAME_HEADER) {
+                    problem = "ends in a partial frame";
+                    break;
+                }
+                long batch = in.readLong();
+                int length = in.readInt();
+                if (batch > committed) {
+                    problem = "holds batch " + batch + " that was never committed";
+                    break;
+                }
+                if (length < 0 || size - offset - FRAME_HEADER < length) {
+                    problem = "ends in a partial frame";
+                    break;
+                }
+                byte[] frame = new byte[length];
+                in.readFully(frame);
+                try {
+                    replayFrame(manager, new DataInputStream(new ByteArrayInputStream(frame)), isTimeline, defined);
+                } catch (IOException | RuntimeException e) {
+                    problem = "has a frame that can't be replayed (" + e + ")";
+                    break;
+                }
+                offset += FRAME_HEADER + length;
+            }
+        }
+        if (problem == null) return true;
+
+        GhostLib.LOGGER.warn("History log {} {} at byte {}; dropping it and everything logged after it", log, problem, offset);
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.WRITE)) {
+            channel.truncate(offset);
+        }
+        return false;
+    }
+
+    private void replayFrame(WorldHistoryManager manager, DataInputStream in, boolean isTimeline, List<BlockSnapshot> defined) throws IOException {
+        int record;
+        while ((record = in.read()) != -1) {
+            if (isTimeline) {
+                switch (record) {
+                    case ACTION -> manager.replayAction(NbtIo.read(in), registries);
+                    case UNDO -> manager.replayUndo();
+                    case REDO -> manager.replayRedo();
+                    default -> throw new IOException("Unknown timeline record " + record);
+                }
+            } else {
+                switch (record) {
+                    case DEFINE -> {
+                        // Ids are handed out in order within a generation
+                        int id = in.readInt();
+                        if (id != defined.size()) throw new IOException("Snapshot " + id + " defined out of order");
+                        defined.add(BlockSnapshot.load(NbtIo.read(in), registries));
+                    }
+                    case PUSH -> {
+                        long pos = in.readLong();
+                        int id = in.readInt();
+                        if (id < 0 || id >= defined.size()) throw new IOException("Push of undefined snapshot " + id);
+                        manager.replayPush(pos, defined.get(id));
+                    }
+                    case POP -> manager.replayPop(in.readLong());
+                    default -> throw new IOException("Unknown ledger record " + record);
+                }
+            }
+        }
+    }
+
+    /**
+     * Blocks until the writer has finished everything queued so far. Called once the server has
+     * saved for the last time.
+     */
+    public static void awaitWrites() {
+        try {
+            WRITER.submit(() -> {}).get(30, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            GhostLib.LOGGER.error("History writer did not finish in time", e);
+        }
+    }
+}
@@ -0,0 +1,453 @@
+package com.example.ghostlib.history;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import it.unimi.dsi.fastutil.shorts.Short2ObjectMap;
+import it.unimi.dsi.fastutil.shorts.Short2ObjectOpenHashMap;
+import net.minecraft.core.HolderLookup;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.LongArrayTag;
+import net.minecraft.nbt.Tag;
+import net.minecraft.util.SimpleBitStorage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * The ledger's version stacks for one 16x16x16 chunk section.
+ *
+ * A section starts out sparse: the touched positions in sorted order, each with its own array of
+ * palette ids. Most sections only ever see a handful of scattered edits, and those then cost a few
+ * bytes each instead of a whole packed layer.
+ *
+ * Past {@link #SPARSE_LIMIT} touched positions the section turns dense for good. Versions are then
+ * kept in bit-packed layers: layer k holds the k-th version of every position in the section,
+ * stored as id + 1 so that 0 means "stack is shallower". Stacks always fill layers from 0 upwards,
+ * so a position's depth is its count of leading non-zero layers. Versions past {@link #DENSE_LAYERS}
+ * go to a per-position overflow list, so one block edited over and over doesn't add a layer to the
+ * whole section.
+ *
+ * Positions are addressed by {@link net.minecraft.core.SectionPos#sectionRelativePos}.
+ */
+class LedgerSection {
+    static final int DENSE_LAYERS = 4;
+    /** Touched positions a sparse section holds before switching to packed layers. */
+    static final int SPARSE_LIMIT = 128;
+    private static final int SIZE = 16 * 16 * 16;
+    /** Palette size up to which ids are found by scanning rather than through a map. */
+    private static final int PALETTE_SCAN = 8;
+
+    private final List<BlockSnapshot> palette = new ArrayList<>(2);
+    /** Built once the palette outgrows {@link #PALETTE_SCAN}. */
+    private Object2IntOpenHashMap<BlockSnapshot> paletteIds;
+    private int touched;
+
+    // Sparse form, null once dense. Stack arrays are replaced on every change, never written in place.
+    private short[] keys = new short[1];
+    private int[][] stacks = new int[1][];
+
+    // Dense form, null while sparse
+    private int bits = 1;
+    private SimpleBitStorage[] layers;
+    /** Created with the first version past {@link #DENSE_LAYERS}. */
+    private Short2ObjectOpenHashMap<IntArrayList> overflow;
+
+    /** Slot of {@code index} in the sparse arrays, or {@code -(insertion point) - 1}. */
+    private int find(int index) {
+        return Arrays.binarySearch(keys, 0, touched, (short) index);
+    }
+
+    /** Number of versions in the layers alone. */
+    private int denseDepth(int index) {
+        int depth = 0;
+        while (depth < layers.length && layers[depth].get(index) != 0) depth++;
+        return depth;
+    }
+
+    private IntArrayList overflowAt(int index) {
+        return overflow == null ? null : overflow.get((short) index);
+    }
+
+    boolean contains(int index) {
+        if (layers == null) return find(index) >= 0;
+        return layers.length > 0 && layers[0].get(index) != 0;
+    }
+
+    int depth(int index) {
+        if (layers == null) {
+            int i = find(index);
+            return i < 0 ? 0 : stacks[i].length;
+        }
+        int depth = denseDepth(index);
+        if (depth == DENSE_LAYERS) {
+            IntArrayList extra = overflowAt(index);
+            if (extra != null) depth += extra.size();
+        }
+        return depth;
+    }
+
+    /**
+     * @return The newest version at {@code index}, or null if it was never touched.
+     */
+    BlockSnapshot top(int index) {
+        if (layers == null) {
+            int i = find(index);
+            return i < 0 ? null : palette.get(stacks[i][stacks[i].length - 1]);
+        }
+        int depth = denseDepth(index);
+        if (depth == DENSE_LAYERS) {
+            IntArrayList extra = overflowAt(index);
+            if (extra != null) return palette.get(extra.getInt(extra.size() - 1));
+        }
+        return depth == 0 ? null : palette.get(layers[depth - 1].get(index) - 1);
+    }
+
+    void push(int index, BlockSnapshot snapshot) {
+        int id = idOf(snapshot);
+        if (layers == null) {
+            int i = find(index);
+            if (i >= 0) {
+                int[] stack = Arrays.copyOf(stacks[i], stacks[i].length + 1);
+                stack[stack.length - 1] = id;
+                stacks[i] = stack;
+                return;
+            }
+            if (touched < SPARSE_LIMIT) {
+                insert(-i - 1, index, id);
+                return;
+            }
+            toDense();
+        }
+        int depth = denseDepth(index);
+        if (depth < DENSE_LAYERS) {
+            if (depth == layers.length) addLayer();
+            layers[depth].set(index, id + 1);
+            if (depth == 0) touched++;
+        } else {
+            if (overflow == null) overflow = new Short2ObjectOpenHashMap<>();
+            overflow.computeIfAbsent((short) index, k -> new IntArrayList()).add(id);
+        }
+    }
+
+    /**
+     * Drops the newest version at {@code index}.
+     */
+    void pop(int index) {
+        if (layers == null) {
+            int i = find(index);
+            if (i < 0) return;
+            if (stacks[i].length > 1) {
+                stacks[i] = Arrays.copyOf(stacks[i], stacks[i].length - 1);
+                return;
+            }
+            System.arraycopy(keys, i + 1, keys, i, touched - i - 1);
+            System.arraycopy(stacks, i + 1, stacks, i, touched - i - 1);
+            stacks[--touched] = null;
+            return;
+        }
+        IntArrayList extra = overflowAt(index);
+        if (extra != null) {
+            extra.removeInt(extra.size() - 1);
+            if (extra.isEmpty()) overflow.remove((short) index);
+            return;
+        }
+        int depth = denseDepth(index);
+        if (depth == 0) return;
+        layers[depth - 1].set(index, 0);
+        if (depth == 1) touched--;
+    }
+
+    /** Versions at {@code index}, oldest first. */
+    List<BlockSnapshot> versions(int index) {
+        List<BlockSnapshot> versions = new ArrayList<>();
+        if (layers == null) {
+            int i = find(index);
+            if (i >= 0) {
+                for (int id : stacks[i]) versions.add(palette.get(id));
+            }
+            return versions;
+        }
+        for (int d = 0; d < layers.length; d++) {
+            int raw = layers[d].get(index);
+            if (raw == 0) return versions;
+            versions.add(palette.get(raw - 1));
+        }
+        IntArrayList extra = overflowAt(index);
+        if (extra != null) {
+            for (int i = 0; i < extra.size(); i++) versions.add(palette.get(extra.getInt(i)));
+        }
+        return versions;
+    }
+
+    int touched() {
+        return touched;
+    }
+
+    void forEachSnapshot(java.util.function.Consumer<BlockSnapshot> visitor) {
+        palette.forEach(visitor);
+    }
+
+    /**
+     * Drops palette entries no version refers to any more, e.g. after undos popped them. Kept
+     * entries stay in order, and packed layers narrow if the smaller palette allows it.
+     *
+     * @return false if every entry was still in use.
+     */
+    boolean prunePalette() {
+        int[] remap = new int[palette.size()];
+        if (layers == null) {
+            for (int i = 0; i < touched; i++) {
+                for (int id : stacks[i]) remap[id] = 1;
+            }
+        } else {
+            for (SimpleBitStorage layer : layers) {
+                for (int i = 0; i < SIZE; i++) {
+                    int raw = layer.get(i);
+                    if (raw != 0) remap[raw - 1] = 1;
+                }
+            }
+            if (overflow != null) {
+                for (IntArrayList extra : overflow.values()) {
+                    for (int i = 0; i < extra.size(); i++) remap[extra.getInt(i)] = 1;
+                }
+            }
+        }
+        int live = 0;
+        for (int id = 0; id < remap.length; id++) remap[id] = remap[id] != 0 ? live++ : -1;
+        if (live == palette.size()) return false;
+
+        List<BlockSnapshot> kept = new ArrayList<>(live);
+        for (int id = 0; id < remap.length; id++) {
+            if (remap[id] >= 0) kept.add(palette.get(id));
+        }
+        palette.clear();
+        palette.addAll(kept);
+        paletteIds = null;
+        if (palette.size() > PALETTE_SCAN) indexPalette();
+
+        if (layers == null) {
+            // Copies share the stack arrays, so they are replaced rather than rewritten
+            for (int i = 0; i < touched; i++) {
+                int[] stack = stacks[i].clone();
+                for (int d = 0; d < stack.length; d++) stack[d] = remap[stack[d]];
+                stacks[i] = stack;
+            }
+            return true;
+        }
+        for (SimpleBitStorage layer : layers) {
+            for (int i = 0; i < SIZE; i++) {
+                int raw = layer.get(i);
+                if (raw != 0) layer.set(i, remap[raw - 1] + 1);
+            }
+        }
+        if (overflow != null) {
+            for (IntArrayList extra : overflow.values()) {
+                for (int i = 0; i < extra.size(); i++) extra.set(i, remap[extra.getInt(i)]);
+            }
+        }
+        int narrow = 1;
+        while (palette.size() >= 1 << narrow) narrow++;
+        if (narrow < bits) resize(narrow);
+        return true;
+    }
+
+    private int idOf(BlockSnapshot snapshot) {
+        int id = paletteIds != null ? paletteIds.getInt(snapshot) : palette.indexOf(snapshot);
+        if (id != -1) return id;
+        id = palette.size();
+        palette.add(snapshot);
+        if (paletteIds != null) paletteIds.put(snapshot, id);
+        else if (palette.size() > PALETTE_SCAN) indexPalette();
+        // Stored as id + 1, so the largest stored value must still fit
+        if (layers != null && id + 1 >= 1 << bits) resize(bits + 1);
+        return id;
+    }
+
+    private void indexPalette() {
+        paletteIds = new Object2IntOpenHashMap<>(palette.size() * 2);
+        paletteIds.defaultReturnValue(-1);
+        for (int i = 0; i < palette.size(); i++) paletteIds.putIfAbsent(palette.get(i), i);
+    }
+
+    private void insert(int at, int index, int id) {
+        if (touched == keys.length) {
+            int grown = Math.min(SPARSE_LIMIT, Math.max(1, keys.length * 2));
+            keys = Arrays.copyOf(keys, grown);
+            stacks = Arrays.copyOf(stacks, grown);
+        }
+        System.arraycopy(keys, at, keys, at + 1, touched - at);
+        System.arraycopy(stacks, at, stacks, at + 1, touched - at);
+        keys[at] = (short) index;
+        stacks[at] = new int[]{id};
+        touched++;
+    }
+
+    /**
+     * Moves every sparse stack into packed layers. {@link #touched} stays as it is.
+     */
+    private void toDense() {
+        while (palette.size() >= 1 << bits) bits++;
+        layers = new SimpleBitStorage[0];
+        for (int i = 0; i < touched; i++) {
+            int[] stack = stacks[i];
+            for (int d = 0; d < Math.min(stack.length, DENSE_LAYERS); d++) {
+                if (d == layers.length) addLayer();
+                layers[d].set(keys[i], stack[d] + 1);
+            }
+            if (stack.length > DENSE_LAYERS) {
+                if (overflow == null) overflow = new Short2ObjectOpenHashMap<>();
+                overflow.put(keys[i], new IntArrayList(stack, DENSE_LAYERS, stack.length - DENSE_LAYERS));
+            }
+        }
+        keys = null;
+        stacks = null;
+    }
+
+    private void addLayer() {
+        SimpleBitStorage[] grown = new SimpleBitStorage[layers.length + 1];
+        System.arraycopy(layers, 0, grown, 0, layers.length);
+        grown[layers.length] = new SimpleBitStorage(bits, SIZE);
+        layers = grown;
+    }
+
+    private void resize(int newBits) {
+        for (int d = 0; d < layers.length; d++) {
+            SimpleBitStorage old = layers[d];
+            SimpleBitStorage wider = new SimpleBitStorage(newBits, SIZE);
+            for (int i = 0; i < SIZE; i++) wider.set(i, old.get(i));
+            layers[d] = wider;
+        }
+        bits = newBits;
+    }
+
+    /**
+     * Independent copy, for writing a checkpoint off the server thread. Palette entries and
+     * sparse stack arrays are shared.
+     */
+    LedgerSection copy() {
+        LedgerSection copy = new LedgerSection();
+        copy.palette.addAll(palette);
+        if (paletteIds != null) copy.indexPalette();
+        copy.touched = touched;
+        if (layers == null) {
+            copy.keys = keys.clone();
+            copy.stacks = stacks.clone();
+            return copy;
+        }
+        copy.keys = null;
+        copy.stacks = null;
+        copy.bits = bits;
+        copy.layers = new SimpleBitStorage[layers.length];
+        for (int d = 0; d < layers.length; d++) copy.layers[d] = new SimpleBitStorage(bits, SIZE, layers[d].getRaw().clone());
+        if (overflow != null) {
+            copy.overflow = new Short2ObjectOpenHashMap<>(overflow.size());
+            for (Short2ObjectMap.Entry<IntArrayList> entry : overflow.short2ObjectEntrySet()) {
+                copy.overflow.put(entry.getShortKey(), new IntArrayList(entry.getValue()));
+            }
+        }
+        return copy;
+    }
+
+    /** Rough heap footprint in bytes: palette, sparse stacks or packed layers, overflow lists. */
+    long estimateBytes() {
+        long bytes = 64 + palette.size() * (paletteIds == null ? 8L : 24L);
+        if (layers == null) {
+            bytes += 32 + keys.length * 2L + stacks.length * 4L;
+            for (int i = 0; i < touched; i++) bytes += 16 + stacks[i].length * 4L;
+            return bytes;
+        }
+        for (SimpleBitStorage layer : layers) bytes += 32 + layer.getRaw().length * 8L;
+        if (overflow != null) {
+            bytes += 64 + overflow.size() * 8L;
+            for (IntArrayList extra : overflow.values()) bytes += 48 + extra.size() * 4L;
+        }
+        return bytes;
+    }
+
+    CompoundTag save(HolderLookup.Provider registries) {
+        CompoundTag tag = new CompoundTag();
+        ListTag paletteTag = new ListTag();
+        for (BlockSnapshot snapshot : palette) paletteTag.add(snapshot.save(registries));
+        tag.put("Palette", paletteTag);
+        if (layers == null) {
+            int[] positions = new int[touched];
+            int[] depths = new int[touched];
+            IntArrayList versions = new IntArrayList();
+            for (int i = 0; i < touched; i++) {
+                positions[i] = keys[i];
+                depths[i] = stacks[i].length;
+                versions.addElements(versions.size(), stacks[i]);
+            }
+            tag.putIntArray("Positions", positions);
+            tag.putIntArray("Depths", depths);
+            tag.putIntArray("Versions", versions.toIntArray());
+            return tag;
+        }
+        tag.putInt("Bits", bits);
+        ListTag layersTag = new ListTag();
+        for (SimpleBitStorage layer : layers) layersTag.add(new LongArrayTag(layer.getRaw().clone()));
+        tag.put("Layers", layersTag);
+        if (overflow != null && !overflow.isEmpty()) {
+            ListTag overflowTag = new ListTag();
+            for (Short2ObjectMap.Entry<IntArrayList> entry : overflow.short2ObjectEntrySet()) {
+                CompoundTag extra = new CompoundTag();
+                extra.putShort("I", entry.getShortKey());
+                extra.putIntArray("V", entry.getValue().toIntArray());
+                overflowTag.add(extra);
+            }
+            tag.put("Overflow", overflowTag);
+        }
+        return tag;
+    }
+
+    /**
+     * @param intern Maps each loaded palette entry to its shared instance.
+     */
+    static LedgerSection load(CompoundTag tag, HolderLookup.Provider registries, UnaryOperator<BlockSnapshot> intern) {
+        LedgerSection section = new LedgerSection();
+        ListTag paletteTag = tag.getList("Palette", Tag.TAG_COMPOUND);
+        for (int i = 0; i < paletteTag.size(); i++) {
+            section.palette.add(intern.apply(BlockSnapshot.load(paletteTag.getCompound(i), registries)));
+        }
+        if (section.palette.size() > PALETTE_SCAN) section.indexPalette();
+
+        // Sparse sections; anything saved before they existed has "Layers" instead
+        if (tag.contains("Positions", Tag.TAG_INT_ARRAY)) {
+            int[] positions = tag.getIntArray("Positions");
+            int[] depths = tag.getIntArray("Depths");
+            int[] versions = tag.getIntArray("Versions");
+            section.keys = new short[Math.max(1, positions.length)];
+            section.stacks = new int[section.keys.length][];
+            int v = 0;
+            for (int i = 0; i < positions.length; i++) {
+                section.keys[i] = (short) positions[i];
+                section.stacks[i] = Arrays.copyOfRange(versions, v, v + depths[i]);
+                v += depths[i];
+            }
+            section.touched = positions.length;
+            return section;
+        }
+
+        section.keys = null;
+        section.stacks = null;
+        section.bits = Math.max(1, tag.getInt("Bits"));
+        ListTag layersTag = tag.getList("Layers", Tag.TAG_LONG_ARRAY);
+        section.layers = new SimpleBitStorage[layersTag.size()];
+        for (int d = 0; d < layersTag.size(); d++) {
+            section.layers[d] = new SimpleBitStorage(section.bits, SIZE, ((LongArrayTag) layersTag.get(d)).getAsLongArray());
+        }
+        ListTag overflowTag = tag.getList("Overflow", Tag.TAG_COMPOUND);
+        if (!overflowTag.isEmpty()) section.overflow = new Short2ObjectOpenHashMap<>(overflowTag.size());
+        for (int i = 0; i < overflowTag.size(); i++) {
+            CompoundTag extra = overflowTag.getCompound(i);
+            section.overflow.put(extra.getShort("I"), new IntArrayList(extra.getIntArray("V")));
+        }
+        for (int i = 0; i < SIZE; i++) {
+            if (section.contains(i)) section.touched++;
+        }
+        return section;
+    }
+}
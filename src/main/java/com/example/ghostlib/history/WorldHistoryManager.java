@@ -1,17 +1,25 @@
 package com.example.ghostlib.history;
 
+import com.example.ghostlib.config.GhostLibConfig;
+import com.example.ghostlib.util.GhostJobManager;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.HolderLookup;
+import net.minecraft.core.SectionPos;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.ListTag;
 import net.minecraft.nbt.NbtUtils;
 import net.minecraft.nbt.Tag;
 import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.saveddata.SavedData;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * THE COMMAND LEDGER (Source of Truth)
@@ -28,69 +36,178 @@ import java.util.concurrent.ConcurrentHashMap;
  * 
  * 3. DIRTY TRACKING: Reconciliation is optimized via a Dirty Set, ensuring that 
  *    the system only processes coordinates with active Intent/Reality mismatches.
+ *    The set is grouped by chunk so it can be worked off a chunk at a time.
+ * 
+ * 4. JOURNALED PERSISTENCE: Every change is appended to a {@link HistoryJournal} as it
+ *    happens, so saving never re-serializes the whole ledger.
  */
 public class WorldHistoryManager extends SavedData {
     private static final String DATA_NAME = "ghostlib_world_history";
-    private static final int MAX_HISTORY_SIZE = 1000;
+    /** Save format whose data lives in the {@link HistoryJournal} rather than this tag. */
+    private static final int JOURNAL_FORMAT = 2;
+
+    /**
+     * Lineage per coordinate, one palette-packed {@link LedgerSection} per chunk section.
+     * Version 0: Natural Spawn State.
+     * Version N: Current Intended State.
+     */
+    private final Long2ObjectOpenHashMap<LedgerSection> ledger = new Long2ObjectOpenHashMap<>();
 
     /**
-     * Lineage per coordinate.
-     * Index 0: Natural Spawn State.
-     * Index N: Current Intended State.
+     * One shared instance per distinct snapshot (state + block entity NBT), looked up by content
+     * hash, so palettes in different sections point at the same NBT instead of copies of it.
+     * Rebuilt from the live palettes on compaction, so snapshots that were undone away don't stay.
      */
-    private final Map<BlockPos, List<BlockSnapshot>> coordinateStacks = new ConcurrentHashMap<>();
+    private Map<BlockSnapshot, BlockSnapshot> snapshotPool = new HashMap<>();
+    /** Sections that lost versions since the last compaction; their palettes may hold dead entries. */
+    private final LongOpenHashSet poppedSections = new LongOpenHashSet();
+
+    /** Persistence; null until {@link #get} attaches it, so loading and replay aren't logged. */
+    private HistoryJournal journal;
+    /** Loaded from a save that predates the journal; everything gets checkpointed once attached. */
+    private boolean legacyData = false;
     
     /**
-     * Set of positions where intended state has changed and requires reconciliation.
+     * Positions where intended state has changed and requires reconciliation, grouped by chunk
+     * so the reconciler can work through them one chunk at a time.
      */
-    private final Set<BlockPos> dirtyPositions = Collections.synchronizedSet(new HashSet<>());
+    private final Long2ObjectOpenHashMap<LongOpenHashSet> dirtyByChunk = new Long2ObjectOpenHashMap<>();
+    private int dirtyCount = 0;
 
     // Global Command Timeline
+    // Retention is by size: past GhostLibConfig.HISTORY_MEMORY_KB the oldest actions move to disk
     private final Deque<HistoryAction> undoStack = new ArrayDeque<>();
     private final Deque<HistoryAction> redoStack = new ArrayDeque<>();
+    /** Actions older than the bottom of {@link #undoStack}, newest first, kept in {@link #spill}. */
+    private final Deque<ActionSpillStore.Ref> undoSpilled = new ArrayDeque<>();
+    /** Same for {@link #redoStack}. */
+    private final Deque<ActionSpillStore.Ref> redoSpilled = new ArrayDeque<>();
+    /** Paged-in actions whose spill record is still valid, so spilling them again is free. */
+    private final Map<HistoryAction, ActionSpillStore.Ref> pagedIn = new IdentityHashMap<>();
+    private ActionSpillStore spill;
+    private long memoryBytes = 0;
+    private int nextActionId = 1;
+
+    /**
+     * Scheduling class of the jobs an action creates. Lower classes are always served first.
+     */
+    public enum Priority {
+        REPAIR, BUILD;
+
+        public static Priority byName(String name) {
+            for (Priority p : values()) {
+                if (p.name().equals(name)) return p;
+            }
+            return BUILD;
+        }
+    }
 
     /**
      * Represents a single atomic operation in the world timeline.
+     *
+     * @param owner    Player that issued the action, or null for world/API changes.
+     * @param priority Class its jobs are scheduled in.
+     * @param changes  Intended states, possibly in a compact form; see {@link ChangeSet}.
+     * @param id       Assigned by {@link #pushAction}; 0 until then.
      */
-    public record HistoryAction(String name, Map<BlockPos, BlockSnapshot> changes) {
+    public record HistoryAction(String name, ChangeSet changes, UUID owner, Priority priority, int id) {
+        public HistoryAction(String name, Map<BlockPos, BlockSnapshot> changes) {
+            this(name, ChangeSet.of(changes), null, Priority.BUILD, 0);
+        }
+
+        public HistoryAction(String name, Map<BlockPos, BlockSnapshot> changes, UUID owner) {
+            this(name, ChangeSet.of(changes), owner, Priority.BUILD, 0);
+        }
+
+        public HistoryAction(String name, ChangeSet changes, UUID owner) {
+            this(name, changes, owner, Priority.BUILD, 0);
+        }
+
+        /** Rough heap footprint in bytes, for the history memory budget. */
+        public long estimateBytes() {
+            return 96 + name.length() * 2L + changes.estimateBytes();
+        }
+
+        public HistoryAction withId(int newId) {
+            return new HistoryAction(name, changes, owner, priority, newId);
+        }
+
         public CompoundTag save(HolderLookup.Provider registries) {
             CompoundTag tag = new CompoundTag();
             tag.putString("Name", name);
-            ListTag list = new ListTag();
-            for (var entry : changes.entrySet()) {
-                CompoundTag changeTag = new CompoundTag();
-                changeTag.put("Pos", NbtUtils.writeBlockPos(entry.getKey()));
-                changeTag.put("Snapshot", entry.getValue().save(registries));
-                list.add(changeTag);
-            }
-            tag.put("Changes", list);
+            if (owner != null) tag.putUUID("Owner", owner);
+            tag.putString("Priority", priority.name());
+            tag.putInt("Id", id);
+            tag.put("ChangeSet", changes.save(registries));
             return tag;
         }
 
         public static HistoryAction load(CompoundTag tag, HolderLookup.Provider registries) {
             String name = tag.getString("Name");
-            Map<BlockPos, BlockSnapshot> changes = new HashMap<>();
-            ListTag list = tag.getList("Changes", Tag.TAG_COMPOUND);
-            for (int i = 0; i < list.size(); i++) {
-                CompoundTag changeTag = list.getCompound(i);
-                BlockPos pos = NbtUtils.readBlockPos(changeTag, "Pos").orElse(BlockPos.ZERO);
-                changes.put(pos, BlockSnapshot.load(changeTag.getCompound("Snapshot"), registries));
-            }
-            return new HistoryAction(name, changes);
+            // Actions saved before change sets kept their "Changes" list on the action itself
+            ChangeSet changes = ChangeSet.load(tag.contains("ChangeSet") ? tag.getCompound("ChangeSet") : tag, registries);
+            UUID owner = tag.hasUUID("Owner") ? tag.getUUID("Owner") : null;
+            return new HistoryAction(name, changes, owner, Priority.byName(tag.getString("Priority")), tag.getInt("Id"));
         }
     }
 
     public static WorldHistoryManager get(Level level) {
         if (level instanceof ServerLevel sl) {
-            return sl.getDataStorage().computeIfAbsent(new Factory<>(
+            WorldHistoryManager manager = sl.getDataStorage().computeIfAbsent(new Factory<>(
                     WorldHistoryManager::new,
                     WorldHistoryManager::load,
                     null
             ), DATA_NAME);
+            if (manager.journal == null) manager.attachJournal(sl);
+            return manager;
         }
         throw new IllegalStateException("Cannot access WorldHistoryManager on client side");
     }
 
+    private void attachJournal(ServerLevel level) {
+        java.nio.file.Path dir = net.minecraft.world.level.dimension.DimensionType.getStorageFolder(level.dimension(),
+                level.getServer().getWorldPath(net.minecraft.world.level.storage.LevelResource.ROOT)).resolve("data").resolve(DATA_NAME);
+        HistoryJournal journal = new HistoryJournal(dir, level.registryAccess());
+        spill = new ActionSpillStore(dir, level.registryAccess());
+        if (!legacyData) journal.replay(this);
+        trimHistory();
+        boolean rewritten = spill.isSparse() && rewriteSpill();
+        this.journal = journal;
+        if (legacyData) {
+            journal.compact(this, true);
+            legacyData = false;
+        } else if (rewritten) {
+            journal.checkpointTimeline(this);
+        }
+    }
+
+    /**
+     * Writes checkpoints for the regions changed since the last compaction. Called periodically
+     * from the level tick.
+     */
+    public void compact() {
+        if (journal != null) journal.compact(this, false);
+        prunePalettes();
+    }
+
+    /**
+     * Drops palette entries that popped versions left behind, then rebuilds the snapshot pool from
+     * what the palettes still hold. Checkpoints copy their sections first, so this can't race them.
+     */
+    private void prunePalettes() {
+        if (poppedSections.isEmpty()) return;
+        boolean pruned = false;
+        for (LongIterator it = poppedSections.iterator(); it.hasNext(); ) {
+            LedgerSection section = ledger.get(it.nextLong());
+            if (section != null && section.prunePalette()) pruned = true;
+        }
+        poppedSections.clear();
+        if (!pruned) return;
+        Map<BlockSnapshot, BlockSnapshot> live = new HashMap<>();
+        for (LedgerSection section : ledger.values()) section.forEachSnapshot(s -> live.putIfAbsent(s, s));
+        snapshotPool = live;
+    }
+
     /**
      * Records a new action into the global timeline.
      * @param action The set of new intended states.
@@ -98,25 +215,34 @@ public class WorldHistoryManager extends SavedData {
      * @param baseStates Optional map of states that existed BEFORE the action (critical for manual actions).
      */
     public void pushAction(HistoryAction action, Level level, Map<BlockPos, BlockSnapshot> baseStates) {
-        for (Map.Entry<BlockPos, BlockSnapshot> entry : action.changes().entrySet()) {
-            BlockPos pos = entry.getKey().immutable();
-            BlockSnapshot newState = entry.getValue();
-            
-            List<BlockSnapshot> stack = coordinateStacks.computeIfAbsent(pos, p -> {
-                List<BlockSnapshot> s = new ArrayList<>();
+        action = action.withId(nextActionId++);
+        GhostJobManager jobs = GhostJobManager.get(level);
+        int tag = jobs.beginIntentChange(action, action.priority(), level.getGameTime());
+        ChangeSet changes = action.changes();
+        for (int i = 0; i < changes.size(); i++) {
+            BlockPos pos = changes.pos(i);
+            jobs.intentChanged(tag, pos.asLong());
+            BlockSnapshot newState = intern(changes.state(i));
+            LedgerSection section = ledger.computeIfAbsent(SectionPos.blockToSection(pos.asLong()), k -> new LedgerSection());
+            int index = SectionPos.sectionRelativePos(pos);
+
+            if (!section.contains(index)) {
                 // Use provided base state (manual) or capture current (blueprint)
-                s.add(baseStates.getOrDefault(p, captureCurrentState(level, p)));
-                return s;
-            });
+                BlockSnapshot base = baseStates.get(pos);
+                pushVersion(section, index, pos, intern(base != null ? base : captureCurrentState(level, pos)));
+            }
 
-            if (!stack.get(stack.size() - 1).equals(newState)) {
-                stack.add(newState);
-                dirtyPositions.add(pos);
+            if (!section.top(index).equals(newState)) {
+                pushVersion(section, index, pos, newState);
+                markDirty(pos);
             }
         }
+        if (journal != null) journal.logAction(action);
         undoStack.push(action);
-        if (undoStack.size() > MAX_HISTORY_SIZE) undoStack.removeLast();
-        redoStack.clear();
+        memoryBytes += action.estimateBytes();
+        clearRedo();
+        trimHistory();
+        jobs.endIntentChange(tag);
         setDirty();
     }
 
@@ -125,76 +251,119 @@ public class WorldHistoryManager extends SavedData {
     }
 
     public void undo(Level level) {
+        pageIn(undoStack, undoSpilled);
         if (undoStack.isEmpty()) return;
         HistoryAction action = undoStack.pop();
-        
-        for (BlockPos pos : action.changes().keySet()) {
-            List<BlockSnapshot> stack = coordinateStacks.get(pos);
-            if (stack != null && stack.size() > 1) {
-                stack.remove(stack.size() - 1);
-                dirtyPositions.add(pos);
+
+        // Rolling back is a correction of something already built, so it jumps the queue
+        GhostJobManager jobs = GhostJobManager.get(level);
+        int tag = jobs.beginIntentChange(action, Priority.REPAIR, level.getGameTime());
+        ChangeSet changes = action.changes();
+        for (int i = 0; i < changes.size(); i++) {
+            BlockPos pos = changes.pos(i);
+            jobs.intentChanged(tag, pos.asLong());
+            LedgerSection section = ledger.get(SectionPos.blockToSection(pos.asLong()));
+            int index = SectionPos.sectionRelativePos(pos);
+            if (section != null && section.depth(index) > 1) {
+                section.pop(index);
+                poppedSections.add(SectionPos.blockToSection(pos.asLong()));
+                if (journal != null) journal.logPop(pos.asLong());
+                markDirty(pos);
             }
         }
-        
+        if (journal != null) journal.logUndo();
+
         redoStack.push(action);
+        trimHistory();
+        jobs.endIntentChange(tag);
         setDirty();
     }
 
     public void redo(Level level) {
+        pageIn(redoStack, redoSpilled);
         if (redoStack.isEmpty()) return;
         HistoryAction action = redoStack.pop();
-        
-        for (Map.Entry<BlockPos, BlockSnapshot> entry : action.changes().entrySet()) {
-            List<BlockSnapshot> stack = coordinateStacks.get(entry.getKey());
-            if (stack != null) {
-                stack.add(entry.getValue());
-                dirtyPositions.add(entry.getKey());
+
+        GhostJobManager jobs = GhostJobManager.get(level);
+        int tag = jobs.beginIntentChange(action, action.priority(), level.getGameTime());
+        ChangeSet changes = action.changes();
+        for (int i = 0; i < changes.size(); i++) {
+            BlockPos pos = changes.pos(i);
+            jobs.intentChanged(tag, pos.asLong());
+            LedgerSection section = ledger.get(SectionPos.blockToSection(pos.asLong()));
+            int index = SectionPos.sectionRelativePos(pos);
+            if (section != null && section.contains(index)) {
+                pushVersion(section, index, pos, intern(changes.state(i)));
+                markDirty(pos);
             }
         }
-        
+        if (journal != null) journal.logRedo();
+
         undoStack.push(action);
+        trimHistory();
+        jobs.endIntentChange(tag);
         setDirty();
     }
 
-    public Set<BlockPos> getDirtyPositions() {
-        return dirtyPositions;
+    private void pushVersion(LedgerSection section, int index, BlockPos pos, BlockSnapshot snapshot) {
+        section.push(index, snapshot);
+        if (journal != null) journal.logPush(pos.asLong(), snapshot);
     }
 
-    public void markClean(BlockPos pos) {
-        dirtyPositions.remove(pos);
+    // Journal replay. These rebuild state only; the job manager isn't told, it persists its own.
+
+    Long2ObjectMap<LedgerSection> ledgerSections() {
+        return ledger;
     }
 
-    public BlockSnapshot getIntendedState(BlockPos pos) {
-        List<BlockSnapshot> stack = coordinateStacks.get(pos);
-        if (stack == null || stack.isEmpty()) return null;
-        return stack.get(stack.size() - 1);
+    void replayPush(long packed, BlockSnapshot snapshot) {
+        BlockPos pos = BlockPos.of(packed);
+        ledger.computeIfAbsent(SectionPos.blockToSection(packed), k -> new LedgerSection()).push(SectionPos.sectionRelativePos(pos), intern(snapshot));
+        markDirty(pos);
     }
 
-    private BlockSnapshot captureCurrentState(Level level, BlockPos pos) {
-        var state = level.getBlockState(pos);
-        var be = level.getBlockEntity(pos);
-        CompoundTag nbt = null;
-        if (be != null) {
-            nbt = be.saveWithFullMetadata(level.registryAccess());
-        }
-        return new BlockSnapshot(state, nbt);
+    void replayPop(long packed) {
+        BlockPos pos = BlockPos.of(packed);
+        LedgerSection section = ledger.get(SectionPos.blockToSection(packed));
+        if (section == null) return;
+        section.pop(SectionPos.sectionRelativePos(pos));
+        poppedSections.add(SectionPos.blockToSection(packed));
+        markDirty(pos);
     }
 
-    @Override
-    public CompoundTag save(CompoundTag tag, HolderLookup.Provider registries) {
-        ListTag stacksTag = new ListTag();
-        for (var entry : coordinateStacks.entrySet()) {
-            CompoundTag coordTag = new CompoundTag();
-            coordTag.put("Pos", NbtUtils.writeBlockPos(entry.getKey()));
-            ListTag stateList = new ListTag();
-            for (BlockSnapshot snapshot : entry.getValue()) {
-                stateList.add(snapshot.save(registries));
-            }
-            coordTag.put("Stack", stateList);
-            stacksTag.add(coordTag);
+    void replayAction(CompoundTag tag, HolderLookup.Provider registries) {
+        HistoryAction action = ensureId(HistoryAction.load(tag, registries));
+        nextActionId = Math.max(nextActionId, action.id() + 1);
+        undoStack.push(action);
+        memoryBytes += action.estimateBytes();
+        clearRedo();
+        trimHistory();
+    }
+
+    void replayUndo() {
+        pageIn(undoStack, undoSpilled);
+        if (!undoStack.isEmpty()) redoStack.push(undoStack.pop());
+        trimHistory();
+    }
+
+    void replayRedo() {
+        pageIn(redoStack, redoSpilled);
+        if (!redoStack.isEmpty()) undoStack.push(redoStack.pop());
+        trimHistory();
+    }
+
+    /** Region checkpoint written by {@link HistoryJournal#compact}. */
+    void loadCheckpoint(CompoundTag tag, HolderLookup.Provider registries) {
+        ListTag sections = tag.getList("Sections", Tag.TAG_COMPOUND);
+        for (int i = 0; i < sections.size(); i++) {
+            CompoundTag sectionTag = sections.getCompound(i);
+            ledger.put(sectionTag.getLong("Section"), LedgerSection.load(sectionTag, registries, this::intern));
         }
-        tag.put("CoordinateStacks", stacksTag);
+        for (long packed : tag.getLongArray("Dirty")) markDirty(BlockPos.of(packed));
+    }
 
+    CompoundTag saveTimeline(HolderLookup.Provider registries) {
+        CompoundTag tag = new CompoundTag();
         ListTag undoList = new ListTag();
         for (HistoryAction action : undoStack) undoList.add(action.save(registries));
         tag.put("UndoStack", undoList);
@@ -202,48 +371,291 @@ public class WorldHistoryManager extends SavedData {
         ListTag redoList = new ListTag();
         for (HistoryAction action : redoStack) redoList.add(action.save(registries));
         tag.put("RedoStack", redoList);
+        tag.putInt("NextActionId", nextActionId);
+
+        if (spill != null && spill.fileName() != null) {
+            tag.putString("SpillFile", spill.fileName());
+            tag.put("UndoSpilled", saveRefs(undoSpilled));
+            tag.put("RedoSpilled", saveRefs(redoSpilled));
+        }
+        return tag;
+    }
+
+    private static CompoundTag saveRefs(Deque<ActionSpillStore.Ref> refs) {
+        long[] offsets = new long[refs.size()];
+        int[] lengths = new int[refs.size()];
+        int i = 0;
+        for (ActionSpillStore.Ref ref : refs) {
+            offsets[i] = ref.offset();
+            lengths[i++] = ref.length();
+        }
+        CompoundTag tag = new CompoundTag();
+        tag.putLongArray("Offsets", offsets);
+        tag.putIntArray("Lengths", lengths);
+        return tag;
+    }
+
+    private void loadRefs(CompoundTag tag, Deque<ActionSpillStore.Ref> refs) {
+        long[] offsets = tag.getLongArray("Offsets");
+        int[] lengths = tag.getIntArray("Lengths");
+        for (int i = 0; i < Math.min(offsets.length, lengths.length); i++) {
+            ActionSpillStore.Ref ref = new ActionSpillStore.Ref(offsets[i], lengths[i]);
+            spill.retain(ref);
+            refs.addLast(ref);
+        }
+    }
+
+    void loadTimeline(CompoundTag tag, HolderLookup.Provider registries) {
+        nextActionId = Math.max(nextActionId, tag.getInt("NextActionId"));
+        undoStack.clear();
+        redoStack.clear();
+        undoSpilled.clear();
+        redoSpilled.clear();
+        pagedIn.clear();
+        ListTag undoList = tag.getList("UndoStack", Tag.TAG_COMPOUND);
+        for (int i = undoList.size() - 1; i >= 0; i--) {
+            undoStack.push(ensureId(HistoryAction.load(undoList.getCompound(i), registries)));
+        }
+
+        ListTag redoList = tag.getList("RedoStack", Tag.TAG_COMPOUND);
+        for (int i = redoList.size() - 1; i >= 0; i--) {
+            redoStack.push(ensureId(HistoryAction.load(redoList.getCompound(i), registries)));
+        }
+        memoryBytes = 0;
+        for (HistoryAction action : undoStack) memoryBytes += action.estimateBytes();
+        for (HistoryAction action : redoStack) memoryBytes += action.estimateBytes();
+
+        if (spill != null && tag.contains("SpillFile")) {
+            try {
+                spill.open(tag.getString("SpillFile"));
+                loadRefs(tag.getCompound("UndoSpilled"), undoSpilled);
+                loadRefs(tag.getCompound("RedoSpilled"), redoSpilled);
+            } catch (java.io.IOException e) {
+                com.example.ghostlib.GhostLib.LOGGER.error("Failed to open history spill file, older undo steps are lost", e);
+            }
+        }
+    }
+
+    /**
+     * Moves the oldest actions to disk until the ones in memory fit the budget, then forgets the
+     * oldest spilled ones past the disk budget. The next action to undo and to redo always stay
+     * in memory.
+     */
+    private void trimHistory() {
+        if (spill == null) return;
+        long memoryBudget = GhostLibConfig.HISTORY_MEMORY_KB * 1024L;
+        while (memoryBytes > memoryBudget) {
+            // 1. Oldest undo step first, then the redo step furthest away; never the top of either stack
+            boolean fromUndo = undoStack.size() > 1;
+            if (!fromUndo && redoStack.size() <= 1) break;
+            Deque<HistoryAction> stack = fromUndo ? undoStack : redoStack;
+            HistoryAction action = stack.removeLast();
+            ActionSpillStore.Ref ref = pagedIn.remove(action);
+            if (ref == null) ref = spill.write(action);
+            if (ref == null) {
+                stack.addLast(action);
+                break;
+            }
+            memoryBytes -= action.estimateBytes();
+            (fromUndo ? undoSpilled : redoSpilled).push(ref);
+        }
+
+        // 2. Past the disk budget the oldest steps are gone for good
+        long diskBudget = GhostLibConfig.HISTORY_DISK_MB * 1024L * 1024L;
+        while (spill.liveBytes() > diskBudget && !(undoSpilled.isEmpty() && redoSpilled.isEmpty())) {
+            spill.release(!undoSpilled.isEmpty() ? undoSpilled.removeLast() : redoSpilled.removeLast());
+        }
+    }
+
+    /**
+     * Brings the newest spilled action back once {@code stack} has run dry.
+     */
+    private void pageIn(Deque<HistoryAction> stack, Deque<ActionSpillStore.Ref> spilled) {
+        while (stack.isEmpty() && !spilled.isEmpty() && spill != null) {
+            ActionSpillStore.Ref ref = spilled.pop();
+            HistoryAction action = spill.read(ref);
+            if (action == null) {
+                spill.release(ref);
+                continue;
+            }
+            pagedIn.put(action, ref);
+            stack.addLast(action);
+            memoryBytes += action.estimateBytes();
+        }
+    }
+
+    private void clearRedo() {
+        for (HistoryAction action : redoStack) {
+            memoryBytes -= action.estimateBytes();
+            ActionSpillStore.Ref ref = pagedIn.remove(action);
+            if (ref != null) spill.release(ref);
+        }
+        redoStack.clear();
+        for (ActionSpillStore.Ref ref : redoSpilled) spill.release(ref);
+        redoSpilled.clear();
+    }
+
+    /**
+     * Copies the live spill records into a new file and points every reference at it.
+     */
+    private boolean rewriteSpill() {
+        List<ActionSpillStore.Ref> live = new ArrayList<>(undoSpilled);
+        live.addAll(redoSpilled);
+        List<HistoryAction> paged = new ArrayList<>(pagedIn.keySet());
+        for (HistoryAction action : paged) live.add(pagedIn.get(action));
+
+        List<ActionSpillStore.Ref> moved = spill.rewrite(live);
+        if (moved == null) return false;
+        int i = 0;
+        int undoCount = undoSpilled.size();
+        int redoCount = redoSpilled.size();
+        undoSpilled.clear();
+        redoSpilled.clear();
+        for (int k = 0; k < undoCount; k++) undoSpilled.addLast(moved.get(i++));
+        for (int k = 0; k < redoCount; k++) redoSpilled.addLast(moved.get(i++));
+        for (HistoryAction action : paged) pagedIn.put(action, moved.get(i++));
+        return true;
+    }
+
+    public String historySummary() {
+        return String.format("History: %d undo steps (%d on disk), %d redo steps (%d on disk), ~%d KB in memory, ~%d KB on disk",
+                undoStack.size() + undoSpilled.size(), undoSpilled.size(), redoStack.size() + redoSpilled.size(), redoSpilled.size(),
+                memoryBytes / 1024, spill == null ? 0 : spill.liveBytes() / 1024);
+    }
+
+    /** Actions saved before ids existed get one on load so their jobs don't share a tag. */
+    private HistoryAction ensureId(HistoryAction action) {
+        return action.id() != 0 ? action : action.withId(nextActionId++);
+    }
+
+    private void markDirty(BlockPos pos) {
+        if (dirtyByChunk.computeIfAbsent(ChunkPos.asLong(pos), k -> new LongOpenHashSet()).add(pos.asLong())) dirtyCount++;
+    }
+
+    public void markClean(BlockPos pos) {
+        markClean(pos.asLong());
+    }
+
+    public void markClean(long packed) {
+        long chunk = chunkOf(packed);
+        LongOpenHashSet positions = dirtyByChunk.get(chunk);
+        if (positions == null || !positions.remove(packed)) return;
+        dirtyCount--;
+        if (positions.isEmpty()) dirtyByChunk.remove(chunk);
+    }
+
+    public boolean isDirty(long packed) {
+        LongOpenHashSet positions = dirtyByChunk.get(chunkOf(packed));
+        return positions != null && positions.contains(packed);
+    }
+
+    public int dirtyCount() {
+        return dirtyCount;
+    }
+
+    /** Chunk keys with at least one dirty position. */
+    public LongSet dirtyChunks() {
+        return dirtyByChunk.keySet();
+    }
 
-        ListTag dirtyList = new ListTag();
-        for (BlockPos p : dirtyPositions) {
-            CompoundTag pTag = new CompoundTag();
-            pTag.put("P", NbtUtils.writeBlockPos(p));
-            dirtyList.add(pTag);
+    /**
+     * @return The dirty positions of a chunk (packed), empty if it has none.
+     */
+    public long[] dirtyIn(long chunkKey) {
+        LongOpenHashSet positions = dirtyByChunk.get(chunkKey);
+        return positions == null ? new long[0] : positions.toLongArray();
+    }
+
+    private static long chunkOf(long packed) {
+        return ChunkPos.asLong(BlockPos.getX(packed) >> 4, BlockPos.getZ(packed) >> 4);
+    }
+
+    public BlockSnapshot getIntendedState(BlockPos pos) {
+        LedgerSection section = ledger.get(SectionPos.blockToSection(pos.asLong()));
+        return section == null ? null : section.top(SectionPos.sectionRelativePos(pos));
+    }
+
+    /**
+     * @return The shared instance equal to {@code snapshot}. Block entity NBT loses its position
+     *         keys first, since the ledger already knows where the block is and they would
+     *         otherwise make every captured block entity unique.
+     */
+    private BlockSnapshot intern(BlockSnapshot snapshot) {
+        CompoundTag nbt = snapshot.nbt();
+        if (nbt != null && (nbt.contains("x") || nbt.contains("y") || nbt.contains("z"))) {
+            nbt = nbt.copy();
+            nbt.remove("x");
+            nbt.remove("y");
+            nbt.remove("z");
+            snapshot = new BlockSnapshot(snapshot.state(), nbt);
+        }
+        return snapshotPool.computeIfAbsent(snapshot, k -> k);
+    }
+
+    public String ledgerSummary() {
+        long positions = 0;
+        long bytes = 0;
+        for (LedgerSection section : ledger.values()) {
+            positions += section.touched();
+            bytes += section.estimateBytes();
+        }
+        return String.format("Ledger: %d positions in %d sections, ~%d KB, %d distinct snapshots",
+                positions, ledger.size(), bytes / 1024, snapshotPool.size());
+    }
+
+    private BlockSnapshot captureCurrentState(Level level, BlockPos pos) {
+        var state = level.getBlockState(pos);
+        var be = level.getBlockEntity(pos);
+        CompoundTag nbt = null;
+        if (be != null) {
+            nbt = be.saveWithFullMetadata(level.registryAccess());
         }
-        tag.put("DirtyPositions", dirtyList);
+        return new BlockSnapshot(state, nbt);
+    }
 
+    /**
+     * The ledger itself lives in the journal, so an autosave only hands over what was logged
+     * since the last one.
+     */
+    @Override
+    public CompoundTag save(CompoundTag tag, HolderLookup.Provider registries) {
+        if (journal != null) journal.flush();
+        tag.putInt("Format", JOURNAL_FORMAT);
         return tag;
     }
 
     public static WorldHistoryManager load(CompoundTag tag, HolderLookup.Provider registries) {
         WorldHistoryManager manager = new WorldHistoryManager();
-        
+        if (tag.getInt("Format") >= JOURNAL_FORMAT) return manager;
+
+        // Saves from before the journal held everything in this tag
+        manager.legacyData = true;
+        ListTag ledgerTag = tag.getList("Ledger", Tag.TAG_COMPOUND);
+        for (int i = 0; i < ledgerTag.size(); i++) {
+            CompoundTag sectionTag = ledgerTag.getCompound(i);
+            manager.ledger.put(sectionTag.getLong("Section"), LedgerSection.load(sectionTag, registries, manager::intern));
+        }
+
+        // Ledgers saved before sections existed: one stack per coordinate
         ListTag stacksTag = tag.getList("CoordinateStacks", Tag.TAG_COMPOUND);
         for (int i = 0; i < stacksTag.size(); i++) {
             CompoundTag coordTag = stacksTag.getCompound(i);
             BlockPos pos = NbtUtils.readBlockPos(coordTag, "Pos").orElse(BlockPos.ZERO);
+            LedgerSection section = manager.ledger.computeIfAbsent(SectionPos.blockToSection(pos.asLong()), k -> new LedgerSection());
+            int index = SectionPos.sectionRelativePos(pos);
             ListTag stateList = coordTag.getList("Stack", Tag.TAG_COMPOUND);
-            List<BlockSnapshot> stack = new ArrayList<>();
             for (int j = 0; j < stateList.size(); j++) {
-                stack.add(BlockSnapshot.load(stateList.getCompound(j), registries));
+                section.push(index, manager.intern(BlockSnapshot.load(stateList.getCompound(j), registries)));
             }
-            manager.coordinateStacks.put(pos, stack);
-        }
-
-        ListTag undoList = tag.getList("UndoStack", Tag.TAG_COMPOUND);
-        for (int i = undoList.size() - 1; i >= 0; i--) {
-            manager.undoStack.push(HistoryAction.load(undoList.getCompound(i), registries));
         }
 
-        ListTag redoList = tag.getList("RedoStack", Tag.TAG_COMPOUND);
-        for (int i = redoList.size() - 1; i >= 0; i--) {
-            manager.redoStack.push(HistoryAction.load(redoList.getCompound(i), registries));
-        }
+        manager.loadTimeline(tag, registries);
 
         ListTag dirtyList = tag.getList("DirtyPositions", Tag.TAG_COMPOUND);
         for (int i = 0; i < dirtyList.size(); i++) {
-            NbtUtils.readBlockPos(dirtyList.getCompound(i), "P").ifPresent(manager.dirtyPositions::add);
+            NbtUtils.readBlockPos(dirtyList.getCompound(i), "P").ifPresent(manager::markDirty);
         }
 
         return manager;
     }
-}
\ No newline at end of file
+}
@@ -5,15 +5,16 @@ import com.example.ghostlib.block.GhostBlock;
 import com.example.ghostlib.block.entity.GhostBlockEntity;
 import com.example.ghostlib.registry.ModBlocks;
 import com.example.ghostlib.util.GhostJobManager;
+import it.unimi.dsi.fastutil.longs.LongIterator;
 import net.minecraft.core.BlockPos;
 import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.state.BlockState;
 
-import java.util.HashSet;
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
@@ -22,7 +23,10 @@ import java.util.concurrent.ConcurrentHashMap;
  * This engine is the only bridge between the Command Ledger (Intent) and 
  * the Physical World (Level). It operates on a "Pull" model:
  * 
- * 1. SCAN: Every tick, it checks the "Dirty Set" from WorldHistoryManager.
+ * 1. SCAN: Every tick, it works through the "Dirty Set" from WorldHistoryManager
+ *    a chunk at a time, nearest-player chunk first, until the tick's budget
+ *    ({@code performance.reconcile_budget_us} / {@code reconcile_max_per_tick}) is
+ *    spent. The cursor survives between ticks, so a huge edit is spread over many.
  * 
  * 2. COMPARE: It compares Top-of-Stack Intent vs. Actual BlockState.
  * 
@@ -36,6 +40,17 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class WorldReconciler {
     private static final Map<Level, WorldReconciler> INSTANCES = new ConcurrentHashMap<>();
+    private static final long[] NO_POSITIONS = new long[0];
+    /** Ticks between progress updates to clients while a backlog is being worked off. */
+    private static final int PROGRESS_INTERVAL = 10;
+
+    /** Snapshot of the current chunk's dirty positions and how far into it we are. */
+    private long[] cursor = NO_POSITIONS;
+    private int cursorIndex = 0;
+
+    /** Positions reconciled since the dirty set was last empty. */
+    private int done = 0;
+    private boolean reporting = false;
 
     public static WorldReconciler get(Level level) {
         return INSTANCES.computeIfAbsent(level, k -> new WorldReconciler());
@@ -43,16 +58,94 @@ public class WorldReconciler {
 
     public void tick(ServerLevel level) {
         WorldHistoryManager history = WorldHistoryManager.get(level);
+        if (history.dirtyCount() == 0) {
+            finish(level);
+            return;
+        }
         GhostJobManager jobManager = GhostJobManager.get(level);
 
-        Set<BlockPos> dirty = new HashSet<>(history.getDirtyPositions());
-        if (dirty.isEmpty()) return;
+        long deadline = System.nanoTime() + com.example.ghostlib.config.GhostLibConfig.RECONCILE_BUDGET_US * 1000L;
+        int limit = com.example.ghostlib.config.GhostLibConfig.RECONCILE_MAX_PER_TICK;
+        int processed = 0;
+        while (processed < limit) {
+            if (cursorIndex >= cursor.length && !advance(level, history)) break;
+            long packed = cursor[cursorIndex++];
+            // Cleaned (or undone) since the chunk was snapshotted
+            if (!history.isDirty(packed)) continue;
+
+            if (reconcileCoordinate(level, BlockPos.of(packed), history, jobManager)) {
+                history.markClean(packed);
+            }
+            done++;
+            processed++;
+            if ((processed & 15) == 0 && System.nanoTime() >= deadline) break;
+        }
+
+        if (history.dirtyCount() == 0) {
+            finish(level);
+        } else if (level.getGameTime() % PROGRESS_INTERVAL == 0) {
+            reporting = true;
+            sendProgress(level, done, done + history.dirtyCount());
+        }
+    }
 
-        for (BlockPos pos : dirty) {
-            if (reconcileCoordinate(level, pos, history, jobManager)) {
-                history.markClean(pos);
+    /**
+     * Moves the cursor to the dirty chunk closest to any player.
+     *
+     * @return false if nothing is dirty.
+     */
+    private boolean advance(ServerLevel level, WorldHistoryManager history) {
+        long best = 0;
+        double bestDist = Double.MAX_VALUE;
+        boolean found = false;
+        for (LongIterator it = history.dirtyChunks().iterator(); it.hasNext(); ) {
+            long chunk = it.nextLong();
+            double dist = nearestPlayerDistSqr(level, chunk);
+            if (!found || dist < bestDist) {
+                best = chunk;
+                bestDist = dist;
+                found = true;
             }
         }
+        cursor = found ? history.dirtyIn(best) : NO_POSITIONS;
+        cursorIndex = 0;
+        return cursor.length > 0;
+    }
+
+    private static double nearestPlayerDistSqr(ServerLevel level, long chunk) {
+        double cx = ChunkPos.getX(chunk) * 16 + 8;
+        double cz = ChunkPos.getZ(chunk) * 16 + 8;
+        double best = Double.MAX_VALUE;
+        for (ServerPlayer player : level.players()) {
+            double dx = player.getX() - cx;
+            double dz = player.getZ() - cz;
+            best = Math.min(best, dx * dx + dz * dz);
+        }
+        return best;
+    }
+
+    /**
+     * Backlog cleared: tell clients that were shown progress, and start counting afresh.
+     */
+    private void finish(ServerLevel level) {
+        if (reporting) sendProgress(level, done, done);
+        reporting = false;
+        done = 0;
+        cursor = NO_POSITIONS;
+        cursorIndex = 0;
+    }
+
+    private static void sendProgress(ServerLevel level, int done, int total) {
+        net.neoforged.neoforge.network.PacketDistributor.sendToPlayersInDimension(level,
+                new com.example.ghostlib.network.payload.S2CReconcileProgressPacket(done, total));
+    }
+
+    /**
+     * Share of the current backlog already reconciled, 1.0 when there is none.
+     */
+    public double progress(ServerLevel level) {
+        int remaining = WorldHistoryManager.get(level).dirtyCount();
+        return remaining == 0 ? 1.0 : (double) done / (done + remaining);
     }
 
     /**
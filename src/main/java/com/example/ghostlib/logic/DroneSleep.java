@@ -0,0 +1,152 @@
+package com.example.ghostlib.logic;
+
+import com.example.ghostlib.entity.DroneEntity;
+import com.example.ghostlib.util.GhostJobManager;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.phys.Vec3;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-level registry of sleeping drones and the events that wake them.
+ *
+ * A drone whose job search came back empty goes to sleep instead of polling. It stays asleep
+ * until 1. the job manager reports new claimable work within search reach of it, 2. its port
+ * goes away, 3. its owner walks off, or 4. its alarm (if any) fires. Nothing here runs per
+ * sleeping drone per tick.
+ */
+public class DroneSleep {
+    private static final Map<Level, DroneSleep> INSTANCES = new ConcurrentHashMap<>();
+    /** Owners have to move this far from where their drones parked before the drones follow. */
+    private static final double OWNER_WANDER_SQR = 4.0 * 4.0;
+    /** Alarm re-armed when a player drone's owner is offline as it fires. */
+    private static final int OWNER_OFFLINE_RETRY = 300;
+
+    private record Sleeper(DroneEntity drone, long column, long alarmAt) {}
+
+    private final Map<UUID, Sleeper> sleepers = new HashMap<>();
+    private final Long2ObjectOpenHashMap<List<DroneEntity>> byColumn = new Long2ObjectOpenHashMap<>();
+    private final Long2ObjectOpenHashMap<List<DroneEntity>> alarms = new Long2ObjectOpenHashMap<>();
+    /** Owner -> where they stood when their drones parked next to them. */
+    private final Map<UUID, Vec3> ownerAnchors = new HashMap<>();
+
+    public static DroneSleep get(Level level) {
+        return INSTANCES.computeIfAbsent(level, k -> new DroneSleep());
+    }
+
+    /**
+     * @param at         Where the drone will park; decides which new jobs wake it.
+     * @param alarmTicks Ticks until {@link DroneEntity#onSleepAlarm} runs, or 0 for none.
+     */
+    public void add(DroneEntity drone, BlockPos at, int alarmTicks) {
+        remove(drone);
+        long column = ChunkPos.asLong(at);
+        long alarmAt = alarmTicks > 0 ? drone.level().getGameTime() + alarmTicks : 0;
+        sleepers.put(drone.getUUID(), new Sleeper(drone, column, alarmAt));
+        byColumn.computeIfAbsent(column, k -> new ArrayList<>()).add(drone);
+        if (alarmAt != 0) alarms.computeIfAbsent(alarmAt, k -> new ArrayList<>()).add(drone);
+    }
+
+    public void remove(DroneEntity drone) {
+        Sleeper sleeper = sleepers.remove(drone.getUUID());
+        if (sleeper == null) return;
+        List<DroneEntity> column = byColumn.get(sleeper.column());
+        if (column != null && column.remove(drone) && column.isEmpty()) byColumn.remove(sleeper.column());
+        if (sleeper.alarmAt() != 0) {
+            List<DroneEntity> due = alarms.get(sleeper.alarmAt());
+            if (due != null && due.remove(drone) && due.isEmpty()) alarms.remove(sleeper.alarmAt());
+        }
+    }
+
+    /**
+     * Remembers where an owner stood when one of their drones parked beside them.
+     */
+    public void anchorOwner(UUID owner, Vec3 position) {
+        ownerAnchors.put(owner, position);
+    }
+
+    /**
+     * Job manager hook: claimable work appeared in {@code columns} (chunk keys) this tick.
+     */
+    public void wakeNear(LongSet columns) {
+        if (sleepers.isEmpty()) return;
+        int radius = GhostJobManager.SEARCH_RADIUS_SECTIONS;
+        List<DroneEntity> woken = new ArrayList<>();
+        for (LongIterator it = columns.iterator(); it.hasNext(); ) {
+            long column = it.nextLong();
+            int cx = ChunkPos.getX(column);
+            int cz = ChunkPos.getZ(column);
+            for (int dx = -radius; dx <= radius; dx++) {
+                for (int dz = -radius; dz <= radius; dz++) {
+                    List<DroneEntity> nearby = byColumn.get(ChunkPos.asLong(cx + dx, cz + dz));
+                    if (nearby != null) woken.addAll(nearby);
+                }
+            }
+            if (woken.size() >= sleepers.size()) break;
+        }
+        wakeAll(woken);
+    }
+
+    /**
+     * Wakes the drones homed at {@code port}, e.g. because it was broken.
+     */
+    public void wakePort(BlockPos port) {
+        if (sleepers.isEmpty()) return;
+        List<DroneEntity> woken = new ArrayList<>();
+        for (Sleeper sleeper : sleepers.values()) {
+            if (sleeper.drone().getMode() == DroneEntity.DroneMode.PORT && port.equals(sleeper.drone().getPortPos().orElse(null))) {
+                woken.add(sleeper.drone());
+            }
+        }
+        wakeAll(woken);
+    }
+
+    /**
+     * Player tick hook: wakes the player's drones once they have walked away from them.
+     */
+    public void onOwnerTick(Player player) {
+        Vec3 anchor = ownerAnchors.get(player.getUUID());
+        if (anchor == null || player.position().distanceToSqr(anchor) < OWNER_WANDER_SQR) return;
+        ownerAnchors.remove(player.getUUID());
+        List<DroneEntity> woken = new ArrayList<>();
+        for (Sleeper sleeper : sleepers.values()) {
+            if (sleeper.drone().getMode() == DroneEntity.DroneMode.PLAYER && player.getUUID().equals(sleeper.drone().getOwnerUUID())) {
+                woken.add(sleeper.drone());
+            }
+        }
+        wakeAll(woken);
+    }
+
+    public void tick(long gameTime) {
+        List<DroneEntity> due = alarms.remove(gameTime);
+        if (due == null) return;
+        for (DroneEntity drone : due) {
+            Sleeper sleeper = sleepers.get(drone.getUUID());
+            if (sleeper == null || sleeper.alarmAt() != gameTime) continue;
+            remove(drone);
+            if (!drone.onSleepAlarm()) add(drone, BlockPos.containing(drone.position()), OWNER_OFFLINE_RETRY);
+        }
+    }
+
+    private static void wakeAll(List<DroneEntity> drones) {
+        // wakeUp unregisters the drone, so never call it while iterating our own collections
+        for (DroneEntity drone : drones) {
+            drone.wakeUp();
+        }
+    }
+
+    public int sleeping() {
+        return sleepers.size();
+    }
+}
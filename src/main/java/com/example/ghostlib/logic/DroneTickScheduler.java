@@ -0,0 +1,155 @@
+package com.example.ghostlib.logic;
+
+import com.example.ghostlib.config.GhostLibConfig;
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.level.Level;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-level time budget for the expensive parts of the drone AI.
+ *
+ * Each phase runs on a period, and every drone gets its own offset into that period by hashing
+ * its entity id. Drones spawned on the same tick therefore don't all validate, search or
+ * re-resolve together. A due phase only runs while the level's budget for this tick
+ * ({@link GhostLibConfig#DRONE_TICK_BUDGET_US}) is left. Otherwise it is deferred and stays
+ * owed, so it runs on the next tick with room instead of waiting a whole period.
+ */
+public class DroneTickScheduler {
+    private static final Map<Level, DroneTickScheduler> INSTANCES = new ConcurrentHashMap<>();
+
+    /** Returned by {@link #acquire} when the phase must not run this tick. */
+    public static final long SKIP = -1L;
+
+    public enum Phase {
+        /** Port check, network id refresh and orphan re-homing. */
+        NETWORK(20),
+        /** Enlisting with the dispatcher. */
+        JOB_SEARCH(1),
+        /** Scanning the network / surroundings for a container holding the required item. */
+        CONTAINER_SEARCH(20),
+        /** Reserving the next jobs while still busy with the current one. */
+        LOOKAHEAD(10);
+
+        final int period;
+
+        Phase(int period) {
+            this.period = period;
+        }
+    }
+
+    private final Int2IntOpenHashMap owed = new Int2IntOpenHashMap();
+    private long usedNanos;
+    private long debtNanos;
+    private boolean overBudget;
+
+    private final LongAdder[] runs = newAdders();
+    private final LongAdder[] deferrals = newAdders();
+    private final LongAdder[] phaseNanos = newAdders();
+    private final LongAdder ticks = new LongAdder();
+    private final LongAdder ticksOverBudget = new LongAdder();
+
+    private static LongAdder[] newAdders() {
+        LongAdder[] adders = new LongAdder[Phase.values().length];
+        for (int i = 0; i < adders.length; i++) adders[i] = new LongAdder();
+        return adders;
+    }
+
+    public static DroneTickScheduler get(Level level) {
+        return INSTANCES.computeIfAbsent(level, k -> new DroneTickScheduler());
+    }
+
+    /**
+     * Opens a new budget window. Called before the level ticks its entities.
+     */
+    public void beginTick() {
+        ticks.increment();
+        if (overBudget) ticksOverBudget.increment();
+        usedNanos = Math.min(debtNanos, budgetNanos());
+        debtNanos = 0;
+        overBudget = false;
+    }
+
+    private static long budgetNanos() {
+        return GhostLibConfig.DRONE_TICK_BUDGET_US * 1000L;
+    }
+
+    /**
+     * Whether {@code entity} is on its own beat of a {@code period}-tick cycle.
+     */
+    public static boolean isDue(Entity entity, int period, int salt) {
+        if (period <= 1) return true;
+        int offset = (HashCommon.mix(entity.getId() * 31 + salt) & Integer.MAX_VALUE) % period;
+        return (entity.level().getGameTime() + offset) % period == 0;
+    }
+
+    /**
+     * Asks to run {@code phase} for {@code entity} this tick.
+     *
+     * @param urgent Run as soon as the budget allows, ignoring the phase period.
+     * @return A start stamp to hand back to {@link #release}, or {@link #SKIP}.
+     */
+    public long acquire(Entity entity, Phase phase, boolean urgent) {
+        int bit = 1 << phase.ordinal();
+        boolean owes = (owed.get(entity.getId()) & bit) != 0;
+        if (!urgent && !owes && !isDue(entity, phase.period, phase.ordinal())) return SKIP;
+
+        if (usedNanos >= budgetNanos()) {
+            owed.put(entity.getId(), owed.get(entity.getId()) | bit);
+            deferrals[phase.ordinal()].increment();
+            overBudget = true;
+            return SKIP;
+        }
+        if (owes) {
+            int remaining = owed.get(entity.getId()) & ~bit;
+            if (remaining == 0) owed.remove(entity.getId());
+            else owed.put(entity.getId(), remaining);
+        }
+        return System.nanoTime();
+    }
+
+    public void release(Phase phase, long stamp) {
+        long spent = System.nanoTime() - stamp;
+        usedNanos += spent;
+        runs[phase.ordinal()].increment();
+        phaseNanos[phase.ordinal()].add(spent);
+    }
+
+    /**
+     * Work done on the drones' behalf outside their own tick (the dispatcher) is paid for out of
+     * the next window.
+     */
+    public void chargeDeferredWork(long nanos) {
+        debtNanos += nanos;
+        phaseNanos[Phase.JOB_SEARCH.ordinal()].add(nanos);
+    }
+
+    public void forget(Entity entity) {
+        owed.remove(entity.getId());
+    }
+
+    public void resetStats() {
+        for (Phase phase : Phase.values()) {
+            runs[phase.ordinal()].reset();
+            deferrals[phase.ordinal()].reset();
+            phaseNanos[phase.ordinal()].reset();
+        }
+        ticks.reset();
+        ticksOverBudget.reset();
+    }
+
+    public String summary() {
+        StringBuilder sb = new StringBuilder(String.format("Drone AI budget %dus/tick: %d of %d ticks hit the budget, %d drones owe work",
+                GhostLibConfig.DRONE_TICK_BUDGET_US, ticksOverBudget.sum(), ticks.sum(), owed.size()));
+        for (Phase phase : Phase.values()) {
+            long n = runs[phase.ordinal()].sum();
+            sb.append(String.format("%n %s: %d run (avg %.1fus), %d deferred", phase, n,
+                    n == 0 ? 0.0 : phaseNanos[phase.ordinal()].sum() / 1000.0 / n, deferrals[phase.ordinal()].sum()));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.ghostlib.logic;
+
+import com.example.ghostlib.network.SyncBandwidth;
+import com.example.ghostlib.network.payload.S2CDroneWorkPacket;
+import it.unimi.dsi.fastutil.bytes.ByteArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-level queue of drone work effects (beam + sound), sent once per tick.
+ *
+ * Events are bucketed by the chunk of the worked block. At the end of the tick every player gets
+ * one {@link S2CDroneWorkPacket} holding the buckets of the chunks within {@link #FX_RANGE}
+ * blocks of them; players further away get nothing.
+ */
+public class DroneWorkEvents {
+    private static final Map<Level, DroneWorkEvents> INSTANCES = new ConcurrentHashMap<>();
+    /** Horizontal distance from a chunk's centre beyond which its effects aren't sent. */
+    private static final int FX_RANGE = 48;
+
+    private static class Bucket {
+        final IntArrayList droneIds = new IntArrayList();
+        final LongArrayList targets = new LongArrayList();
+        final ByteArrayList kinds = new ByteArrayList();
+    }
+
+    private final Long2ObjectOpenHashMap<Bucket> pending = new Long2ObjectOpenHashMap<>();
+
+    public static DroneWorkEvents get(Level level) {
+        return INSTANCES.computeIfAbsent(level, k -> new DroneWorkEvents());
+    }
+
+    public void post(Entity drone, BlockPos target, S2CDroneWorkPacket.Kind kind) {
+        Bucket bucket = pending.computeIfAbsent(ChunkPos.asLong(target), k -> new Bucket());
+        bucket.droneIds.add(drone.getId());
+        bucket.targets.add(target.asLong());
+        bucket.kinds.add((byte) kind.ordinal());
+    }
+
+    public void flush(ServerLevel level) {
+        if (pending.isEmpty()) return;
+        double rangeSqr = (double) FX_RANGE * FX_RANGE;
+
+        for (ServerPlayer player : level.players()) {
+            IntArrayList droneIds = new IntArrayList();
+            LongArrayList targets = new LongArrayList();
+            ByteArrayList kinds = new ByteArrayList();
+            for (Long2ObjectMap.Entry<Bucket> entry : pending.long2ObjectEntrySet()) {
+                long chunk = entry.getLongKey();
+                double dx = ChunkPos.getX(chunk) * 16 + 8 - player.getX();
+                double dz = ChunkPos.getZ(chunk) * 16 + 8 - player.getZ();
+                if (dx * dx + dz * dz > rangeSqr) continue;
+                Bucket bucket = entry.getValue();
+                droneIds.addAll(bucket.droneIds);
+                targets.addAll(bucket.targets);
+                kinds.addAll(bucket.kinds);
+            }
+            if (droneIds.isEmpty()) continue;
+
+            S2CDroneWorkPacket packet = new S2CDroneWorkPacket(droneIds.toIntArray(), targets.toLongArray(), kinds.toByteArray());
+            SyncBandwidth.recordWorkPacket(packet.encodedSize(), legacyPackets(level, packet));
+            net.neoforged.neoforge.network.PacketDistributor.sendToPlayer(player, packet);
+        }
+        pending.clear();
+    }
+
+    /**
+     * Packets the old server-side effects cost for the same events: one particle packet per
+     * 0.2 blocks of beam (two beams per placement) plus the placement sound.
+     */
+    private static int legacyPackets(ServerLevel level, S2CDroneWorkPacket packet) {
+        int total = 0;
+        for (int i = 0; i < packet.droneIds().length; i++) {
+            Entity drone = level.getEntity(packet.droneIds()[i]);
+            if (drone == null) continue;
+            int beam = (int) Math.ceil(Math.sqrt(BlockPos.of(packet.targets()[i]).distToCenterSqr(drone.position().add(0, 0.2, 0))) / 0.2);
+            total += packet.kinds()[i] == S2CDroneWorkPacket.Kind.BUILD.ordinal() ? 2 * beam + 1 : beam;
+        }
+        return total;
+    }
+}
@@ -2,7 +2,9 @@ package com.example.ghostlib.logic;
 
 import com.example.ghostlib.block.GhostBlock;
 import com.example.ghostlib.block.entity.GhostBlockEntity;
+import com.example.ghostlib.config.GhostLibConfig;
 import com.example.ghostlib.history.BlockSnapshot;
+import com.example.ghostlib.history.ChangeSet;
 import com.example.ghostlib.history.GhostHistoryManager;
 import com.example.ghostlib.history.WorldHistoryManager;
 import com.example.ghostlib.registry.ModBlocks;
@@ -16,9 +18,7 @@ import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.state.BlockState;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 public class GhostActionHandler {
@@ -33,7 +33,6 @@ public class GhostActionHandler {
             return;
 
         ListTag patternList = patternTag.getList("Pattern", 10);
-        List<BlockPos> placementOrigins = new ArrayList<>();
 
         int bpSizeX = patternTag.contains("SizeX") ? Math.max(1, patternTag.getInt("SizeX")) : 0;
         int bpSizeZ = patternTag.contains("SizeZ") ? Math.max(1, patternTag.getInt("SizeZ")) : 0;
@@ -65,55 +64,62 @@ public class GhostActionHandler {
         boolean isGrid = (placementMode & 1) != 0;
         boolean isForce = (placementMode & 4) != 0;
 
+        // Copies are stamped on a grid of origins: start + (i * signedStepX, 0, k * signedStepZ)
+        int signedStepX, signedStepZ, countX, countZ;
         if (isGrid) {
             int xDir = end.getX() >= start.getX() ? 1 : -1;
             int zDir = end.getZ() >= start.getZ() ? 1 : -1;
-            int xRange = Math.abs(end.getX() - start.getX());
-            int zRange = Math.abs(end.getZ() - start.getZ());
-            for (int x = 0; x <= xRange; x += Math.max(1, stepX)) {
-                for (int z = 0; z <= zRange; z += Math.max(1, stepZ)) {
-                    placementOrigins.add(start.offset(x * xDir, 0, z * zDir));
-                }
-            }
+            signedStepX = Math.max(1, stepX) * xDir;
+            signedStepZ = Math.max(1, stepZ) * zDir;
+            countX = Math.abs(end.getX() - start.getX()) / Math.max(1, stepX) + 1;
+            countZ = Math.abs(end.getZ() - start.getZ()) / Math.max(1, stepZ) + 1;
         } else {
             int dx = end.getX() - start.getX();
             int dz = end.getZ() - start.getZ();
             if (Math.abs(dx) >= Math.abs(dz)) {
-                int steps = Math.abs(dx) / Math.max(1, stepX);
-                int dir = dx >= 0 ? 1 : -1;
-                for (int i = 0; i <= steps; i++) placementOrigins.add(start.offset(i * stepX * dir, 0, 0));
+                signedStepX = stepX * (dx >= 0 ? 1 : -1);
+                countX = Math.abs(dx) / Math.max(1, stepX) + 1;
+                signedStepZ = 0;
+                countZ = 1;
             } else {
-                int steps = Math.abs(dz) / Math.max(1, stepZ);
-                int dir = dz >= 0 ? 1 : -1;
-                for (int i = 0; i <= steps; i++) placementOrigins.add(start.offset(0, 0, i * stepZ * dir));
+                signedStepZ = stepZ * (dz >= 0 ? 1 : -1);
+                countZ = Math.abs(dz) / Math.max(1, stepZ) + 1;
+                signedStepX = 0;
+                countX = 1;
             }
         }
 
-        Map<BlockPos, BlockSnapshot> blueprintChanges = new HashMap<>();
-        for (BlockPos origin : placementOrigins) {
-            for (int i = 0; i < patternList.size(); i++) {
-                CompoundTag blockTag = patternList.getCompound(i);
-                BlockPos rel = NbtUtils.readBlockPos(blockTag, "Rel").orElse(BlockPos.ZERO);
-                BlockState bpState = NbtUtils.readBlockState(level.holderLookup(net.minecraft.core.registries.Registries.BLOCK), blockTag.getCompound("State"));
-                BlockPos target = origin.offset(rel).immutable();
-                CompoundTag capturedNbt = blockTag.contains("Data") ? blockTag.getCompound("Data") : null;
+        // The pattern is decoded once; the action keeps it plus the grid instead of every placed block
+        Map<BlockPos, BlockSnapshot> pattern = new LinkedHashMap<>();
+        for (int i = 0; i < patternList.size(); i++) {
+            CompoundTag blockTag = patternList.getCompound(i);
+            BlockPos rel = NbtUtils.readBlockPos(blockTag, "Rel").orElse(BlockPos.ZERO);
+            BlockState bpState = NbtUtils.readBlockState(level.holderLookup(net.minecraft.core.registries.Registries.BLOCK), blockTag.getCompound("State"));
+            CompoundTag capturedNbt = blockTag.contains("Data") ? blockTag.getCompound("Data") : null;
 
-                if (bpState != null && !bpState.isAir()) {
-                    blueprintChanges.put(target, new BlockSnapshot(bpState, capturedNbt));
-                }
+            if (bpState != null && !bpState.isAir()) {
+                pattern.put(rel, new BlockSnapshot(bpState, capturedNbt));
             }
         }
-        WorldHistoryManager.get(level).pushAction(new WorldHistoryManager.HistoryAction("Blueprint Placement", blueprintChanges), level);
+        if (!withinActionLimit(player, ChangeSet.tiledSize(pattern.size(), countX, countZ))) return;
+        ChangeSet changes = ChangeSet.tiled(pattern, start, signedStepX, signedStepZ, countX, countZ);
+        WorldHistoryManager.get(level).pushAction(new WorldHistoryManager.HistoryAction("Blueprint Placement", changes, player.getUUID()), level);
     }
 
     public static void executeDeconstruction(ServerLevel level, ServerPlayer player, BlockPos start, BlockPos end) {
-        BlockPos min = new BlockPos(Math.min(start.getX(), end.getX()), Math.min(start.getY(), end.getY()), Math.min(start.getZ(), end.getZ()));
-        BlockPos max = new BlockPos(Math.max(start.getX(), end.getX()), Math.max(start.getY(), end.getY()), Math.max(start.getZ(), end.getZ()));
+        if (!withinActionLimit(player, ChangeSet.boxSize(start, end))) return;
+        ChangeSet changes = ChangeSet.box(start, end, BlockSnapshot.AIR);
+        WorldHistoryManager.get(level).pushAction(new WorldHistoryManager.HistoryAction("Deconstruction Area", changes, player.getUUID()), level);
+    }
 
-        Map<BlockPos, BlockSnapshot> changes = new HashMap<>();
-        for (BlockPos p : BlockPos.betweenClosed(min, max)) {
-            changes.put(p.immutable(), BlockSnapshot.AIR);
-        }
-        WorldHistoryManager.get(level).pushAction(new WorldHistoryManager.HistoryAction("Deconstruction Area", changes), level);
+    /**
+     * Corners and counts come straight from the client, so the size of an action is checked
+     * before any change set is built for it.
+     */
+    private static boolean withinActionLimit(ServerPlayer player, long blocks) {
+        if (blocks <= GhostLibConfig.MAX_ACTION_BLOCKS) return true;
+        player.displayClientMessage(net.minecraft.network.chat.Component.literal(
+                "Action too large: " + blocks + " blocks (max " + GhostLibConfig.MAX_ACTION_BLOCKS + ")"), true);
+        return false;
     }
-}
\ No newline at end of file
+}
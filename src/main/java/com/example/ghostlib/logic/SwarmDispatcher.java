@@ -0,0 +1,146 @@
+package com.example.ghostlib.logic;
+
+import com.example.ghostlib.entity.DroneEntity;
+import com.example.ghostlib.util.GhostJobManager;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSets;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.Level;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongPredicate;
+
+/**
+ * Per-level job dispatcher.
+ *
+ * Drones in FINDING_JOB no longer query the job manager themselves; they enlist here and wait.
+ * Once per level tick the dispatcher gathers the nearest candidates of every enlisted drone and
+ * matches drones to jobs in a single greedy pass over all (drone, job) pairs, cheapest first.
+ * Two drones never race for the same job, and a job goes to whichever waiting drone is
+ * actually closest rather than to whoever ticked first.
+ *
+ * Pair order is 1. priority class, 2. fair-share start tag of the job's owner, 3. distance.
+ * Start tags move as jobs are handed out, so a popped pair whose tag went stale is re-queued
+ * with the new tag instead of being taken.
+ */
+public class SwarmDispatcher {
+    private static final Map<Level, SwarmDispatcher> INSTANCES = new ConcurrentHashMap<>();
+    /** Candidates gathered per job type and drone. */
+    private static final int CANDIDATES_PER_TYPE = 4;
+    /** Rounds of candidate gathering for drones whose candidates all went to others. */
+    private static final int MAX_ROUNDS = 2;
+
+    private final Map<UUID, DroneEntity> waiting = new LinkedHashMap<>();
+
+    private record Pair(DroneEntity drone, long packed, GhostJobManager.JobType type, int rank, double startTag, double cost)
+            implements Comparable<Pair> {
+        @Override
+        public int compareTo(Pair o) {
+            if (rank != o.rank) return Integer.compare(rank, o.rank);
+            if (startTag != o.startTag) return Double.compare(startTag, o.startTag);
+            return Double.compare(cost, o.cost);
+        }
+    }
+
+    public static SwarmDispatcher get(Level level) {
+        return INSTANCES.computeIfAbsent(level, k -> new SwarmDispatcher());
+    }
+
+    /**
+     * Queues a drone for the next dispatch. Enlisting twice in a tick is harmless.
+     */
+    public void enlist(DroneEntity drone) {
+        waiting.put(drone.getUUID(), drone);
+    }
+
+    /**
+     * Claims the next job for a drone that is chaining or reserving work mid-tick and can't wait
+     * for the batch pass. Candidates and pair order are the same as in {@link #tick}, so the drone
+     * still takes work in priority and fair-share order.
+     *
+     * @param origin Where to search from; the drone's position or the job it is headed to.
+     * @param accept Extra filter on candidate positions, checked before anything is claimed.
+     * @return The claimed job, or null if nothing acceptable is in reach.
+     */
+    public GhostJobManager.Job claimNow(DroneEntity drone, net.minecraft.core.BlockPos origin, boolean canBuild, LongPredicate accept) {
+        GhostJobManager manager = GhostJobManager.get(drone.level());
+        PriorityQueue<Pair> pairs = new PriorityQueue<>();
+        manager.collectCandidates(origin, canBuild, CANDIDATES_PER_TYPE, LongSets.EMPTY_SET, (packed, type, cost) -> {
+            if (accept.test(packed)) pairs.add(new Pair(drone, packed, type, manager.priorityRank(packed), manager.fairStartTag(packed), cost));
+        });
+        while (!pairs.isEmpty()) {
+            Pair pair = pairs.poll();
+            GhostJobManager.Job job = manager.claim(pair.packed(), pair.type(), drone.getUUID());
+            if (job != null) return job;
+        }
+        return null;
+    }
+
+    public void tick(ServerLevel level) {
+        if (waiting.isEmpty()) return;
+        GhostJobManager manager = GhostJobManager.get(level);
+
+        List<DroneEntity> drones = new ArrayList<>(waiting.size());
+        for (DroneEntity drone : waiting.values()) {
+            if (drone.isAwaitingDispatch()) drones.add(drone);
+        }
+        waiting.clear();
+
+        LongOpenHashSet taken = new LongOpenHashSet();
+        // Only drones that had nothing in reach back off; outbid ones still have work nearby
+        List<DroneEntity> idle = new ArrayList<>();
+        for (int round = 0; round < MAX_ROUNDS && !drones.isEmpty(); round++) {
+            // 1. Gather candidates for every waiting drone
+            PriorityQueue<Pair> pairs = new PriorityQueue<>();
+            Set<DroneEntity> reachable = new HashSet<>();
+            for (DroneEntity drone : drones) {
+                manager.collectCandidates(drone.blockPosition(), true, CANDIDATES_PER_TYPE, taken, (packed, type, cost) -> {
+                    pairs.add(new Pair(drone, packed, type, manager.priorityRank(packed), manager.fairStartTag(packed), cost));
+                    reachable.add(drone);
+                });
+            }
+
+            // 2. Greedy matching, cheapest pair first
+            Set<DroneEntity> matched = new HashSet<>();
+            while (!pairs.isEmpty() && matched.size() < reachable.size()) {
+                Pair pair = pairs.poll();
+                if (matched.contains(pair.drone()) || taken.contains(pair.packed())) continue;
+                double startTag = manager.fairStartTag(pair.packed());
+                if (startTag > pair.startTag()) {
+                    pairs.add(new Pair(pair.drone(), pair.packed(), pair.type(), pair.rank(), startTag, pair.cost()));
+                    continue;
+                }
+                taken.add(pair.packed());
+                GhostJobManager.Job job = manager.claim(pair.packed(), pair.type(), pair.drone().getUUID());
+                if (job == null) continue;
+                matched.add(pair.drone());
+                pair.drone().acceptDispatchedJob(job);
+            }
+
+            // 3. Drones with nothing in reach are done; those outbid by closer drones get another round.
+            //    Later rounds skip jobs already taken, so an empty search there still means outbid.
+            List<DroneEntity> outbid = new ArrayList<>();
+            for (DroneEntity drone : drones) {
+                if (matched.contains(drone)) continue;
+                if (round > 0 || reachable.contains(drone)) outbid.add(drone);
+                else idle.add(drone);
+            }
+            drones = outbid;
+        }
+
+        for (DroneEntity drone : idle) {
+            drone.onNoJobDispatched();
+        }
+        for (DroneEntity drone : drones) {
+            drone.onOutbid();
+        }
+    }
+}
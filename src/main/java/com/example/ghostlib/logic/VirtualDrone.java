@@ -0,0 +1,343 @@
+package com.example.ghostlib.logic;
+
+import com.example.ghostlib.block.GhostBlock;
+import com.example.ghostlib.block.entity.DronePortBlockEntity;
+import com.example.ghostlib.block.entity.GhostBlockEntity;
+import com.example.ghostlib.entity.DroneEntity;
+import com.example.ghostlib.registry.ModEntities;
+import com.example.ghostlib.util.GhostJobManager;
+import com.example.ghostlib.util.LogisticsNetworkManager;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.HolderLookup;
+import net.minecraft.core.component.DataComponents;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.Tag;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.component.CustomData;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.phys.Vec3;
+import net.neoforged.neoforge.capabilities.Capabilities;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A port drone nobody can see, simulated as a timer instead of an entity.
+ *
+ * A {@link DronePortBlockEntity} with no player in range folds its idle drones into these. A
+ * virtual drone takes jobs like a real one but its flight is arithmetic: trip time from distance
+ * and movement speed, energy charged up front, and the work happens when the timer fires. Once a
+ * player comes close it becomes a {@link DroneEntity} again, wherever it would be on its route.
+ */
+public class VirtualDrone {
+    /** Blocks per tick, the speed real drones cruise at towards a job. */
+    private static final double CRUISE_SPEED = 0.7;
+    /** Ticks spent at the job site. */
+    private static final int WORK_TICKS = 10;
+
+    /** The drone's saved entity data, restored verbatim on materialization. */
+    private final CompoundTag entityData;
+    private final UUID id;
+    private final double efficiency;
+    private final double maxEnergy;
+    private final boolean silkTouch;
+    private int energy;
+
+    private GhostJobManager.Job job;
+    /** Where the current trip's work happens, kept for the way home. */
+    private Vec3 site;
+    /** The build item on the way out, harvested drops on the way back. */
+    private final List<ItemStack> cargo = new ArrayList<>();
+    private long departedAt;
+    private long arrivesAt;
+    private long returnsAt;
+
+    private VirtualDrone(CompoundTag entityData, double efficiency, double maxEnergy, boolean silkTouch, int energy) {
+        this.entityData = entityData;
+        this.id = entityData.getUUID("UUID");
+        this.efficiency = efficiency;
+        this.maxEnergy = maxEnergy;
+        this.silkTouch = silkTouch;
+        this.energy = energy;
+    }
+
+    /**
+     * Snapshots a drone. The caller discards the entity afterwards.
+     */
+    public static VirtualDrone of(DroneEntity drone) {
+        CompoundTag tag = new CompoundTag();
+        drone.saveWithoutId(tag);
+        return new VirtualDrone(tag, drone.energyEfficiency(), drone.maxEnergy(), drone.hasSilkTouch(), drone.getEnergy());
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public boolean isBusy(long now) {
+        return job != null || now < returnsAt;
+    }
+
+    /**
+     * Tops up from the port the way a docked drone would.
+     * @return true if the drone has enough energy to fly.
+     */
+    public boolean charge(DronePortBlockEntity port) {
+        if (energy < maxEnergy * 0.2) {
+            energy += port.chargeDrone((int) maxEnergy - energy, false);
+        }
+        return energy >= maxEnergy * 0.2;
+    }
+
+    /**
+     * Tops up from the port for the round trip to {@code job}, which {@link #charge} alone doesn't
+     * guarantee for far sites.
+     * @return false if the port can't cover the trip; the claim is the caller's to release.
+     */
+    public boolean chargeFor(DronePortBlockEntity port, GhostJobManager.Job job) {
+        int cost = tripCost(flightTicks(dockPos(port.getBlockPos()), job.pos()));
+        if (energy < cost) {
+            energy += port.chargeDrone((int) maxEnergy - energy, false);
+        }
+        return energy >= cost;
+    }
+
+    /**
+     * Flight time one way: straight line to within interaction range, at cruise speed.
+     */
+    private static long flightTicks(Vec3 dock, BlockPos target) {
+        double reach = Math.max(0, dock.distanceTo(target.getCenter()) - com.example.ghostlib.config.GhostLibConfig.DRONE_INTERACTION_RANGE);
+        return (long) Math.ceil(reach / (CRUISE_SPEED * com.example.ghostlib.config.GhostLibConfig.DRONE_MOVEMENT_SPEED));
+    }
+
+    /**
+     * Energy for both legs and the work.
+     */
+    private int tripCost(long flight) {
+        return (int) (flight * 2 * Math.max(1, (int) (DroneEntity.FLY_COST / efficiency)) + DroneEntity.WORK_COST / efficiency);
+    }
+
+    /**
+     * Sends the drone off on a job it already holds the claim for. Callers check {@link #chargeFor} first.
+     * @return false if a construction job's item is nowhere to be had, or the trip can't be paid for;
+     *         the claim is the caller's to release.
+     */
+    public boolean dispatch(ServerLevel level, DronePortBlockEntity port, GhostJobManager.Job job, long now) {
+        // 1. Flight time and energy are settled before anything is taken from the network
+        Vec3 dock = dockPos(port.getBlockPos());
+        long flight = flightTicks(dock, job.pos());
+        int cost = tripCost(flight);
+        if (energy < cost) return false;
+
+        if (job.type() == GhostJobManager.JobType.CONSTRUCTION) {
+            ItemStack taken = takeFromNetwork(level, port, new ItemStack(job.targetAfter().getBlock().asItem()));
+            if (taken.isEmpty()) return false;
+            cargo.add(taken);
+        }
+
+        // 2. Energy for both legs and the work, charged up front
+        energy -= cost;
+        double distance = dock.distanceTo(job.pos().getCenter());
+        double reach = Math.max(0, distance - com.example.ghostlib.config.GhostLibConfig.DRONE_INTERACTION_RANGE);
+
+        this.job = job;
+        this.site = distance == 0 ? dock : dock.lerp(job.pos().getCenter(), reach / distance);
+        this.departedAt = now;
+        this.arrivesAt = now + flight + WORK_TICKS;
+        this.returnsAt = arrivesAt + flight;
+
+        if (level.getBlockEntity(job.pos()) instanceof GhostBlockEntity gbe) {
+            gbe.setState(job.type() == GhostJobManager.JobType.CONSTRUCTION
+                    ? GhostBlockEntity.GhostState.INCOMING : GhostBlockEntity.GhostState.REMOVING);
+        }
+        return true;
+    }
+
+    private static ItemStack takeFromNetwork(ServerLevel level, DronePortBlockEntity port, ItemStack required) {
+        ItemStack taken = port.extractItem(required, 1, false);
+        if (!taken.isEmpty()) return taken;
+
+        Integer networkId = LogisticsNetworkManager.get(level).getNetworkId(port.getBlockPos());
+        if (networkId == null) return ItemStack.EMPTY;
+        for (BlockPos memberPos : LogisticsNetworkManager.get(level).getNetworkMembers(networkId)) {
+            if (!level.isLoaded(memberPos) || memberPos.equals(port.getBlockPos())) continue;
+            net.neoforged.neoforge.items.IItemHandler handler = level.getCapability(Capabilities.ItemHandler.BLOCK, memberPos, null);
+            if (handler == null) continue;
+            for (int i = 0; i < handler.getSlots(); i++) {
+                if (handler.getStackInSlot(i).is(required.getItem())) {
+                    taken = handler.extractItem(i, 1, false);
+                    if (!taken.isEmpty()) return taken;
+                }
+            }
+        }
+        return ItemStack.EMPTY;
+    }
+
+    /**
+     * Fires the work timer and, once home, unloads the cargo into the port.
+     */
+    public void tick(ServerLevel level, DronePortBlockEntity port, long now) {
+        if (job != null && now >= arrivesAt) {
+            work(level);
+            job = null;
+        }
+        if (job == null && now >= returnsAt && !cargo.isEmpty()) {
+            for (ItemStack stack : cargo) {
+                ItemStack remainder = port.insertItem(stack, false);
+                if (!remainder.isEmpty()) Block.popResource(level, port.getBlockPos().above(), remainder);
+            }
+            cargo.clear();
+        }
+    }
+
+    private void work(ServerLevel level) {
+        GhostJobManager manager = GhostJobManager.get(level);
+        BlockPos pos = job.pos();
+        if (!level.isLoaded(pos) || !manager.isAssignedTo(pos, id)) {
+            // Lost the claim (undo, reassignment) or the site unloaded while in flight
+            release(level);
+            return;
+        }
+
+        BlockState worldState = level.getBlockState(pos);
+        if (job.type() == GhostJobManager.JobType.CONSTRUCTION) {
+            if (!(level.getBlockEntity(pos) instanceof GhostBlockEntity)) {
+                release(level);
+                return;
+            }
+            if (worldState.equals(job.targetAfter())) {
+                manager.completeJob(pos, level);
+                return;
+            }
+            if (!worldState.isAir() && !worldState.canBeReplaced() && !(worldState.getBlock() instanceof GhostBlock)) {
+                manager.registerDirectDeconstruct(pos, job.targetAfter(), level);
+                return;
+            }
+            ItemStack used = cargo.isEmpty() ? ItemStack.EMPTY : cargo.remove(0);
+            if (used.isEmpty() || !level.setBlock(pos, job.targetAfter(), 3)) {
+                if (!used.isEmpty()) cargo.add(used);
+                release(level);
+                return;
+            }
+            job.targetAfter().getBlock().setPlacedBy(level, pos, job.targetAfter(), null, used);
+            // Same rule as real drones: block entity data comes from the used item only
+            net.minecraft.world.level.block.entity.BlockEntity newBe = level.getBlockEntity(pos);
+            CustomData data = used.get(DataComponents.BLOCK_ENTITY_DATA);
+            if (newBe != null && data != null) {
+                CompoundTag tag = data.copyTag();
+                tag.putInt("x", pos.getX());
+                tag.putInt("y", pos.getY());
+                tag.putInt("z", pos.getZ());
+                newBe.loadWithComponents(tag, level.registryAccess());
+                newBe.setChanged();
+            }
+            manager.completeJob(pos, level);
+            return;
+        }
+
+        // Removal and deconstruction
+        if (worldState.getBlock() instanceof GhostBlock) {
+            manager.completeJob(pos, level);
+            return;
+        }
+        DroneEntity.harvestBlock(level, pos, worldState, silkTouch, stack -> {
+            cargo.add(stack);
+            return ItemStack.EMPTY;
+        }, () -> {});
+        level.setBlock(pos, Blocks.AIR.defaultBlockState(), 3);
+        manager.completeJob(pos, level);
+
+        BlockState targetAfter = job.targetAfter();
+        BlockState finalIntended = job.finalState();
+        if (targetAfter != null && !targetAfter.isAir()) {
+            level.setBlock(pos, targetAfter, 3);
+            if (targetAfter.getBlock() instanceof GhostBlock && level.getBlockEntity(pos) instanceof GhostBlockEntity gbe
+                    && finalIntended != null && !finalIntended.isAir()) {
+                gbe.setTargetState(finalIntended);
+                gbe.setState(GhostBlockEntity.GhostState.UNASSIGNED);
+            }
+        }
+    }
+
+    /**
+     * Gives up the current job; any item taken for it stays in the cargo and goes home.
+     */
+    public void release(ServerLevel level) {
+        if (job == null) return;
+        if (level.isLoaded(job.pos()) && level.getBlockEntity(job.pos()) instanceof GhostBlockEntity gbe) {
+            GhostBlockEntity.GhostState state = gbe.getCurrentState();
+            if (state == GhostBlockEntity.GhostState.INCOMING || state == GhostBlockEntity.GhostState.REMOVING) {
+                gbe.setState(GhostBlockEntity.GhostState.UNASSIGNED);
+            }
+        }
+        GhostJobManager.get(level).releaseJob(job.pos(), id);
+        job = null;
+    }
+
+    /**
+     * Turns the drone back into an entity where it would be on its route, keeping its claim and cargo.
+     */
+    public DroneEntity materialize(ServerLevel level, BlockPos portPos, long now) {
+        entityData.putInt("Energy", energy);
+        DroneEntity drone = new DroneEntity(ModEntities.DRONE.get(), level);
+        drone.load(entityData);
+        drone.setPort(portPos);
+
+        // Outbound, at the site, or on the way home
+        Vec3 dock = dockPos(portPos);
+        Vec3 at = dock;
+        long flight = returnsAt - arrivesAt;
+        if (site != null && now < returnsAt) {
+            if (now < departedAt + flight) at = dock.lerp(site, (now - departedAt) / (double) flight);
+            else if (now < arrivesAt) at = site;
+            else at = site.lerp(dock, (now - arrivesAt) / (double) flight);
+        }
+        drone.setPos(at.x, at.y, at.z);
+
+        for (ItemStack stack : cargo) {
+            ItemStack remainder = drone.addToInventory(stack);
+            if (!remainder.isEmpty()) Block.popResource(level, portPos.above(), remainder);
+        }
+        cargo.clear();
+        if (job != null) drone.setInitialJob(job);
+        return drone;
+    }
+
+    private static Vec3 dockPos(BlockPos portPos) {
+        return Vec3.atCenterOf(portPos).add(0, 1, 0);
+    }
+
+    /**
+     * Claims don't survive a restart, so an in-flight job isn't saved; its cargo is, and goes home.
+     */
+    public CompoundTag save(HolderLookup.Provider registries) {
+        CompoundTag tag = new CompoundTag();
+        entityData.putInt("Energy", energy);
+        tag.put("Entity", entityData);
+        tag.putDouble("Efficiency", efficiency);
+        tag.putDouble("MaxEnergy", maxEnergy);
+        tag.putBoolean("Silk", silkTouch);
+        ListTag cargoTag = new ListTag();
+        for (ItemStack stack : cargo) {
+            if (!stack.isEmpty()) cargoTag.add(stack.save(registries));
+        }
+        tag.put("Cargo", cargoTag);
+        return tag;
+    }
+
+    public static VirtualDrone load(CompoundTag tag, HolderLookup.Provider registries) {
+        CompoundTag entityData = tag.getCompound("Entity");
+        VirtualDrone drone = new VirtualDrone(entityData, tag.getDouble("Efficiency"), tag.getDouble("MaxEnergy"),
+                tag.getBoolean("Silk"), entityData.getInt("Energy"));
+        ListTag cargoTag = tag.getList("Cargo", Tag.TAG_COMPOUND);
+        for (int i = 0; i < cargoTag.size(); i++) {
+            ItemStack.parse(registries, cargoTag.getCompound(i)).ifPresent(drone.cargo::add);
+        }
+        return drone;
+    }
+}
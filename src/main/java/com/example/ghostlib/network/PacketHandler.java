@@ -14,7 +14,7 @@ public class PacketHandler {
 
     @SubscribeEvent
     public static void register(RegisterPayloadHandlersEvent event) {
-        final PayloadRegistrar registrar = event.registrar(GhostLib.MODID).versioned("1.0.0");
+        final PayloadRegistrar registrar = event.registrar(GhostLib.MODID).versioned("1.3.0");
 
         registrar.playToServer(
             ServerboundPlaceGhostsPacket.TYPE,
@@ -41,9 +41,21 @@ public class PacketHandler {
         );
 
         registrar.playToClient(
-            com.example.ghostlib.network.payload.S2CSyncDeconstructionPacket.TYPE,
-            com.example.ghostlib.network.payload.S2CSyncDeconstructionPacket.STREAM_CODEC,
-            com.example.ghostlib.network.payload.S2CSyncDeconstructionPacket::handle
+            com.example.ghostlib.network.payload.S2CDeconstructionDeltaPacket.TYPE,
+            com.example.ghostlib.network.payload.S2CDeconstructionDeltaPacket.STREAM_CODEC,
+            com.example.ghostlib.network.payload.S2CDeconstructionDeltaPacket::handle
+        );
+
+        registrar.playToClient(
+            com.example.ghostlib.network.payload.S2CDroneWorkPacket.TYPE,
+            com.example.ghostlib.network.payload.S2CDroneWorkPacket.STREAM_CODEC,
+            com.example.ghostlib.network.payload.S2CDroneWorkPacket::handle
+        );
+
+        registrar.playToClient(
+            com.example.ghostlib.network.payload.S2CReconcileProgressPacket.TYPE,
+            com.example.ghostlib.network.payload.S2CReconcileProgressPacket.STREAM_CODEC,
+            com.example.ghostlib.network.payload.S2CReconcileProgressPacket::handle
         );
     }
 }
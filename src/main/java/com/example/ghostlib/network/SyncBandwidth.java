@@ -0,0 +1,60 @@
+package com.example.ghostlib.network;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Running totals for the deconstruction overlay sync and the drone work effect packets.
+ *
+ * {@code legacyBytes} estimates what the old protocol would have sent for the same changes:
+ * the whole map (4-byte count + 12 bytes per job) to every player in the dimension, once per change.
+ */
+public final class SyncBandwidth {
+    private static final AtomicLong packets = new AtomicLong();
+    private static final AtomicLong bytes = new AtomicLong();
+    private static final AtomicLong fullResyncs = new AtomicLong();
+    private static final AtomicLong legacyBytes = new AtomicLong();
+    private static final AtomicLong workPackets = new AtomicLong();
+    private static final AtomicLong workBytes = new AtomicLong();
+    private static final AtomicLong workLegacyPackets = new AtomicLong();
+
+    private SyncBandwidth() {}
+
+    public static void recordPacket(int size, boolean fullResync) {
+        packets.incrementAndGet();
+        bytes.addAndGet(size);
+        if (fullResync) fullResyncs.incrementAndGet();
+    }
+
+    public static void recordLegacyEquivalent(long changes, int players, int totalJobs) {
+        legacyBytes.addAndGet(changes * players * (4L + 12L * totalJobs));
+    }
+
+    /**
+     * @param legacyPackets Particle and sound packets the server-side effects would have sent instead.
+     */
+    public static void recordWorkPacket(int size, int legacyPackets) {
+        workPackets.incrementAndGet();
+        workBytes.addAndGet(size);
+        workLegacyPackets.addAndGet(legacyPackets);
+    }
+
+    public static void reset() {
+        packets.set(0);
+        bytes.set(0);
+        fullResyncs.set(0);
+        legacyBytes.set(0);
+        workPackets.set(0);
+        workBytes.set(0);
+        workLegacyPackets.set(0);
+    }
+
+    public static String summary() {
+        long sent = bytes.get();
+        long legacy = legacyBytes.get();
+        String saving = legacy > 0 ? String.format("%.1f%%", 100.0 * (legacy - sent) / legacy) : "n/a";
+        return String.format("Deconstruction sync: %d packets, %d bytes (%d full resyncs). Full-map protocol estimate: %d bytes. Saving: %s",
+                packets.get(), sent, fullResyncs.get(), legacy, saving)
+                + String.format("%nDrone work effects: %d packets, %d bytes. Server-side particles would have been %d packets",
+                workPackets.get(), workBytes.get(), workLegacyPackets.get());
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.ghostlib.network.payload;
+
+import com.example.ghostlib.GhostLib;
+import com.example.ghostlib.util.GhostJobManager;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.VarInt;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+import net.neoforged.neoforge.network.handling.IPayloadContext;
+import net.minecraft.world.level.block.Block;
+
+/**
+ * Incremental update of the client's deconstruction overlay.
+ *
+ * @param reset        Drop every known marker before applying this delta (login / dimension change).
+ * @param added        Packed positions of new or changed deconstruct jobs.
+ * @param addedStates  State id left behind after each added job, parallel to {@code added}.
+ * @param removed      Packed positions of jobs that are gone.
+ */
+public record S2CDeconstructionDeltaPacket(boolean reset, long[] added, int[] addedStates, long[] removed) implements CustomPacketPayload {
+    public static final Type<S2CDeconstructionDeltaPacket> TYPE = new Type<>(ResourceLocation.fromNamespaceAndPath(GhostLib.MODID, "deconstruction_delta"));
+
+    public static final StreamCodec<FriendlyByteBuf, S2CDeconstructionDeltaPacket> STREAM_CODEC = StreamCodec.ofMember(
+        (packet, buf) -> {
+            buf.writeBoolean(packet.reset);
+            buf.writeVarInt(packet.added.length);
+            for (int i = 0; i < packet.added.length; i++) {
+                buf.writeLong(packet.added[i]);
+                buf.writeVarInt(packet.addedStates[i]);
+            }
+            buf.writeVarInt(packet.removed.length);
+            for (long pos : packet.removed) {
+                buf.writeLong(pos);
+            }
+        },
+        buf -> {
+            boolean reset = buf.readBoolean();
+            int addedCount = buf.readVarInt();
+            long[] added = new long[addedCount];
+            int[] states = new int[addedCount];
+            for (int i = 0; i < addedCount; i++) {
+                added[i] = buf.readLong();
+                states[i] = buf.readVarInt();
+            }
+            long[] removed = new long[buf.readVarInt()];
+            for (int i = 0; i < removed.length; i++) {
+                removed[i] = buf.readLong();
+            }
+            return new S2CDeconstructionDeltaPacket(reset, added, states, removed);
+        }
+    );
+
+    /**
+     * Exact number of payload bytes {@link #STREAM_CODEC} writes for this packet.
+     */
+    public int encodedSize() {
+        int size = 1 + VarInt.getByteSize(added.length) + VarInt.getByteSize(removed.length) + removed.length * 8;
+        for (int state : addedStates) {
+            size += 8 + VarInt.getByteSize(state);
+        }
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return !reset && added.length == 0 && removed.length == 0;
+    }
+
+    @Override
+    public Type<? extends CustomPacketPayload> type() {
+        return TYPE;
+    }
+
+    public static void handle(S2CDeconstructionDeltaPacket packet, IPayloadContext context) {
+        context.enqueueWork(() -> {
+            net.minecraft.world.level.Level level = context.player().level();
+            GhostJobManager manager = GhostJobManager.get(level);
+
+            // 1. Drop everything on a full resync
+            if (packet.reset) {
+                for (long pos : manager.getDirectDeconstructJobs().keySet().toLongArray()) {
+                    manager.removeJob(BlockPos.of(pos));
+                }
+            }
+
+            // 2. Remove finished jobs
+            for (long pos : packet.removed) {
+                manager.removeJob(BlockPos.of(pos));
+            }
+
+            // 3. Add/Update jobs from packet
+            for (int i = 0; i < packet.added.length; i++) {
+                manager.registerDirectDeconstruct(BlockPos.of(packet.added[i]), Block.stateById(packet.addedStates[i]), level);
+            }
+        });
+    }
+}
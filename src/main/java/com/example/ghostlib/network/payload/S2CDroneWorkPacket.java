@@ -0,0 +1,104 @@
+package com.example.ghostlib.network.payload;
+
+import com.example.ghostlib.GhostLib;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.VarInt;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.phys.Vec3;
+import net.neoforged.neoforge.network.handling.IPayloadContext;
+
+/**
+ * A tick's worth of drone work near the receiving player. The client draws the beam and plays
+ * the sound itself, so one small packet replaces a particle packet per 0.2 blocks of beam.
+ *
+ * @param droneIds Entity id of the working drone, per event.
+ * @param targets  Packed position worked on, parallel to {@code droneIds}.
+ * @param kinds    {@link Kind} ordinal, parallel to {@code droneIds}.
+ */
+public record S2CDroneWorkPacket(int[] droneIds, long[] targets, byte[] kinds) implements CustomPacketPayload {
+    public static final Type<S2CDroneWorkPacket> TYPE = new Type<>(ResourceLocation.fromNamespaceAndPath(GhostLib.MODID, "drone_work"));
+
+    public enum Kind {
+        BUILD,
+        CLEAR
+    }
+
+    private static final Kind[] KINDS = Kind.values();
+
+    public static final StreamCodec<FriendlyByteBuf, S2CDroneWorkPacket> STREAM_CODEC = StreamCodec.ofMember(
+        (packet, buf) -> {
+            buf.writeVarInt(packet.droneIds.length);
+            for (int i = 0; i < packet.droneIds.length; i++) {
+                buf.writeVarInt(packet.droneIds[i]);
+                buf.writeLong(packet.targets[i]);
+                buf.writeByte(packet.kinds[i]);
+            }
+        },
+        buf -> {
+            int count = buf.readVarInt();
+            int[] droneIds = new int[count];
+            long[] targets = new long[count];
+            byte[] kinds = new byte[count];
+            for (int i = 0; i < count; i++) {
+                droneIds[i] = buf.readVarInt();
+                targets[i] = buf.readLong();
+                kinds[i] = buf.readByte();
+            }
+            return new S2CDroneWorkPacket(droneIds, targets, kinds);
+        }
+    );
+
+    /**
+     * Exact number of payload bytes {@link #STREAM_CODEC} writes for this packet.
+     */
+    public int encodedSize() {
+        int size = VarInt.getByteSize(droneIds.length);
+        for (int id : droneIds) {
+            size += VarInt.getByteSize(id) + 8 + 1;
+        }
+        return size;
+    }
+
+    @Override
+    public Type<? extends CustomPacketPayload> type() {
+        return TYPE;
+    }
+
+    public static void handle(S2CDroneWorkPacket packet, IPayloadContext context) {
+        context.enqueueWork(() -> {
+            Level level = context.player().level();
+            for (int i = 0; i < packet.droneIds.length; i++) {
+                Kind kind = KINDS[packet.kinds[i]];
+                Vec3 target = Vec3.atCenterOf(BlockPos.of(packet.targets[i]));
+
+                // 1. Beam, only if the drone is loaded on this client and beams are enabled
+                Entity drone = level.getEntity(packet.droneIds[i]);
+                if (drone != null && com.example.ghostlib.config.GhostLibConfig.RENDER_DRONE_BEAMS) {
+                    drawBeam(level, drone.position().add(0, 0.2, 0), target);
+                }
+
+                // 2. Placement sound
+                if (kind == Kind.BUILD) {
+                    Vec3 at = drone != null ? drone.position() : target;
+                    level.playLocalSound(at.x, at.y, at.z, com.example.ghostlib.registry.ModSounds.DRONE_WORK.get(),
+                            net.minecraft.sounds.SoundSource.NEUTRAL, 1.0f, 1.0f, false);
+                }
+            }
+        });
+    }
+
+    private static void drawBeam(Level level, Vec3 start, Vec3 end) {
+        Vec3 dir = end.subtract(start);
+        double dist = dir.length();
+        dir = dir.normalize();
+        for (double d = 0; d < dist; d += 0.2) {
+            Vec3 p = start.add(dir.scale(d));
+            level.addParticle(net.minecraft.core.particles.ParticleTypes.END_ROD, p.x, p.y, p.z, 0, 0, 0);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.ghostlib.network.payload;
+
+import com.example.ghostlib.GhostLib;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+import net.neoforged.neoforge.network.handling.IPayloadContext;
+
+/**
+ * Progress of the level's reconciler through a large edit.
+ *
+ * @param done  Positions reconciled so far.
+ * @param total Size of the backlog; equal to {@code done} once it is cleared.
+ */
+public record S2CReconcileProgressPacket(int done, int total) implements CustomPacketPayload {
+    public static final Type<S2CReconcileProgressPacket> TYPE = new Type<>(ResourceLocation.fromNamespaceAndPath(GhostLib.MODID, "reconcile_progress"));
+
+    public static final StreamCodec<FriendlyByteBuf, S2CReconcileProgressPacket> STREAM_CODEC = StreamCodec.ofMember(
+        (packet, buf) -> {
+            buf.writeVarInt(packet.done);
+            buf.writeVarInt(packet.total);
+        },
+        buf -> new S2CReconcileProgressPacket(buf.readVarInt(), buf.readVarInt())
+    );
+
+    @Override
+    public Type<? extends CustomPacketPayload> type() {
+        return TYPE;
+    }
+
+    public static void handle(S2CReconcileProgressPacket packet, IPayloadContext context) {
+        context.enqueueWork(() -> com.example.ghostlib.client.util.ClientReconcileProgress.update(packet.done, packet.total));
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.ghostlib.util;
+
+import net.minecraft.core.Direction;
+import net.minecraft.world.level.block.BambooStalkBlock;
+import net.minecraft.world.level.block.BannerBlock;
+import net.minecraft.world.level.block.BasePressurePlateBlock;
+import net.minecraft.world.level.block.BaseRailBlock;
+import net.minecraft.world.level.block.BaseTorchBlock;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.BushBlock;
+import net.minecraft.world.level.block.CactusBlock;
+import net.minecraft.world.level.block.CandleBlock;
+import net.minecraft.world.level.block.CarpetBlock;
+import net.minecraft.world.level.block.DiodeBlock;
+import net.minecraft.world.level.block.DoorBlock;
+import net.minecraft.world.level.block.FallingBlock;
+import net.minecraft.world.level.block.LadderBlock;
+import net.minecraft.world.level.block.RedStoneWireBlock;
+import net.minecraft.world.level.block.RedstoneWallTorchBlock;
+import net.minecraft.world.level.block.SnowLayerBlock;
+import net.minecraft.world.level.block.StandingSignBlock;
+import net.minecraft.world.level.block.SugarCaneBlock;
+import net.minecraft.world.level.block.TripWireHookBlock;
+import net.minecraft.world.level.block.WallBannerBlock;
+import net.minecraft.world.level.block.WallSignBlock;
+import net.minecraft.world.level.block.WallTorchBlock;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.block.state.properties.BlockStateProperties;
+
+/**
+ * Works out which neighbour a block needs in place before it can be built.
+ */
+public final class BuildSupport {
+    private BuildSupport() {}
+
+    /**
+     * @return The direction of the supporting neighbour, or null if the block stands on its own.
+     */
+    public static Direction supportDirection(BlockState state) {
+        Block block = state.getBlock();
+
+        // 1. Gravity: sand, gravel, concrete powder, anvils...
+        if (block instanceof FallingBlock) return Direction.DOWN;
+
+        // 2. Face-attached blocks (buttons, levers, grindstones)
+        if (state.hasProperty(BlockStateProperties.ATTACH_FACE) && state.hasProperty(BlockStateProperties.HORIZONTAL_FACING)) {
+            return switch (state.getValue(BlockStateProperties.ATTACH_FACE)) {
+                case FLOOR -> Direction.DOWN;
+                case CEILING -> Direction.UP;
+                case WALL -> state.getValue(BlockStateProperties.HORIZONTAL_FACING).getOpposite();
+            };
+        }
+
+        // 3. Wall-mounted blocks face away from the block they hang on
+        if (block instanceof WallTorchBlock || block instanceof RedstoneWallTorchBlock || block instanceof LadderBlock || block instanceof WallSignBlock
+                || block instanceof WallBannerBlock || block instanceof TripWireHookBlock) {
+            return state.getValue(BlockStateProperties.HORIZONTAL_FACING).getOpposite();
+        }
+
+        // 4. Hanging blocks (lanterns, propagules)
+        if (state.hasProperty(BlockStateProperties.HANGING) && state.getValue(BlockStateProperties.HANGING)) {
+            return Direction.UP;
+        }
+
+        // 5. Blocks that pop off without the block below. Slabs, stairs, fences, panes and the
+        //    like stand on their own and stay free to build in any order.
+        if (block instanceof BaseTorchBlock || block instanceof CarpetBlock || block instanceof BaseRailBlock
+                || block instanceof DoorBlock || block instanceof BushBlock || block instanceof BasePressurePlateBlock
+                || block instanceof StandingSignBlock || block instanceof BannerBlock || block instanceof DiodeBlock
+                || block instanceof RedStoneWireBlock || block instanceof SnowLayerBlock || block instanceof CandleBlock
+                || block instanceof CactusBlock || block instanceof SugarCaneBlock || block instanceof BambooStalkBlock) {
+            return Direction.DOWN;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,216 @@
+package com.example.ghostlib.util;
+
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.minecraft.core.HolderLookup;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.NbtUtils;
+import net.minecraft.nbt.Tag;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.Items;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+
+/**
+ * Cold tier of the job store: the queues of unloaded chunks, paged out as packed arrays.
+ *
+ * Chunks are grouped by region (32x32 chunks) so whole areas can be counted or planned for
+ * without loading anything. A chunk moves in one piece: {@link GhostJobManager#unloadChunk}
+ * packs its column into a {@link ColdChunk}, and {@link GhostJobManager#loadChunk} copies it
+ * back into the hot maps.
+ */
+public class ColdJobStore {
+    private final Long2ObjectOpenHashMap<Long2ObjectOpenHashMap<ColdChunk>> regions = new Long2ObjectOpenHashMap<>();
+    private int jobCount;
+
+    /**
+     * Immutable snapshot of one chunk's queues. States are {@link Block#getId} ids, parallel to their positions.
+     */
+    public record ColdChunk(long[] construction, int[] constructionStates,
+                            long[] removals,
+                            long[] deconstruct, int[] deconstructStates,
+                            long[] hibernating, int[] hibernatingStates,
+                            long[] finalPositions, int[] finalStates) {
+        public int jobCount() {
+            return construction.length + removals.length + deconstruct.length + hibernating.length;
+        }
+    }
+
+    /**
+     * Collects one chunk's jobs while it is being paged out.
+     */
+    public static final class Builder {
+        private final LongArrayList construction = new LongArrayList();
+        private final IntArrayList constructionStates = new IntArrayList();
+        private final LongArrayList removals = new LongArrayList();
+        private final LongArrayList deconstruct = new LongArrayList();
+        private final IntArrayList deconstructStates = new IntArrayList();
+        private final LongArrayList hibernating = new LongArrayList();
+        private final IntArrayList hibernatingStates = new IntArrayList();
+        private final LongArrayList finalPositions = new LongArrayList();
+        private final IntArrayList finalStates = new IntArrayList();
+
+        public void construction(long packed, int stateId) { construction.add(packed); constructionStates.add(stateId); }
+        public void removal(long packed) { removals.add(packed); }
+        public void deconstruct(long packed, int stateId) { deconstruct.add(packed); deconstructStates.add(stateId); }
+        public void hibernating(long packed, int stateId) { hibernating.add(packed); hibernatingStates.add(stateId); }
+        public void finalState(long packed, int stateId) { finalPositions.add(packed); finalStates.add(stateId); }
+
+        public boolean isEmpty() {
+            return construction.isEmpty() && removals.isEmpty() && deconstruct.isEmpty() && hibernating.isEmpty();
+        }
+
+        public ColdChunk build() {
+            return new ColdChunk(construction.toLongArray(), constructionStates.toIntArray(),
+                    removals.toLongArray(),
+                    deconstruct.toLongArray(), deconstructStates.toIntArray(),
+                    hibernating.toLongArray(), hibernatingStates.toIntArray(),
+                    finalPositions.toLongArray(), finalStates.toIntArray());
+        }
+    }
+
+    private static long regionKey(long chunkKey) {
+        return ChunkPos.asLong(ChunkPos.getX(chunkKey) >> 5, ChunkPos.getZ(chunkKey) >> 5);
+    }
+
+    public void put(long chunkKey, ColdChunk chunk) {
+        ColdChunk previous = regions.computeIfAbsent(regionKey(chunkKey), k -> new Long2ObjectOpenHashMap<>()).put(chunkKey, chunk);
+        if (previous != null) jobCount -= previous.jobCount();
+        jobCount += chunk.jobCount();
+    }
+
+    /**
+     * Removes and returns the chunk's snapshot, or null if it has none.
+     */
+    public ColdChunk take(long chunkKey) {
+        long regionKey = regionKey(chunkKey);
+        Long2ObjectOpenHashMap<ColdChunk> region = regions.get(regionKey);
+        if (region == null) return null;
+        ColdChunk chunk = region.remove(chunkKey);
+        if (chunk == null) return null;
+        if (region.isEmpty()) regions.remove(regionKey);
+        jobCount -= chunk.jobCount();
+        return chunk;
+    }
+
+    public boolean contains(long chunkKey) {
+        Long2ObjectOpenHashMap<ColdChunk> region = regions.get(regionKey(chunkKey));
+        return region != null && region.containsKey(chunkKey);
+    }
+
+    public int jobCount() {
+        return jobCount;
+    }
+
+    public int jobCountInRegion(int regionX, int regionZ) {
+        Long2ObjectOpenHashMap<ColdChunk> region = regions.get(ChunkPos.asLong(regionX, regionZ));
+        if (region == null) return 0;
+        int count = 0;
+        for (ColdChunk chunk : region.values()) count += chunk.jobCount();
+        return count;
+    }
+
+    public LongArrayList chunkKeys() {
+        LongArrayList keys = new LongArrayList();
+        for (Long2ObjectOpenHashMap<ColdChunk> region : regions.values()) keys.addAll(region.keySet());
+        return keys;
+    }
+
+    /**
+     * Items still needed by construction (including hibernating) jobs in unloaded chunks, so
+     * materials can be staged before anyone goes there.
+     */
+    public Object2IntOpenHashMap<Item> materialDemand() {
+        Int2IntOpenHashMap perState = new Int2IntOpenHashMap();
+        for (Long2ObjectOpenHashMap<ColdChunk> region : regions.values()) {
+            for (ColdChunk chunk : region.values()) {
+                for (int state : chunk.constructionStates) perState.addTo(state, 1);
+                for (int state : chunk.hibernatingStates) perState.addTo(state, 1);
+            }
+        }
+        Object2IntOpenHashMap<Item> items = new Object2IntOpenHashMap<>();
+        for (Int2IntMap.Entry entry : perState.int2IntEntrySet()) {
+            Item item = Block.stateById(entry.getIntKey()).getBlock().asItem();
+            if (item != Items.AIR) items.addTo(item, entry.getIntValue());
+        }
+        return items;
+    }
+
+    /**
+     * Writes every cold chunk. State ids aren't stable across sessions, so each chunk carries a
+     * small palette of the states it references.
+     */
+    public ListTag save() {
+        ListTag list = new ListTag();
+        for (Long2ObjectOpenHashMap<ColdChunk> region : regions.values()) {
+            for (Long2ObjectMap.Entry<ColdChunk> entry : region.long2ObjectEntrySet()) {
+                ColdChunk chunk = entry.getValue();
+                Int2IntOpenHashMap palette = new Int2IntOpenHashMap();
+                ListTag paletteTag = new ListTag();
+                CompoundTag chunkTag = new CompoundTag();
+                chunkTag.putLong("chunk", entry.getLongKey());
+                chunkTag.putLongArray("construction", chunk.construction);
+                chunkTag.putIntArray("construction_states", toPalette(chunk.constructionStates, palette, paletteTag));
+                chunkTag.putLongArray("removals", chunk.removals);
+                chunkTag.putLongArray("deconstruct", chunk.deconstruct);
+                chunkTag.putIntArray("deconstruct_states", toPalette(chunk.deconstructStates, palette, paletteTag));
+                chunkTag.putLongArray("hibernating", chunk.hibernating);
+                chunkTag.putIntArray("hibernating_states", toPalette(chunk.hibernatingStates, palette, paletteTag));
+                chunkTag.putLongArray("final_positions", chunk.finalPositions);
+                chunkTag.putIntArray("final_states", toPalette(chunk.finalStates, palette, paletteTag));
+                chunkTag.put("palette", paletteTag);
+                list.add(chunkTag);
+            }
+        }
+        return list;
+    }
+
+    private static int[] toPalette(int[] stateIds, Int2IntOpenHashMap palette, ListTag paletteTag) {
+        int[] local = new int[stateIds.length];
+        for (int i = 0; i < stateIds.length; i++) {
+            int stateId = stateIds[i];
+            int index = palette.getOrDefault(stateId, -1);
+            if (index == -1) {
+                index = paletteTag.size();
+                palette.put(stateId, index);
+                paletteTag.add(NbtUtils.writeBlockState(Block.stateById(stateId)));
+            }
+            local[i] = index;
+        }
+        return local;
+    }
+
+    public void load(ListTag list, HolderLookup.Provider registries) {
+        var blocks = registries.lookupOrThrow(net.minecraft.core.registries.Registries.BLOCK);
+        for (int i = 0; i < list.size(); i++) {
+            CompoundTag chunkTag = list.getCompound(i);
+            ListTag paletteTag = chunkTag.getList("palette", Tag.TAG_COMPOUND);
+            int[] palette = new int[paletteTag.size()];
+            for (int p = 0; p < palette.length; p++) {
+                BlockState state = NbtUtils.readBlockState(blocks, paletteTag.getCompound(p));
+                palette[p] = Block.getId(state);
+            }
+            put(chunkTag.getLong("chunk"), new ColdChunk(
+                    chunkTag.getLongArray("construction"), fromPalette(chunkTag.getIntArray("construction_states"), palette),
+                    chunkTag.getLongArray("removals"),
+                    chunkTag.getLongArray("deconstruct"), fromPalette(chunkTag.getIntArray("deconstruct_states"), palette),
+                    chunkTag.getLongArray("hibernating"), fromPalette(chunkTag.getIntArray("hibernating_states"), palette),
+                    chunkTag.getLongArray("final_positions"), fromPalette(chunkTag.getIntArray("final_states"), palette)));
+        }
+    }
+
+    private static int[] fromPalette(int[] local, int[] palette) {
+        int[] stateIds = new int[local.length];
+        for (int i = 0; i < local.length; i++) {
+            stateIds[i] = palette[local[i]];
+        }
+        return stateIds;
+    }
+}
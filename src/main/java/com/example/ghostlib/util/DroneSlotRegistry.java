@@ -0,0 +1,85 @@
+package com.example.ghostlib.util;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps claimer UUIDs (drones, ports, players) to dense int slots so job assignments
+ * can be stored as primitives instead of one UUID reference per position.
+ *
+ * Lookups of known claimers never lock; only the first sighting of a UUID and retiring one do.
+ * A slot is an index into the claimer table plus the generation of that entry. Retired indices
+ * are reused with the next generation, so a claim word left behind by a retired claimer never
+ * matches the slot its successor gets.
+ */
+public class DroneSlotRegistry {
+    public static final int NONE = -1;
+
+    private static final int INDEX_BITS = 16;
+    private static final int INDEX_MASK = (1 << INDEX_BITS) - 1;
+    /** Keeps slot + 1 within a positive int. */
+    private static final int GENERATIONS = (1 << (31 - INDEX_BITS)) - 1;
+
+    private final Map<UUID, Integer> slots = new ConcurrentHashMap<>();
+    /** Guarded by {@code this}. */
+    private final List<UUID> ids = new ArrayList<>();
+    private final IntArrayList generations = new IntArrayList();
+    private final IntArrayList free = new IntArrayList();
+
+    public int slotOf(UUID id) {
+        Integer slot = slots.get(id);
+        if (slot != null) return slot;
+        return slots.computeIfAbsent(id, this::allocate);
+    }
+
+    private synchronized int allocate(UUID id) {
+        int index;
+        if (!free.isEmpty()) {
+            index = free.popInt();
+            ids.set(index, id);
+        } else {
+            index = ids.size();
+            if (index > INDEX_MASK) throw new IllegalStateException("More than " + (INDEX_MASK + 1) + " live job claimers");
+            ids.add(id);
+            generations.add(0);
+        }
+        return (generations.getInt(index) << INDEX_BITS) | index;
+    }
+
+    /**
+     * Frees the claimer's slot for reuse, once it is gone for good (not just unloaded).
+     * Claims it still holds are no longer attributed to anyone.
+     */
+    public void retire(UUID id) {
+        Integer slot = slots.remove(id);
+        if (slot == null) return;
+        synchronized (this) {
+            int index = slot & INDEX_MASK;
+            ids.set(index, null);
+            generations.set(index, (generations.getInt(index) + 1) % GENERATIONS);
+            free.push(index);
+        }
+    }
+
+    /**
+     * Looks up an existing slot without allocating a new one.
+     */
+    public int peekSlot(UUID id) {
+        return slots.getOrDefault(id, NONE);
+    }
+
+    /**
+     * @return The claimer, or null if the slot was never handed out or has been retired since.
+     */
+    public synchronized UUID idOf(int slot) {
+        if (slot < 0) return null;
+        int index = slot & INDEX_MASK;
+        if (index >= ids.size() || generations.getInt(index) != slot >>> INDEX_BITS) return null;
+        return ids.get(index);
+    }
+}
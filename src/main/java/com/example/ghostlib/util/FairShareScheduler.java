@@ -0,0 +1,292 @@
+package com.example.ghostlib.util;
+
+import com.example.ghostlib.history.WorldHistoryManager;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+/**
+ * Start-time fair queueing of jobs across the players that requested them.
+ *
+ * Every job is tagged with the {@link WorldHistoryManager.HistoryAction} that created it. Each owner
+ * carries a virtual finish time that advances by one per job handed out, and the scheduler prefers the
+ * candidate whose owner is furthest behind. A huge paste therefore only gets its fair share of drones
+ * while someone else has work queued, and all of them once it is alone. Priority classes are strict:
+ * a {@link WorldHistoryManager.Priority#REPAIR} job always beats a new build in the same window.
+ *
+ * Untagged jobs (legacy saves, API callers) share a single anonymous owner.
+ *
+ * Per-owner and per-class counts are kept up to date as actions come and go, so the checks made on
+ * every job request never walk the live actions.
+ */
+public class FairShareScheduler {
+    /** Owner of untagged jobs. */
+    private static final UUID WORLD = new UUID(0L, 0L);
+    private static final int LATENCY_SAMPLES = 256;
+
+    private final Long2IntOpenHashMap jobActions = new Long2IntOpenHashMap();
+    private final Int2ObjectOpenHashMap<ActionTag> actions = new Int2ObjectOpenHashMap<>();
+    private final Map<UUID, Double> virtualFinish = new HashMap<>();
+    private final Map<UUID, OwnerStats> stats = new HashMap<>();
+    /** Live actions per owner; an owner is only present while it has one. */
+    private final Object2IntOpenHashMap<UUID> ownerActions = new Object2IntOpenHashMap<>();
+    /** Outstanding jobs per owner. */
+    private final Object2IntOpenHashMap<UUID> ownerJobs = new Object2IntOpenHashMap<>();
+    /** Live actions per priority class, and how many classes have any. */
+    private final int[] priorityActions = new int[WorldHistoryManager.Priority.values().length];
+    private int activePriorities;
+    private double virtualClock;
+
+    private static final class ActionTag {
+        final int id;
+        final UUID owner;
+        WorldHistoryManager.Priority priority;
+        long submittedTick;
+        int outstanding;
+
+        ActionTag(int id, UUID owner, WorldHistoryManager.Priority priority, long submittedTick) {
+            this.id = id;
+            this.owner = owner;
+            this.priority = priority;
+            this.submittedTick = submittedTick;
+        }
+    }
+
+    /**
+     * Completion latencies per owner, in ticks, measured from the moment the action was pushed.
+     */
+    public static final class OwnerStats {
+        private final long[] recent = new long[LATENCY_SAMPLES];
+        private int recentCount;
+        private int recentHead;
+        private long jobsCompleted;
+        private long latencySum;
+        private long latencyMax;
+        private long actionsCompleted;
+        private long lastActionLatency = -1;
+
+        void recordJob(long ticks) {
+            jobsCompleted++;
+            latencySum += ticks;
+            latencyMax = Math.max(latencyMax, ticks);
+            recent[recentHead] = ticks;
+            recentHead = (recentHead + 1) % LATENCY_SAMPLES;
+            if (recentCount < LATENCY_SAMPLES) recentCount++;
+        }
+
+        public long jobsCompleted() { return jobsCompleted; }
+        public long actionsCompleted() { return actionsCompleted; }
+        public long maxLatency() { return latencyMax; }
+        public long lastActionLatency() { return lastActionLatency; }
+
+        public double meanLatency() {
+            return jobsCompleted == 0 ? 0 : (double) latencySum / jobsCompleted;
+        }
+
+        /**
+         * Percentile over the most recent {@value #LATENCY_SAMPLES} completions.
+         */
+        public long recentPercentile(double p) {
+            if (recentCount == 0) return 0;
+            long[] sorted = Arrays.copyOf(recent, recentCount);
+            Arrays.sort(sorted);
+            return sorted[Math.min(recentCount - 1, (int) Math.ceil(p * recentCount) - 1)];
+        }
+    }
+
+    public FairShareScheduler() {
+        jobActions.defaultReturnValue(-1);
+    }
+
+    /**
+     * Starts tagging positions with the action that (re)defined their intended state. Follow with
+     * {@link #tag(int, long)} per position and {@link #endTag}.
+     *
+     * @return The action id to tag with.
+     */
+    public int beginTag(WorldHistoryManager.HistoryAction action, WorldHistoryManager.Priority priority, long gameTime) {
+        ActionTag tag = actions.get(action.id());
+        if (tag == null) {
+            tag = new ActionTag(action.id(), action.owner() == null ? WORLD : action.owner(), priority, gameTime);
+            addAction(tag);
+        } else if (tag.priority != priority) {
+            // Undo/redo re-tag an old action with a different class; it counts as a fresh submission.
+            // Its queued jobs keep their tag, so nothing has to be looked up per position.
+            countPriority(tag.priority, -1);
+            countPriority(priority, 1);
+            tag.priority = priority;
+            tag.submittedTick = gameTime;
+        }
+        return tag.id;
+    }
+
+    public void tag(int actionId, long packed) {
+        ActionTag tag = actions.get(actionId);
+        int previous = jobActions.put(packed, actionId);
+        if (previous == actionId) return;
+        if (previous != -1) release(previous, -1);
+        tag.outstanding++;
+        ownerJobs.addTo(tag.owner, 1);
+    }
+
+    public void endTag(int actionId) {
+        ActionTag tag = actions.get(actionId);
+        if (tag != null && tag.outstanding == 0) removeAction(tag);
+    }
+
+    private void addAction(ActionTag tag) {
+        actions.put(tag.id, tag);
+        ownerActions.addTo(tag.owner, 1);
+        countPriority(tag.priority, 1);
+    }
+
+    private void removeAction(ActionTag tag) {
+        actions.remove(tag.id);
+        if (ownerActions.addTo(tag.owner, -1) == 1) ownerActions.removeInt(tag.owner);
+        countPriority(tag.priority, -1);
+    }
+
+    private void countPriority(WorldHistoryManager.Priority priority, int delta) {
+        int before = priorityActions[priority.ordinal()];
+        priorityActions[priority.ordinal()] = before + delta;
+        if (before == 0) activePriorities++;
+        else if (before + delta == 0) activePriorities--;
+    }
+
+    /**
+     * Drops the tag of a job that went away.
+     *
+     * @param completedTick Game time the job was finished by a drone, or -1 if it was cancelled.
+     */
+    public void untag(long packed, long completedTick) {
+        int actionId = jobActions.remove(packed);
+        if (actionId == -1) return;
+        ActionTag tag = actions.get(actionId);
+        if (tag != null && completedTick >= 0) {
+            stats.computeIfAbsent(tag.owner, k -> new OwnerStats()).recordJob(completedTick - tag.submittedTick);
+        }
+        release(actionId, completedTick);
+    }
+
+    private void release(int actionId, long completedTick) {
+        ActionTag tag = actions.get(actionId);
+        if (tag == null) return;
+        if (ownerJobs.addTo(tag.owner, -1) == 1) ownerJobs.removeInt(tag.owner);
+        if (--tag.outstanding > 0) return;
+        removeAction(tag);
+        if (completedTick >= 0) {
+            OwnerStats ownerStats = stats.computeIfAbsent(tag.owner, k -> new OwnerStats());
+            ownerStats.actionsCompleted++;
+            ownerStats.lastActionLatency = completedTick - tag.submittedTick;
+        }
+        if (!ownerActions.containsKey(tag.owner)) virtualFinish.remove(tag.owner);
+    }
+
+    /**
+     * @return true if queued work spans several owners or priority classes, i.e. candidate order matters.
+     */
+    public boolean isContended() {
+        return ownerActions.size() > 1 || activePriorities > 1;
+    }
+
+    /**
+     * Lowest start tag any job can have right now. A candidate in the first priority class with this
+     * tag can't be beaten by a farther one.
+     */
+    public double virtualClock() {
+        return virtualClock;
+    }
+
+    /**
+     * Priority class of the job, lower runs first.
+     */
+    public int priorityRank(long packed) {
+        ActionTag tag = actions.get(jobActions.get(packed));
+        return tag == null ? WorldHistoryManager.Priority.BUILD.ordinal() : tag.priority.ordinal();
+    }
+
+    /**
+     * Virtual start time the job would get if it were handed out now.
+     */
+    public double startTag(long packed) {
+        return Math.max(virtualClock, virtualFinish.getOrDefault(ownerOf(packed), 0.0));
+    }
+
+    /**
+     * Charges the job's owner for one unit of drone work.
+     */
+    public void charge(long packed) {
+        UUID owner = ownerOf(packed);
+        double start = startTag(packed);
+        virtualFinish.put(owner, start + 1.0);
+        virtualClock = start;
+    }
+
+    private UUID ownerOf(long packed) {
+        ActionTag tag = actions.get(jobActions.get(packed));
+        return tag == null ? WORLD : tag.owner;
+    }
+
+    /**
+     * @param owner Player id, or null for untagged jobs.
+     */
+    public int queuedJobs(UUID owner) {
+        return ownerJobs.getInt(owner == null ? WORLD : owner);
+    }
+
+    public void forEachOwner(BiConsumer<UUID, OwnerStats> visitor) {
+        Map<UUID, OwnerStats> all = new HashMap<>(stats);
+        for (ActionTag tag : actions.values()) all.computeIfAbsent(tag.owner, k -> new OwnerStats());
+        all.forEach((owner, ownerStats) -> visitor.accept(owner.equals(WORLD) ? null : owner, ownerStats));
+    }
+
+    public void resetStats() {
+        stats.clear();
+    }
+
+    public ListTag save() {
+        Int2ObjectOpenHashMap<LongArrayList> positions = new Int2ObjectOpenHashMap<>();
+        for (var entry : jobActions.long2IntEntrySet()) {
+            positions.computeIfAbsent(entry.getIntValue(), k -> new LongArrayList()).add(entry.getLongKey());
+        }
+        ListTag list = new ListTag();
+        for (ActionTag tag : actions.values()) {
+            LongArrayList jobs = positions.get(tag.id);
+            if (jobs == null) continue;
+            CompoundTag actionTag = new CompoundTag();
+            actionTag.putInt("id", tag.id);
+            if (!tag.owner.equals(WORLD)) actionTag.putUUID("owner", tag.owner);
+            actionTag.putString("priority", tag.priority.name());
+            actionTag.putLong("submitted", tag.submittedTick);
+            actionTag.putLongArray("jobs", jobs.toLongArray());
+            list.add(actionTag);
+        }
+        return list;
+    }
+
+    public void load(ListTag list) {
+        for (int i = 0; i < list.size(); i++) {
+            CompoundTag actionTag = list.getCompound(i);
+            UUID owner = actionTag.hasUUID("owner") ? actionTag.getUUID("owner") : WORLD;
+            WorldHistoryManager.Priority priority = WorldHistoryManager.Priority.byName(actionTag.getString("priority"));
+            ActionTag tag = new ActionTag(actionTag.getInt("id"), owner, priority, actionTag.getLong("submitted"));
+            for (long packed : actionTag.getLongArray("jobs")) {
+                jobActions.put(packed, tag.id);
+                tag.outstanding++;
+            }
+            if (tag.outstanding > 0) {
+                addAction(tag);
+                ownerJobs.addTo(owner, tag.outstanding);
+            }
+        }
+    }
+}
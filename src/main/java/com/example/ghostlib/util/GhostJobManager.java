@@ -1,20 +1,45 @@
 package com.example.ghostlib.util;
 
 import com.example.ghostlib.block.entity.GhostBlockEntity;
+import com.example.ghostlib.network.SyncBandwidth;
+import com.example.ghostlib.network.payload.S2CDeconstructionDeltaPacket;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2IntMap;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import it.unimi.dsi.fastutil.longs.LongSets;
 import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
 import net.minecraft.core.SectionPos;
 import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.item.Item;
 import net.minecraft.world.item.ItemStack;
-import net.minecraft.world.entity.player.Player;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-
+import java.util.function.LongPredicate;
+
+/**
+ * Per-level job queues.
+ *
+ * Positions are stored as packed {@link BlockPos#asLong()} keys, block states as
+ * {@link Block#getId(BlockState)} palette ids and assignments as {@link DroneSlotRegistry} slots.
+ * The queues are owned by the level's thread; claims go through {@link JobClaims} and need no lock.
+ */
 public class GhostJobManager {
     private static final Map<Level, GhostJobManager> INSTANCES = new ConcurrentHashMap<>();
+    private static final int NO_STATE = -1;
 
     public enum JobType {
         CONSTRUCTION,
@@ -25,30 +50,88 @@ public class GhostJobManager {
     public record Job(BlockPos pos, JobType type, BlockState targetAfter, BlockState finalState) {
     }
 
-    private final Map<Long, Map<BlockPos, BlockState>> constructionJobs = new ConcurrentHashMap<>();
-    private final Map<Long, Set<BlockPos>> ghostRemovalJobs = new ConcurrentHashMap<>();
-    private final Map<Long, Map<BlockPos, BlockState>> directDeconstructJobs = new ConcurrentHashMap<>();
-    private final Map<Long, Map<BlockPos, BlockState>> hibernatingJobs = new ConcurrentHashMap<>();
-    private final Map<BlockPos, BlockState> jobFinalStates = new ConcurrentHashMap<>();
-    private final Map<BlockPos, UUID> assignedPositions = new ConcurrentHashMap<>();
-    private final Map<Long, Set<BlockPos>> assignedInChunk = new ConcurrentHashMap<>();
+    /**
+     * An item became available at {@code source}, either in a container or a player's inventory.
+     */
+    private record WakeSignal(Item item, BlockPos source, boolean fromPlayer) {
+    }
+
+    private final Long2IntOpenHashMap constructionJobs = newStateMap();
+    private final LongOpenHashSet ghostRemovalJobs = new LongOpenHashSet();
+    private final Long2IntOpenHashMap directDeconstructJobs = newStateMap();
+    private final Long2IntOpenHashMap hibernatingJobs = newStateMap();
+    /** Item -> hibernating positions waiting on it. */
+    private final Map<Item, LongOpenHashSet> demand = new HashMap<>();
+    private final Set<WakeSignal> pendingWakes = ConcurrentHashMap.newKeySet();
+    private final Long2IntOpenHashMap jobFinalStates = newStateMap();
+    private final JobClaims claims = new JobClaims();
+    private final DroneSlotRegistry droneSlots = new DroneSlotRegistry();
+    /** Claimer slot -> the drone to tell when a job it holds is pulled. */
+    private final Int2ObjectOpenHashMap<JobListener> listeners = new Int2ObjectOpenHashMap<>();
+
+    /** Section-keyed occupancy index over the searchable queues. */
+    private final JobSpatialIndex index = new JobSpatialIndex();
+    /** Hibernating jobs are never searched, this only lets chunk unloads find them without a full scan. */
+    private final JobSpatialIndex hibernatingIndex = new JobSpatialIndex();
+
+    /** Construction jobs held back until their support is built (job -> support). Not offered to drones. */
+    private final Long2LongOpenHashMap blockedBy = new Long2LongOpenHashMap();
+    private final Long2ObjectOpenHashMap<LongArrayList> dependents = new Long2ObjectOpenHashMap<>();
+    private final JobSpatialIndex blockedIndex = new JobSpatialIndex();
+    private static final int MAX_SUPPORT_CHAIN = 256;
+    public static final int SEARCH_RADIUS_SECTIONS = 8;
+    /** Nearest candidates per job type compared by the fair scheduler when several owners are queued. */
+    private static final int FAIR_WINDOW = 8;
+    /**
+     * Scratch for candidate searches, cleared per call (server thread only): positions already
+     * offered, and the caller's exclusions. The filters are built once so a search allocates nothing.
+     */
+    private final LongOpenHashSet candidateSeen = new LongOpenHashSet();
+    private LongSet candidateExclude = LongSets.EMPTY_SET;
+    private final LongPredicate unassigned = this::isUnassigned;
+    private final LongPredicate unassignedUnseen = p -> isUnassigned(p) && !candidateSeen.contains(p) && !candidateExclude.contains(p);
+
+    private final FairShareScheduler fairShare = new FairShareScheduler();
+    private final ColdJobStore coldStore = new ColdJobStore();
+    private final JobMetrics metrics = new JobMetrics(this);
+    private static final int CLUSTER_RADIUS_SQR = 24 * 24;
+    private int minSectionY = -4;
+    private int maxSectionY = 19;
+
+    /** Deconstruction overlay changes since the last flush, sent to clients once per tick. */
+    private final Long2IntOpenHashMap pendingDeconAdds = newStateMap();
+    private final LongOpenHashSet pendingDeconRemovals = new LongOpenHashSet();
+    private long pendingDeconChanges = 0;
+    /** Chunk columns where jobs became claimable since the last tick; sleeping drones near them are woken. */
+    private final LongOpenHashSet freshColumns = new LongOpenHashSet();
+    private boolean serverSide = false;
 
     private boolean dirty = false;
     private GhostJobSavedData savedData = null;
 
+    private static Long2IntOpenHashMap newStateMap() {
+        Long2IntOpenHashMap map = new Long2IntOpenHashMap();
+        map.defaultReturnValue(NO_STATE);
+        return map;
+    }
+
     public static GhostJobManager get(Level level) {
         return INSTANCES.computeIfAbsent(level, k -> {
             GhostJobManager manager = new GhostJobManager();
+            manager.minSectionY = level.getMinSection();
+            manager.maxSectionY = level.getMaxSection() - 1;
             if (!level.isClientSide() && level instanceof ServerLevel serverLevel) {
+                manager.serverSide = true;
                 manager.savedData = GhostJobSavedData.getOrCreate(serverLevel, manager);
+                manager.settleTiers(serverLevel);
+                manager.metrics.register(serverLevel.dimension().location().toString());
             }
             return manager;
         });
     }
 
     public void registerJob(BlockPos pos, GhostBlockEntity.GhostState state, BlockState target) {
-        long key = ChunkPos.asLong(pos);
-        pos = pos.immutable();
+        long packed = pos.asLong();
 
         // 1. Determine if we should clear the drone assignment
         boolean clearAssignment = (state == GhostBlockEntity.GhostState.UNASSIGNED
@@ -56,346 +139,854 @@ public class GhostJobManager {
                 || state == GhostBlockEntity.GhostState.MISSING_ITEMS);
 
         // 2. Always clean up existing job state maps first to prevent duplicates/stale data
-        removeFromAllMaps(pos, clearAssignment);
+        removeFromAllMaps(packed, clearAssignment);
 
         // 3. Register based on new state
         if (state == GhostBlockEntity.GhostState.TO_REMOVE || state == GhostBlockEntity.GhostState.REMOVING) {
-            ghostRemovalJobs.computeIfAbsent(key, k -> Collections.synchronizedSet(new LinkedHashSet<>())).add(pos);
+            ghostRemovalJobs.add(packed);
+            offer(JobType.GHOST_REMOVAL, packed);
             // Even if removing, keep construction intent if target is valid
             if (target != null && !target.isAir()) {
-                constructionJobs.computeIfAbsent(key, k -> new ConcurrentHashMap<>()).put(pos, target);
+                queueConstruction(packed, target);
             }
             dirty = true;
             markDataDirty();
         } else if (state == GhostBlockEntity.GhostState.MISSING_ITEMS) {
-            hibernatingJobs.computeIfAbsent(key, k -> new ConcurrentHashMap<>()).put(pos, target);
+            if (target != null) {
+                hibernatingJobs.put(packed, Block.getId(target));
+                hibernatingIndex.add(JobType.CONSTRUCTION, packed);
+                demand.computeIfAbsent(target.getBlock().asItem(), k -> new LongOpenHashSet()).add(packed);
+            }
             markDataDirty();
         } else {
             // All other building-related states (UNASSIGNED, ASSIGNED, FETCHING, INCOMING)
             if (target != null && !target.isAir()) {
-                constructionJobs.computeIfAbsent(key, k -> new ConcurrentHashMap<>()).put(pos, target);
+                queueConstruction(packed, target);
                 markDataDirty();
             }
         }
+        settleDependents(packed);
+    }
+
+    /**
+     * Queues a construction job, holding it back from drones while its supporting neighbour
+     * (the block below for gravity/non-full blocks, the wall for attachments) is still queued.
+     */
+    private void queueConstruction(long packed, BlockState target) {
+        constructionJobs.put(packed, Block.getId(target));
+        Direction dir = BuildSupport.supportDirection(target);
+        long support = dir == null ? 0 : BlockPos.offset(packed, dir);
+        if (dir != null && !claims.isClaimed(packed) && isPendingConstruction(support) && !dependsOn(support, packed)) {
+            block(packed, support);
+        } else {
+            offer(JobType.CONSTRUCTION, packed);
+        }
+
+        blockWaitingNeighbours(packed);
     }
 
-    private void removeFromAllMaps(BlockPos pos, boolean clearAssignment) {
-        long key = ChunkPos.asLong(pos);
-        if (constructionJobs.containsKey(key)) constructionJobs.get(key).remove(pos);
-        if (ghostRemovalJobs.containsKey(key)) ghostRemovalJobs.get(key).remove(pos);
-        if (directDeconstructJobs.containsKey(key)) directDeconstructJobs.get(key).remove(pos);
-        if (hibernatingJobs.containsKey(key)) hibernatingJobs.get(key).remove(pos);
-        
-        if (clearAssignment) {
-            assignedPositions.remove(pos);
-            Set<BlockPos> chunkAssignments = assignedInChunk.get(key);
-            if (chunkAssignments != null) {
-                chunkAssignments.remove(pos);
-                if (chunkAssignments.isEmpty()) assignedInChunk.remove(key);
+    /**
+     * Jobs queued earlier may turn out to rest on {@code packed}; park them behind it.
+     */
+    private void blockWaitingNeighbours(long packed) {
+        for (Direction side : Direction.values()) {
+            long neighbour = BlockPos.offset(packed, side);
+            int stateId = constructionJobs.get(neighbour);
+            if (stateId == NO_STATE || blockedBy.containsKey(neighbour) || claims.isClaimed(neighbour)) continue;
+            if (BuildSupport.supportDirection(Block.stateById(stateId)) == side.getOpposite() && !dependsOn(packed, neighbour)) {
+                index.remove(JobType.CONSTRUCTION, neighbour);
+                block(neighbour, packed);
             }
-            jobFinalStates.remove(pos);
         }
     }
 
+    private boolean isPendingConstruction(long packed) {
+        return constructionJobs.containsKey(packed) || hibernatingJobs.containsKey(packed);
+    }
+
+    /**
+     * Whether {@code from} already waits (directly or transitively) on {@code target}, which
+     * would make blocking {@code target} on {@code from} a cycle.
+     */
+    private boolean dependsOn(long from, long target) {
+        long current = from;
+        for (int depth = 0; depth < MAX_SUPPORT_CHAIN; depth++) {
+            if (current == target) return true;
+            if (!blockedBy.containsKey(current)) return false;
+            current = blockedBy.get(current);
+        }
+        // Absurdly long chain; offer the job rather than risk starving it
+        return true;
+    }
+
+    private void block(long packed, long support) {
+        blockedBy.put(packed, support);
+        dependents.computeIfAbsent(support, k -> new LongArrayList()).add(packed);
+        blockedIndex.add(JobType.CONSTRUCTION, packed);
+    }
+
+    private void unblock(long packed) {
+        if (!blockedBy.containsKey(packed)) return;
+        long support = blockedBy.remove(packed);
+        LongArrayList waiting = dependents.get(support);
+        if (waiting != null) {
+            waiting.rem(packed);
+            if (waiting.isEmpty()) dependents.remove(support);
+        }
+        blockedIndex.remove(JobType.CONSTRUCTION, packed);
+    }
+
+    /**
+     * Releases the jobs waiting on {@code support} once it no longer has construction queued.
+     */
+    private void settleDependents(long support) {
+        if (isPendingConstruction(support)) return;
+        LongArrayList waiting = dependents.remove(support);
+        if (waiting == null) return;
+        for (int i = 0; i < waiting.size(); i++) {
+            long packed = waiting.getLong(i);
+            blockedBy.remove(packed);
+            blockedIndex.remove(JobType.CONSTRUCTION, packed);
+            if (constructionJobs.containsKey(packed)) offer(JobType.CONSTRUCTION, packed);
+        }
+    }
+
+    /**
+     * Makes a job visible to drones. Unclaimed ones also wake sleeping drones nearby; state
+     * changes of a claimed job re-index it too, but there is nothing new to offer.
+     */
+    private void offer(JobType type, long packed) {
+        index.add(type, packed);
+        if (serverSide && !claims.isClaimed(packed)) freshColumns.add(columnOf(packed));
+    }
+
+    private void removeFromAllMaps(long packed, boolean clearAssignment) {
+        constructionJobs.remove(packed);
+        unblock(packed);
+        ghostRemovalJobs.remove(packed);
+        if (directDeconstructJobs.remove(packed) != NO_STATE) recordDeconRemoval(packed);
+        removeHibernating(packed);
+        for (JobType type : JobType.values()) index.remove(type, packed);
+
+        if (clearAssignment) {
+            signal(packed, Invalidation.REMOVED);
+            claims.clear(packed);
+            jobFinalStates.remove(packed);
+        }
+    }
+
+    private void removeHibernating(long packed) {
+        int stateId = hibernatingJobs.remove(packed);
+        if (stateId == NO_STATE) return;
+        hibernatingIndex.remove(JobType.CONSTRUCTION, packed);
+        Item item = Block.stateById(stateId).getBlock().asItem();
+        LongOpenHashSet waiting = demand.get(item);
+        if (waiting != null && waiting.remove(packed) && waiting.isEmpty()) demand.remove(item);
+    }
+
     public void registerDirectDeconstruct(BlockPos pos, BlockState targetAfter, Level level) {
         registerDirectDeconstruct(pos, targetAfter, null, level);
     }
 
     public void registerDirectDeconstruct(BlockPos pos, BlockState targetAfter, BlockState finalState, Level level) {
-        long key = ChunkPos.asLong(pos);
-        pos = pos.immutable();
-        removeFromAllMaps(pos, true);
-        directDeconstructJobs.computeIfAbsent(key, k -> new ConcurrentHashMap<>()).put(pos, targetAfter);
-        if (finalState != null) jobFinalStates.put(pos, finalState);
+        long packed = pos.asLong();
+        removeFromAllMaps(packed, true);
+        directDeconstructJobs.put(packed, Block.getId(targetAfter));
+        offer(JobType.DIRECT_DECONSTRUCT, packed);
+        if (finalState != null) jobFinalStates.put(packed, Block.getId(finalState));
+        recordDeconAdd(packed, Block.getId(targetAfter));
+        settleDependents(packed);
         dirty = true;
         markDataDirty();
-        syncToClients(level);
     }
 
     public void removeJob(BlockPos pos) {
-        removeFromAllMaps(pos, true);
+        removeFromAllMaps(pos.asLong(), true);
+        settleDependents(pos.asLong());
+        fairShare.untag(pos.asLong(), -1);
         markDataDirty();
         // Fallback sync if we have a level reference, but typically removeJob is called within a context that syncs
     }
 
     public void completeJob(BlockPos pos, Level level) {
-        removeFromAllMaps(pos, true);
+        long packed = pos.asLong();
+        // A cleared obstruction still has its construction step ahead, which belongs to the same action
+        boolean chained = jobFinalStates.containsKey(packed);
+        removeFromAllMaps(packed, true);
+        settleDependents(packed);
+        if (!chained && level != null) fairShare.untag(packed, level.getGameTime());
+        metrics.recordCompleted();
+        markDataDirty();
+    }
+
+    /**
+     * Starts attributing jobs to {@code action} for fair scheduling and latency stats. Called by
+     * {@link com.example.ghostlib.history.WorldHistoryManager} whenever an action changes intent,
+     * followed by {@link #intentChanged} for every position in the same pass over the action, and
+     * {@link #endIntentChange}.
+     *
+     * @return Handle for the other two calls.
+     */
+    public int beginIntentChange(com.example.ghostlib.history.WorldHistoryManager.HistoryAction action,
+                                 com.example.ghostlib.history.WorldHistoryManager.Priority priority, long gameTime) {
+        return fairShare.beginTag(action, priority, gameTime);
+    }
+
+    /**
+     * Tags the job at {@code packed} with the action and tells the drone holding its claim that
+     * the ledger's intent there changed.
+     */
+    public void intentChanged(int actionId, long packed) {
+        fairShare.tag(actionId, packed);
+        signal(packed, Invalidation.INTENT_CHANGED);
+    }
+
+    public void endIntentChange(int actionId) {
+        fairShare.endTag(actionId);
         markDataDirty();
-        syncToClients(level);
+    }
+
+    public FairShareScheduler getFairShare() {
+        return fairShare;
+    }
+
+    /**
+     * Inventory-change hook for containers and players. Only queues a wake-up when some
+     * hibernating job is actually waiting on the item, so idle hibernation costs nothing.
+     */
+    public static void notifyItemAvailable(Level level, BlockPos source, ItemStack stack, boolean fromPlayer) {
+        if (level == null || level.isClientSide || stack.isEmpty()) return;
+        GhostJobManager manager = INSTANCES.get(level);
+        if (manager == null || !manager.demand.containsKey(stack.getItem())) return;
+        manager.pendingWakes.add(new WakeSignal(stack.getItem(), source.immutable(), fromPlayer));
     }
 
     public void tick(Level level) {
-        if (level.isClientSide || level.getGameTime() % 20 != 0) return; // Every 1 second
-        
-        for (Map<BlockPos, BlockState> chunkMap : hibernatingJobs.values()) {
-            for (BlockPos pos : new ArrayList<>(chunkMap.keySet())) {
-                BlockState target = chunkMap.get(pos);
-                if (target == null) continue;
-
-                ItemStack required = new ItemStack(target.getBlock().asItem());
-                if (isItemAvailableInNetwork(level, pos, required)) {
-                    // Item found! Transition to UNASSIGNED to wake up the job.
-                    if (level.getBlockEntity(pos) instanceof GhostBlockEntity gbe) {
-                        // This will trigger a registerJob call which moves it back to constructionJobs
-                        gbe.setState(GhostBlockEntity.GhostState.UNASSIGNED);
-                        com.example.ghostlib.util.GhostLogger.log("JOB", "Waking up halted ghost at " + pos + " - Items now available.");
-                    } else {
-                        removeFromAllMaps(pos, true);
-                    }
+        if (level.isClientSide) return;
+        metrics.tick();
+        if (level instanceof ServerLevel serverLevel) flushDeconstructionDeltas(serverLevel);
+        if (!freshColumns.isEmpty()) {
+            com.example.ghostlib.logic.DroneSleep.get(level).wakeNear(freshColumns);
+            freshColumns.clear();
+        }
+        int sweepInterval = Math.max(1, com.example.ghostlib.config.GhostLibConfig.HIBERNATION_SWEEP_INTERVAL);
+        if (!demand.isEmpty() && level.getGameTime() % sweepInterval == 0) sweepForDemand(level);
+        if (pendingWakes.isEmpty()) return;
+
+        Iterator<WakeSignal> it = pendingWakes.iterator();
+        while (it.hasNext()) {
+            WakeSignal signal = it.next();
+            it.remove();
+            LongOpenHashSet waiting = demand.get(signal.item());
+            if (waiting == null) continue;
+
+            // Waking a job re-registers it, so iterate over a snapshot of the keys
+            for (long packed : waiting.toLongArray()) {
+                BlockPos pos = BlockPos.of(packed);
+                if (!isInReach(level, pos, signal)) continue;
+                // Item found! Transition to UNASSIGNED to wake up the job.
+                if (level.getBlockEntity(pos) instanceof GhostBlockEntity gbe) {
+                    // This will trigger a registerJob call which moves it back to constructionJobs
+                    gbe.setState(GhostBlockEntity.GhostState.UNASSIGNED);
+                    com.example.ghostlib.util.GhostLogger.log("JOB", "Waking up halted ghost at " + pos + " - Items now available.");
+                } else {
+                    removeFromAllMaps(packed, true);
                 }
             }
         }
     }
 
-    private boolean isItemAvailableInNetwork(Level level, BlockPos pos, ItemStack required) {
-        // 1. Check nearby players
-        for (Player player : level.players()) {
-            if (player.blockPosition().distSqr(pos) < 4096) { // 64 block range
-                for (int i = 0; i < player.getInventory().getContainerSize(); i++) {
-                    if (player.getInventory().getItem(i).is(required.getItem())) return true;
+    /**
+     * Fallback for items that arrive without a signal: hoppers and pipes into other network
+     * members, crafting, commands, creative. Looks through every network and player once for the
+     * items hibernating jobs wait on, and queues one wake signal per item and source.
+     */
+    private void sweepForDemand(Level level) {
+        // 1. Players
+        for (net.minecraft.world.entity.player.Player player : level.players()) {
+            net.minecraft.world.entity.player.Inventory inventory = player.getInventory();
+            for (int i = 0; i < inventory.getContainerSize(); i++) {
+                ItemStack stack = inventory.getItem(i);
+                if (!stack.isEmpty() && demand.containsKey(stack.getItem())) {
+                    pendingWakes.add(new WakeSignal(stack.getItem(), player.blockPosition(), true));
                 }
             }
         }
-        
-        // 2. Check Logistics Network
+
+        // 2. Network members, each item reported once per network
         LogisticsNetworkManager networkManager = LogisticsNetworkManager.get(level);
-        if (networkManager != null) {
-            Integer networkId = networkManager.getNetworkId(pos);
-            if (networkId == null) {
-                // Try searching for any network in range
-                for (int dx = -16; dx <= 16; dx += 8) {
-                    for (int dy = -8; dy <= 8; dy += 4) {
-                        for (int dz = -16; dz <= 16; dz += 8) {
-                            Integer nearbyId = networkManager.getNetworkId(pos.offset(dx, dy, dz));
-                            if (nearbyId != null) {
-                                networkId = nearbyId;
-                                break;
-                            }
-                        }
-                        if (networkId != null) break;
-                    }
-                    if (networkId != null) break;
+        if (networkManager == null) return;
+        Set<Item> found = new HashSet<>();
+        for (int networkId : networkManager.getNetworkIds()) {
+            found.clear();
+            for (BlockPos memberPos : networkManager.getNetworkMembers(networkId)) {
+                if (!level.isLoaded(memberPos)) continue;
+                net.neoforged.neoforge.items.IItemHandler handler = level.getCapability(
+                        net.neoforged.neoforge.capabilities.Capabilities.ItemHandler.BLOCK, memberPos, null);
+                if (handler == null) continue;
+                for (int i = 0; i < handler.getSlots(); i++) {
+                    Item item = handler.getStackInSlot(i).getItem();
+                    if (demand.containsKey(item) && found.add(item)) pendingWakes.add(new WakeSignal(item, memberPos, false));
                 }
             }
+        }
+    }
 
-            if (networkId != null) {
-                Set<BlockPos> members = networkManager.getNetworkMembers(networkId);
-                for (BlockPos memberPos : members) {
-                    if (level.isLoaded(memberPos)) {
-                        net.neoforged.neoforge.items.IItemHandler handler = level.getCapability(
-                            net.neoforged.neoforge.capabilities.Capabilities.ItemHandler.BLOCK, 
-                            memberPos, 
-                            null
-                        );
-                        if (handler != null) {
-                            for (int i = 0; i < handler.getSlots(); i++) {
-                                if (handler.getStackInSlot(i).is(required.getItem())) return true;
-                            }
-                        }
-                    }
+    /**
+     * Whether a drone working on {@code pos} could use items from the signal's source.
+     */
+    private boolean isInReach(Level level, BlockPos pos, WakeSignal signal) {
+        // 1. Players supply anything within 64 blocks
+        if (signal.fromPlayer()) return signal.source().distSqr(pos) < 4096;
+
+        // 2. Containers supply their own logistics network
+        LogisticsNetworkManager networkManager = LogisticsNetworkManager.get(level);
+        if (networkManager != null) {
+            Integer sourceNetwork = networkManager.getNetworkId(signal.source());
+            if (sourceNetwork != null && sourceNetwork.equals(findNetworkId(networkManager, pos))) return true;
+        }
+
+        // 3. Or anything close enough to be found without a network
+        return signal.source().distSqr(pos) < 1024;
+    }
+
+    private Integer findNetworkId(LogisticsNetworkManager networkManager, BlockPos pos) {
+        Integer networkId = networkManager.getNetworkId(pos);
+        if (networkId != null) return networkId;
+        // Try searching for any network in range
+        for (int dx = -16; dx <= 16; dx += 8) {
+            for (int dy = -8; dy <= 8; dy += 4) {
+                for (int dz = -16; dz <= 16; dz += 8) {
+                    Integer nearbyId = networkManager.getNetworkId(pos.offset(dx, dy, dz));
+                    if (nearbyId != null) return nearbyId;
                 }
             }
         }
-        
-        return false; 
+        return null;
     }
 
     public boolean isDeconstructAt(BlockPos pos) {
-        long key = ChunkPos.asLong(pos);
-        return directDeconstructJobs.containsKey(key) && directDeconstructJobs.get(key).containsKey(pos);
+        return directDeconstructJobs.containsKey(pos.asLong());
     }
 
     public BlockState getTargetAfterDeconstruct(BlockPos pos) {
-        long key = ChunkPos.asLong(pos);
-        return directDeconstructJobs.containsKey(key) ? directDeconstructJobs.get(key).get(pos) : null;
+        return stateOrNull(directDeconstructJobs.get(pos.asLong()));
     }
 
     public void restoreAssignment(BlockPos pos, UUID droneId) {
-        assignedPositions.put(pos, droneId);
-        assignedInChunk.computeIfAbsent(ChunkPos.asLong(pos), k -> ConcurrentHashMap.newKeySet()).add(pos);
-    }
-
-    public Map<BlockPos, BlockState> getConstructionJobs() {
-        Map<BlockPos, BlockState> all = new HashMap<>();
-        constructionJobs.values().forEach(all::putAll);
-        return all;
+        claims.restore(pos.asLong(), droneSlots.slotOf(droneId));
     }
 
-    public Map<Long, Map<BlockPos, BlockState>> getConstructionJobsMap() {
+    /** Packed position to target state id. */
+    public Long2IntMap getConstructionJobs() {
         return constructionJobs;
     }
 
-    public Map<Long, Set<BlockPos>> getGhostRemovalJobsMap() {
+    public LongSet getGhostRemovalJobs() {
         return ghostRemovalJobs;
     }
 
-    public Map<Long, Map<BlockPos, BlockState>> getDirectDeconstructJobs() {
+    /** Packed position to the state id left behind after deconstruction. */
+    public Long2IntMap getDirectDeconstructJobs() {
         return directDeconstructJobs;
     }
 
-    public Map<Long, Map<BlockPos, BlockState>> getHibernatingJobsMap() {
+    public Long2IntMap getHibernatingJobs() {
         return hibernatingJobs;
     }
 
-    public Map<BlockPos, BlockState> getHibernatingJobs() {
-        Map<BlockPos, BlockState> all = new HashMap<>();
-        hibernatingJobs.values().forEach(all::putAll);
-        return all;
+    public Long2IntMap getJobFinalStates() {
+        return jobFinalStates;
     }
 
-    public Map<BlockPos, BlockState> getJobFinalStates() {
-        return jobFinalStates;
+    /** Visits packed position and drone slot of every claim, resolve slots with {@link #getDroneId(int)}. */
+    public void forEachAssignment(JobClaims.ClaimVisitor visitor) {
+        claims.forEach(visitor);
+    }
+
+    public UUID getDroneId(int slot) {
+        return droneSlots.idOf(slot);
     }
 
-    public Map<BlockPos, UUID> getAssignments() {
-        return assignedPositions;
+    private void recordDeconAdd(long packed, int stateId) {
+        if (!serverSide) return;
+        pendingDeconRemovals.remove(packed);
+        pendingDeconAdds.put(packed, stateId);
+        pendingDeconChanges++;
     }
 
-    public void syncToClients(Level level) {
-        if (level.isClientSide || !(level instanceof ServerLevel serverLevel)) return;
-        
-        Map<BlockPos, Integer> syncMap = new HashMap<>();
-        for (Map<BlockPos, BlockState> chunkMap : directDeconstructJobs.values()) {
-            for (Map.Entry<BlockPos, BlockState> entry : chunkMap.entrySet()) {
-                syncMap.put(entry.getKey(), net.minecraft.world.level.block.Block.getId(entry.getValue()));
+    private void recordDeconRemoval(long packed) {
+        if (!serverSide) return;
+        pendingDeconAdds.remove(packed);
+        pendingDeconRemovals.add(packed);
+        pendingDeconChanges++;
+    }
+
+    /**
+     * Sends this tick's coalesced overlay changes, each player only receiving the chunks it tracks.
+     */
+    private void flushDeconstructionDeltas(ServerLevel level) {
+        if (pendingDeconAdds.isEmpty() && pendingDeconRemovals.isEmpty()) return;
+
+        for (ServerPlayer player : level.players()) {
+            net.minecraft.server.level.ChunkTrackingView view = player.getChunkTrackingView();
+            LongArrayList added = new LongArrayList();
+            IntArrayList states = new IntArrayList();
+            for (Long2IntMap.Entry entry : pendingDeconAdds.long2IntEntrySet()) {
+                if (isTracking(view, entry.getLongKey())) {
+                    added.add(entry.getLongKey());
+                    states.add(entry.getIntValue());
+                }
             }
+            LongArrayList removed = new LongArrayList();
+            LongIterator it = pendingDeconRemovals.iterator();
+            while (it.hasNext()) {
+                long packed = it.nextLong();
+                if (isTracking(view, packed)) removed.add(packed);
+            }
+            send(player, new S2CDeconstructionDeltaPacket(false, added.toLongArray(), states.toIntArray(), removed.toLongArray()));
         }
-        
-        com.example.ghostlib.network.payload.S2CSyncDeconstructionPacket packet = new com.example.ghostlib.network.payload.S2CSyncDeconstructionPacket(syncMap);
-        for (net.minecraft.server.level.ServerPlayer player : serverLevel.players()) {
-            net.neoforged.neoforge.network.PacketDistributor.sendToPlayer(player, packet);
+
+        SyncBandwidth.recordLegacyEquivalent(pendingDeconChanges, level.players().size(), directDeconstructJobs.size());
+        pendingDeconAdds.clear();
+        pendingDeconRemovals.clear();
+        pendingDeconChanges = 0;
+    }
+
+    /**
+     * Full resync for a player that just logged in or changed dimension.
+     */
+    public void resyncPlayer(ServerPlayer player) {
+        net.minecraft.server.level.ChunkTrackingView view = player.getChunkTrackingView();
+        LongArrayList added = new LongArrayList();
+        IntArrayList states = new IntArrayList();
+        for (Long2IntMap.Entry entry : directDeconstructJobs.long2IntEntrySet()) {
+            if (isTracking(view, entry.getLongKey())) {
+                added.add(entry.getLongKey());
+                states.add(entry.getIntValue());
+            }
+        }
+        send(player, new S2CDeconstructionDeltaPacket(true, added.toLongArray(), states.toIntArray(), new long[0]));
+    }
+
+    /**
+     * Sends the overlay for a chunk a player started tracking, or clears it when tracking stops.
+     */
+    public void syncChunk(ServerPlayer player, long chunkKey, boolean watching) {
+        LongArrayList positions = new LongArrayList();
+        IntArrayList states = new IntArrayList();
+        index.forEachInColumn(chunkKey, minSectionY, maxSectionY, packed -> {
+            int stateId = directDeconstructJobs.get(packed);
+            if (stateId == NO_STATE) return;
+            positions.add(packed);
+            states.add(stateId);
+        });
+        if (positions.isEmpty()) return;
+        S2CDeconstructionDeltaPacket packet = watching
+                ? new S2CDeconstructionDeltaPacket(false, positions.toLongArray(), states.toIntArray(), new long[0])
+                : new S2CDeconstructionDeltaPacket(false, new long[0], new int[0], positions.toLongArray());
+        send(player, packet);
+    }
+
+    private static boolean isTracking(net.minecraft.server.level.ChunkTrackingView view, long packed) {
+        return view.contains(SectionPos.blockToSectionCoord(BlockPos.getX(packed)), SectionPos.blockToSectionCoord(BlockPos.getZ(packed)));
+    }
+
+    private static void send(ServerPlayer player, S2CDeconstructionDeltaPacket packet) {
+        if (packet.isEmpty()) return;
+        SyncBandwidth.recordPacket(packet.encodedSize(), packet.reset());
+        net.neoforged.neoforge.network.PacketDistributor.sendToPlayer(player, packet);
+    }
+
+    /**
+     * Pages an unloading chunk's queues out to the cold tier and drops its index sections.
+     */
+    public void unloadChunk(long chunkKey) {
+        ColdJobStore.Builder cold = new ColdJobStore.Builder();
+        LongArrayList unloaded = new LongArrayList();
+        java.util.function.LongConsumer pageOut = packed -> {
+            int stateId = constructionJobs.remove(packed);
+            if (stateId != NO_STATE) {
+                cold.construction(packed, stateId);
+                unloaded.add(packed);
+            }
+            if (ghostRemovalJobs.remove(packed)) cold.removal(packed);
+            int targetAfter = directDeconstructJobs.remove(packed);
+            if (targetAfter != NO_STATE) cold.deconstruct(packed, targetAfter);
+            int finalState = jobFinalStates.remove(packed);
+            if (finalState != NO_STATE) cold.finalState(packed, finalState);
+            unblock(packed);
+        };
+        index.forEachInColumn(chunkKey, minSectionY, maxSectionY, pageOut);
+        blockedIndex.forEachInColumn(chunkKey, minSectionY, maxSectionY, pageOut);
+        hibernatingIndex.forEachInColumn(chunkKey, minSectionY, maxSectionY, packed -> {
+            cold.hibernating(packed, hibernatingJobs.get(packed));
+            removeHibernating(packed);
+            unloaded.add(packed);
+        });
+        if (!cold.isEmpty()) coldStore.put(chunkKey, cold.build());
+        index.removeColumn(chunkKey, minSectionY, maxSectionY);
+        hibernatingIndex.removeColumn(chunkKey, minSectionY, maxSectionY);
+        blockedIndex.removeColumn(chunkKey, minSectionY, maxSectionY);
+        releaseAssignmentsInChunk(chunkKey);
+        // Neighbouring chunks must not wait on supports that are no longer tracked
+        for (int i = 0; i < unloaded.size(); i++) {
+            settleDependents(unloaded.getLong(i));
         }
     }
 
-    public void releaseAssignmentsInChunk(long chunkKey) {
-        Set<BlockPos> positions = assignedInChunk.remove(chunkKey);
-        if (positions != null) {
-            positions.forEach(assignedPositions::remove);
+    /**
+     * Copies a chunk's cold snapshot back into the hot queues. Cheap no-op for chunks without one,
+     * so both the chunk load event and ghost block entities may call it.
+     */
+    public void loadChunk(long chunkKey) {
+        ColdJobStore.ColdChunk cold = coldStore.take(chunkKey);
+        if (cold == null) return;
+
+        for (int i = 0; i < cold.construction().length; i++) {
+            queueConstruction(cold.construction()[i], Block.stateById(cold.constructionStates()[i]));
+        }
+        for (long packed : cold.removals()) {
+            ghostRemovalJobs.add(packed);
+            offer(JobType.GHOST_REMOVAL, packed);
+        }
+        for (int i = 0; i < cold.deconstruct().length; i++) {
+            directDeconstructJobs.put(cold.deconstruct()[i], cold.deconstructStates()[i]);
+            offer(JobType.DIRECT_DECONSTRUCT, cold.deconstruct()[i]);
         }
+        for (int i = 0; i < cold.finalPositions().length; i++) {
+            jobFinalStates.put(cold.finalPositions()[i], cold.finalStates()[i]);
+        }
+        for (int i = 0; i < cold.hibernating().length; i++) {
+            long packed = cold.hibernating()[i];
+            hibernatingJobs.put(packed, cold.hibernatingStates()[i]);
+            hibernatingIndex.add(JobType.CONSTRUCTION, packed);
+            demand.computeIfAbsent(Block.stateById(cold.hibernatingStates()[i]).getBlock().asItem(), k -> new LongOpenHashSet()).add(packed);
+        }
+        // Hibernating supports arrived after their dependents were queued
+        for (long packed : cold.hibernating()) {
+            blockWaitingNeighbours(packed);
+        }
+    }
+
+    /**
+     * Moves hot jobs that sit in chunks which aren't loaded to the cold tier, and warms cold
+     * chunks that are. Run once after the saved queues are read.
+     */
+    private void settleTiers(ServerLevel level) {
+        LongOpenHashSet columns = new LongOpenHashSet();
+        for (LongIterator it = constructionJobs.keySet().iterator(); it.hasNext(); ) columns.add(columnOf(it.nextLong()));
+        for (LongIterator it = ghostRemovalJobs.iterator(); it.hasNext(); ) columns.add(columnOf(it.nextLong()));
+        for (LongIterator it = directDeconstructJobs.keySet().iterator(); it.hasNext(); ) columns.add(columnOf(it.nextLong()));
+        for (LongIterator it = hibernatingJobs.keySet().iterator(); it.hasNext(); ) columns.add(columnOf(it.nextLong()));
+        for (LongIterator it = columns.iterator(); it.hasNext(); ) {
+            long chunkKey = it.nextLong();
+            if (!level.hasChunk(ChunkPos.getX(chunkKey), ChunkPos.getZ(chunkKey))) unloadChunk(chunkKey);
+        }
+        LongArrayList cold = coldStore.chunkKeys();
+        for (int i = 0; i < cold.size(); i++) {
+            long chunkKey = cold.getLong(i);
+            if (level.hasChunk(ChunkPos.getX(chunkKey), ChunkPos.getZ(chunkKey))) loadChunk(chunkKey);
+        }
+    }
+
+    private static long columnOf(long packed) {
+        return ChunkPos.asLong(SectionPos.blockToSectionCoord(BlockPos.getX(packed)), SectionPos.blockToSectionCoord(BlockPos.getZ(packed)));
+    }
+
+    /**
+     * @return true if the position has any hot job, i.e. a loading ghost has nothing to re-register.
+     */
+    public boolean isTracked(BlockPos pos) {
+        long packed = pos.asLong();
+        return constructionJobs.containsKey(packed) || ghostRemovalJobs.contains(packed) || hibernatingJobs.containsKey(packed);
+    }
+
+    /**
+     * Jobs of unloaded chunks; can be counted and planned for without loading anything.
+     */
+    public ColdJobStore getColdStore() {
+        return coldStore;
+    }
+
+    public JobMetrics getMetrics() {
+        return metrics;
+    }
+
+    public void releaseAssignmentsInChunk(long chunkKey) {
+        claims.removeColumn(chunkKey, minSectionY, maxSectionY, listeners.isEmpty() ? null : (packed, slot) -> {
+            JobListener listener = listeners.get(slot);
+            if (listener != null) listener.onJobInvalidated(packed, Invalidation.UNLOADED);
+        });
     }
 
     public boolean hasAvailableJob(BlockPos pos, int range) {
-        return requestJob(pos, UUID.randomUUID(), true) != null;
+        int radius = Math.max(0, Math.min(SEARCH_RADIUS_SECTIONS, SectionPos.blockToSectionCoord(range)));
+        for (JobType type : JobType.values()) {
+            if (index.findNearest(pos, radius, minSectionY, maxSectionY, type, unassigned) != Long.MAX_VALUE) return true;
+        }
+        return false;
     }
 
     public boolean jobExistsAt(BlockPos pos) {
-        if (assignedPositions.containsKey(pos)) return true;
-        long key = ChunkPos.asLong(pos);
-        if (constructionJobs.containsKey(key) && constructionJobs.get(key).containsKey(pos)) return true;
-        if (ghostRemovalJobs.containsKey(key) && ghostRemovalJobs.get(key).contains(pos)) return true;
-        if (directDeconstructJobs.containsKey(key) && directDeconstructJobs.get(key).containsKey(pos)) return true;
-        if (hibernatingJobs.containsKey(key) && hibernatingJobs.get(key).containsKey(pos)) return true;
-        return false;
+        long packed = pos.asLong();
+        return claims.isClaimed(packed)
+                || constructionJobs.containsKey(packed)
+                || ghostRemovalJobs.contains(packed)
+                || directDeconstructJobs.containsKey(packed)
+                || hibernatingJobs.containsKey(packed);
     }
 
     public boolean isAssignedTo(BlockPos pos, UUID droneId) {
-        UUID current = assignedPositions.get(pos);
-        return current != null && current.equals(droneId);
+        int slot = droneSlots.peekSlot(droneId);
+        return slot != DroneSlotRegistry.NONE && claims.owner(pos.asLong()) == slot;
     }
 
-    public synchronized void reassignJob(BlockPos pos, UUID oldId, UUID newId) {
-        UUID current = assignedPositions.get(pos);
-        if (current != null && current.equals(oldId)) {
-            assignedPositions.put(pos, newId);
-        }
+    public void reassignJob(BlockPos pos, UUID oldId, UUID newId) {
+        int oldSlot = droneSlots.peekSlot(oldId);
+        if (oldSlot == DroneSlotRegistry.NONE) return;
+        metrics.recordClaim(claims.reassign(pos.asLong(), oldSlot, droneSlots.slotOf(newId)));
     }
 
     public void releaseJob(BlockPos pos, UUID droneId) {
-        UUID current = assignedPositions.get(pos);
-        if (current != null && current.equals(droneId)) {
-            assignedPositions.remove(pos);
-            long key = ChunkPos.asLong(pos);
-            Set<BlockPos> chunkAssignments = assignedInChunk.get(key);
-            if (chunkAssignments != null) {
-                chunkAssignments.remove(pos);
-                if (chunkAssignments.isEmpty()) assignedInChunk.remove(key);
-            }
+        int slot = droneSlots.peekSlot(droneId);
+        long packed = pos.asLong();
+        if (slot == DroneSlotRegistry.NONE || !claims.release(packed, slot)) return;
+        // A freed job that is still queued is new work to sleepers; deconstruction jobs have no
+        // ghost whose state change would re-register (and so re-offer) them
+        if (serverSide && isIndexed(packed)) freshColumns.add(columnOf(packed));
+    }
+
+    private boolean isIndexed(long packed) {
+        for (JobType type : JobType.values()) {
+            if (index.contains(type, packed)) return true;
         }
+        return false;
     }
 
+    /**
+     * Claims the nearest unassigned job for a drone.
+     * Deconstruction and removal still win over construction unless the construction job
+     * is more than one section closer, mirroring the old "clear the chunk first" behaviour.
+     */
     public Job requestJob(BlockPos dronePos, UUID droneId, boolean canBuild) {
-        int cx = SectionPos.blockToSectionCoord(dronePos.getX());
-        int cz = SectionPos.blockToSectionCoord(dronePos.getZ());
-        int range = 8; // Chunk radius
-
-        // Optimization: Instead of scanning 289 chunk coordinates (most of which are empty),
-        // we collect the set of chunks that actually HAVE jobs and filter them by distance.
-        Set<Long> candidateChunks = new HashSet<>();
-        candidateChunks.addAll(directDeconstructJobs.keySet());
-        candidateChunks.addAll(ghostRemovalJobs.keySet());
-        if (canBuild) {
-            candidateChunks.addAll(constructionJobs.keySet());
+        long stamp = metrics.startRequest();
+        long scannedBefore = index.sectionsScanned();
+        Job job = findAndClaim(dronePos, droneId, canBuild);
+        metrics.endRequest(stamp, job != null, index.sectionsScanned() - scannedBefore);
+        return job;
+    }
+
+    private Job findAndClaim(BlockPos dronePos, UUID droneId, boolean canBuild) {
+        if (index.isEmpty()) return null;
+
+        // With a single owner in the queue, fairness is moot and the nearest job wins outright
+        int window = fairShare.isContended() ? FAIR_WINDOW : 1;
+        long best = Long.MAX_VALUE;
+        JobType bestType = null;
+        double bestDist = Double.MAX_VALUE;
+        int bestRank = Integer.MAX_VALUE;
+        double bestStart = Double.MAX_VALUE;
+        candidateSeen.clear();
+        candidateExclude = LongSets.EMPTY_SET;
+        for (JobType type : JobType.values()) {
+            if (type == JobType.CONSTRUCTION && !canBuild) continue;
+            for (int i = 0; i < window; i++) {
+                long candidate = index.findNearest(dronePos, SEARCH_RADIUS_SECTIONS, minSectionY, maxSectionY, type,
+                        window > 1 ? unassignedUnseen : unassigned);
+                if (candidate == Long.MAX_VALUE) break;
+                if (window > 1) candidateSeen.add(candidate);
+                double dist = Math.sqrt(dronePos.distToLowCornerSqr(BlockPos.getX(candidate), BlockPos.getY(candidate), BlockPos.getZ(candidate)));
+                if (type == JobType.CONSTRUCTION) dist += 16;
+                // 1. Priority class, 2. owner furthest behind its fair share, 3. distance
+                int rank = fairShare.priorityRank(candidate);
+                double start = window > 1 ? fairShare.startTag(candidate) : 0;
+                if (rank < bestRank || (rank == bestRank && (start < bestStart || (start == bestStart && dist < bestDist)))) {
+                    best = candidate;
+                    bestType = type;
+                    bestDist = dist;
+                    bestRank = rank;
+                    bestStart = start;
+                }
+                // Farther jobs of this type can't beat a top-class job that starts as early as any can
+                if (rank == 0 && start <= fairShare.virtualClock()) break;
+            }
         }
-
-        if (candidateChunks.isEmpty()) return null;
-
-        // Sort candidates by distance to drone (nearest first) to ensure efficient behavior
-        List<Long> sortedCandidates = candidateChunks.stream()
-            .filter(key -> {
-                int kx = ChunkPos.getX(key);
-                int kz = ChunkPos.getZ(key);
-                return Math.abs(kx - cx) <= range && Math.abs(kz - cz) <= range;
-            })
-            .sorted(Comparator.comparingDouble(key -> {
-                int kx = ChunkPos.getX(key);
-                int kz = ChunkPos.getZ(key);
-                double dx = kx - cx;
-                double dz = kz - cz;
-                return dx * dx + dz * dz;
-            }))
-            .toList();
-
-        // Search through sorted, valid chunks
-        for (Long key : sortedCandidates) {
-            synchronized (assignedPositions) {
-                // Prioritize Deconstruction/Removal over Construction
-                Job j = findInMap(directDeconstructJobs.get(key), dronePos, droneId, JobType.DIRECT_DECONSTRUCT);
-                if (j != null) return j;
-                
-                j = findInSet(ghostRemovalJobs.get(key), dronePos, droneId, JobType.GHOST_REMOVAL);
-                if (j != null) return j;
-                
-                if (canBuild) {
-                    j = findInMap(constructionJobs.get(key), dronePos, droneId, JobType.CONSTRUCTION);
-                    if (j != null) return j;
+        if (bestType == null) return null;
+        return claim(best, bestType, droneId);
+    }
+
+    /**
+     * Claims a specific queued job for a drone.
+     *
+     * @return The job, or null if someone else got there first or the queues no longer hold it.
+     */
+    public Job claim(long packed, JobType type, UUID droneId) {
+        boolean won = claims.tryClaim(packed, droneSlots.slotOf(droneId));
+        metrics.recordClaim(won);
+        if (!won) {
+            // Lost a race against another claimer; let the caller retry next tick.
+            return null;
+        }
+        fairShare.charge(packed);
+
+        BlockPos pos = BlockPos.of(packed);
+        BlockState target = switch (type) {
+            case CONSTRUCTION -> stateOrNull(constructionJobs.get(packed));
+            case DIRECT_DECONSTRUCT -> stateOrNull(directDeconstructJobs.get(packed));
+            case GHOST_REMOVAL -> Blocks.AIR.defaultBlockState();
+        };
+        if (target == null) {
+            // Index and queues disagree; drop the stale bit rather than hand out a broken job.
+            index.remove(type, packed);
+            releaseJob(pos, droneId);
+            return null;
+        }
+        return new Job(pos, type, target, type == JobType.GHOST_REMOVAL ? null : stateOrNull(jobFinalStates.get(packed)));
+    }
+
+    /**
+     * Why a claimed job was pulled from under its drone.
+     */
+    public enum Invalidation {
+        /** The job was completed, removed or replaced, and its claim cleared. */
+        REMOVED,
+        /** Undo, redo or a new action changed what the ledger wants at the position. */
+        INTENT_CHANGED,
+        /** The chunk unloaded and its claims were dropped. */
+        UNLOADED
+    }
+
+    /**
+     * Assignment-to-drone handle: drones subscribe once and are told about their claimed
+     * positions changing, instead of re-checking them every tick.
+     */
+    @FunctionalInterface
+    public interface JobListener {
+        void onJobInvalidated(long packedPos, Invalidation reason);
+    }
+
+    public void subscribe(UUID droneId, JobListener listener) {
+        listeners.put(droneSlots.slotOf(droneId), listener);
+    }
+
+    public void unsubscribe(UUID droneId) {
+        int slot = droneSlots.peekSlot(droneId);
+        if (slot != DroneSlotRegistry.NONE) listeners.remove(slot);
+    }
+
+    /**
+     * The claimer is gone for good (killed, discarded, port broken): forget its listener and
+     * free its slot for reuse. Not for chunk unloads, where saved claims still name it.
+     */
+    public void retireClaimer(UUID claimerId) {
+        unsubscribe(claimerId);
+        droneSlots.retire(claimerId);
+    }
+
+    private void signal(long packed, Invalidation reason) {
+        if (listeners.isEmpty()) return;
+        int owner = claims.owner(packed);
+        if (owner == DroneSlotRegistry.NONE) return;
+        JobListener listener = listeners.get(owner);
+        if (listener != null) listener.onJobInvalidated(packed, reason);
+    }
+
+    @FunctionalInterface
+    public interface CandidateSink {
+        void accept(long packedPos, JobType type, double cost);
+    }
+
+    /**
+     * Reports up to {@code perType} nearest unclaimed jobs of each type around {@code origin}
+     * without claiming anything. Cost is the distance, with the same construction penalty
+     * {@link #requestJob} applies. Positions in {@code exclude} are skipped.
+     */
+    public void collectCandidates(BlockPos origin, boolean canBuild, int perType, LongSet exclude, CandidateSink sink) {
+        long stamp = metrics.startRequest();
+        long scannedBefore = index.sectionsScanned();
+        boolean found = false;
+        if (!index.isEmpty()) {
+            candidateSeen.clear();
+            candidateExclude = exclude;
+            for (JobType type : JobType.values()) {
+                if (type == JobType.CONSTRUCTION && !canBuild) continue;
+                for (int i = 0; i < perType; i++) {
+                    long candidate = index.findNearest(origin, SEARCH_RADIUS_SECTIONS, minSectionY, maxSectionY, type, unassignedUnseen);
+                    if (candidate == Long.MAX_VALUE) break;
+                    candidateSeen.add(candidate);
+                    double dist = Math.sqrt(origin.distToLowCornerSqr(BlockPos.getX(candidate), BlockPos.getY(candidate), BlockPos.getZ(candidate)));
+                    sink.accept(candidate, type, type == JobType.CONSTRUCTION ? dist + 16 : dist);
+                    found = true;
                 }
             }
+            candidateExclude = LongSets.EMPTY_SET;
         }
-        return null;
+        metrics.endRequest(stamp, found, index.sectionsScanned() - scannedBefore);
+    }
+
+    /**
+     * Whether an unclaimed construction job close to {@code origin} needs {@code item}. Claims nothing.
+     */
+    public boolean hasJobNeeding(BlockPos origin, Item item, int rangeBlocks) {
+        int radius = Math.max(0, Math.min(SEARCH_RADIUS_SECTIONS, SectionPos.blockToSectionCoord(rangeBlocks)));
+        return index.findNearest(origin, radius, minSectionY, maxSectionY, JobType.CONSTRUCTION,
+                p -> isUnassigned(p) && needsItem(p, item)) != Long.MAX_VALUE;
+    }
+
+    public int priorityRank(long packed) {
+        return fairShare.priorityRank(packed);
+    }
+
+    public double fairStartTag(long packed) {
+        return fairShare.startTag(packed);
+    }
+
+    /**
+     * Claims up to {@code maxJobs} further construction jobs around {@code anchor} that need the
+     * same item, so a drone can fetch one stack and build them in a single trip. Each search starts
+     * from the previously claimed position, which keeps the claims close to a visiting order.
+     */
+    public List<Job> claimCluster(Job anchor, UUID droneId, int maxJobs) {
+        List<Job> cluster = new ArrayList<>();
+        if (anchor.type() != JobType.CONSTRUCTION || maxJobs <= 0) return cluster;
+
+        Item item = anchor.targetAfter().getBlock().asItem();
+        BlockPos origin = anchor.pos();
+        int slot = droneSlots.slotOf(droneId);
+        BlockPos from = origin;
+        while (cluster.size() < maxJobs) {
+            long next = index.findNearest(from, 1, minSectionY, maxSectionY, JobType.CONSTRUCTION,
+                    p -> isUnassigned(p) && needsItem(p, item)
+                            && origin.distToLowCornerSqr(BlockPos.getX(p), BlockPos.getY(p), BlockPos.getZ(p)) <= CLUSTER_RADIUS_SQR);
+            if (next == Long.MAX_VALUE) break;
+            // A lost race just makes the position fail the filter on the next search
+            boolean won = claims.tryClaim(next, slot);
+            metrics.recordClaim(won);
+            if (!won) continue;
+            fairShare.charge(next);
+
+            from = BlockPos.of(next);
+            cluster.add(new Job(from, JobType.CONSTRUCTION, Block.stateById(constructionJobs.get(next)), stateOrNull(jobFinalStates.get(next))));
+        }
+        return cluster;
     }
 
-    // private Job searchRing(int cx, int cz, int r, BlockPos dronePos, UUID droneId, boolean canBuild) { ... } // Removed as obsolete
+    private boolean needsItem(long packed, Item item) {
+        int stateId = constructionJobs.get(packed);
+        return stateId != NO_STATE && !ghostRemovalJobs.contains(packed)
+                && Block.stateById(stateId).getBlock().asItem() == item;
+    }
 
-    private Job findInMap(Map<BlockPos, BlockState> map, BlockPos dronePos, UUID droneId, JobType type) {
-        if (map == null || map.isEmpty()) return null;
-        for (Map.Entry<BlockPos, BlockState> entry : map.entrySet()) {
-            BlockPos pos = entry.getKey();
-            if (!assignedPositions.containsKey(pos)) {
-                if (assignedPositions.putIfAbsent(pos, droneId) == null) {
-                    assignedInChunk.computeIfAbsent(ChunkPos.asLong(pos), k -> ConcurrentHashMap.newKeySet()).add(pos);
-                    return new Job(pos, type, entry.getValue(), jobFinalStates.get(pos));
-                }
-            }
-        }
-        return null;
+    private boolean isUnassigned(long packedPos) {
+        return !claims.isClaimed(packedPos);
     }
 
-    private Job findInSet(Set<BlockPos> set, BlockPos dronePos, UUID droneId, JobType type) {
-        if (set == null || set.isEmpty()) return null;
-        synchronized (set) {
-            for (BlockPos pos : set) {
-                if (!assignedPositions.containsKey(pos)) {
-                    if (assignedPositions.putIfAbsent(pos, droneId) == null) {
-                        assignedInChunk.computeIfAbsent(ChunkPos.asLong(pos), k -> ConcurrentHashMap.newKeySet()).add(pos);
-                        return new Job(pos, type, Blocks.AIR.defaultBlockState(), null);
-                    }
-                }
-            }
-        }
-        return null;
+    private static BlockState stateOrNull(int stateId) {
+        return stateId == NO_STATE ? null : Block.stateById(stateId);
     }
 
     private void markDataDirty() {
         if (savedData != null) savedData.setDirty();
     }
-}
\ No newline at end of file
+}
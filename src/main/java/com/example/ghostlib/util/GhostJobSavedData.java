@@ -2,6 +2,8 @@ package com.example.ghostlib.util;
 
 import com.example.ghostlib.GhostLib;
 import com.example.ghostlib.block.entity.GhostBlockEntity;
+import it.unimi.dsi.fastutil.longs.Long2IntMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.HolderLookup;
 import net.minecraft.nbt.CompoundTag;
@@ -9,12 +11,11 @@ import net.minecraft.nbt.ListTag;
 import net.minecraft.nbt.NbtUtils;
 import net.minecraft.nbt.Tag;
 import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.saveddata.SavedData;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.Map;
-import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -113,10 +114,21 @@ public class GhostJobSavedData extends SavedData {
             }
         }
 
-        GhostLib.LOGGER.info("Loaded {} construction jobs, {} deconstruct jobs, {} hibernating jobs from SavedData",
+        // Load paged-out jobs of unloaded chunks
+        if (tag.contains("cold_chunks", Tag.TAG_LIST)) {
+            manager.getColdStore().load(tag.getList("cold_chunks", Tag.TAG_COMPOUND), registries);
+        }
+
+        // Load job owners (fair scheduling tags)
+        if (tag.contains("job_owners", Tag.TAG_LIST)) {
+            manager.getFairShare().load(tag.getList("job_owners", Tag.TAG_COMPOUND));
+        }
+
+        GhostLib.LOGGER.info("Loaded {} construction jobs, {} deconstruct jobs, {} hibernating jobs and {} jobs in unloaded chunks from SavedData",
                 manager.getConstructionJobs().size(),
                 manager.getDirectDeconstructJobs().size(),
-                manager.getHibernatingJobs().size());
+                manager.getHibernatingJobs().size(),
+                manager.getColdStore().jobCount());
 
         return data;
     }
@@ -126,76 +138,74 @@ public class GhostJobSavedData extends SavedData {
      */
     @Override
     public @NotNull CompoundTag save(@NotNull CompoundTag tag, HolderLookup.@NotNull Provider registries) {
-        // Save construction jobs - flatten structure
+        // Save construction jobs
         ListTag constructionList = new ListTag();
-        for (Map<BlockPos, BlockState> chunkMap : manager.getConstructionJobsMap().values()) { // Need raw access or
-                                                                                               // safe iteration
-            for (Map.Entry<BlockPos, BlockState> entry : chunkMap.entrySet()) {
-                CompoundTag jobTag = new CompoundTag();
-                jobTag.put("pos", NbtUtils.writeBlockPos(entry.getKey()));
-                jobTag.put("state", NbtUtils.writeBlockState(entry.getValue()));
-                constructionList.add(jobTag);
-            }
+        for (Long2IntMap.Entry entry : manager.getConstructionJobs().long2IntEntrySet()) {
+            CompoundTag jobTag = new CompoundTag();
+            jobTag.put("pos", NbtUtils.writeBlockPos(BlockPos.of(entry.getLongKey())));
+            jobTag.put("state", NbtUtils.writeBlockState(Block.stateById(entry.getIntValue())));
+            constructionList.add(jobTag);
         }
         tag.put("construction_jobs", constructionList);
 
         // Save ghost removal jobs
         ListTag removalList = new ListTag();
-        for (Set<BlockPos> chunkSet : manager.getGhostRemovalJobsMap().values()) {
-            synchronized (chunkSet) {
-                for (BlockPos pos : chunkSet) {
-                    CompoundTag jobTag = new CompoundTag();
-                    jobTag.put("pos", NbtUtils.writeBlockPos(pos));
-                    removalList.add(jobTag);
-                }
-            }
+        LongIterator removals = manager.getGhostRemovalJobs().iterator();
+        while (removals.hasNext()) {
+            CompoundTag jobTag = new CompoundTag();
+            jobTag.put("pos", NbtUtils.writeBlockPos(BlockPos.of(removals.nextLong())));
+            removalList.add(jobTag);
         }
         tag.put("ghost_removal_jobs", removalList);
 
         // Save direct deconstruct jobs
         ListTag deconstructList = new ListTag();
-        for (Map<BlockPos, BlockState> chunkMap : manager.getDirectDeconstructJobs().values()) {
-            for (Map.Entry<BlockPos, BlockState> entry : chunkMap.entrySet()) {
-                CompoundTag jobTag = new CompoundTag();
-                jobTag.put("pos", NbtUtils.writeBlockPos(entry.getKey()));
-                jobTag.put("target_after", NbtUtils.writeBlockState(entry.getValue()));
-                deconstructList.add(jobTag);
-            }
+        for (Long2IntMap.Entry entry : manager.getDirectDeconstructJobs().long2IntEntrySet()) {
+            CompoundTag jobTag = new CompoundTag();
+            jobTag.put("pos", NbtUtils.writeBlockPos(BlockPos.of(entry.getLongKey())));
+            jobTag.put("target_after", NbtUtils.writeBlockState(Block.stateById(entry.getIntValue())));
+            deconstructList.add(jobTag);
         }
         tag.put("direct_deconstruct_jobs", deconstructList);
 
         // Save final states
         ListTag finalStatesList = new ListTag();
-        for (Map.Entry<BlockPos, BlockState> entry : manager.getJobFinalStates().entrySet()) {
+        for (Long2IntMap.Entry entry : manager.getJobFinalStates().long2IntEntrySet()) {
             CompoundTag stateTag = new CompoundTag();
-            stateTag.put("pos", NbtUtils.writeBlockPos(entry.getKey()));
-            stateTag.put("state", NbtUtils.writeBlockState(entry.getValue()));
+            stateTag.put("pos", NbtUtils.writeBlockPos(BlockPos.of(entry.getLongKey())));
+            stateTag.put("state", NbtUtils.writeBlockState(Block.stateById(entry.getIntValue())));
             finalStatesList.add(stateTag);
         }
         tag.put("job_final_states", finalStatesList);
 
         // Save hibernating jobs
         ListTag hibernatingList = new ListTag();
-        for (Map<BlockPos, BlockState> chunkMap : manager.getHibernatingJobsMap().values()) {
-            for (Map.Entry<BlockPos, BlockState> entry : chunkMap.entrySet()) {
-                CompoundTag jobTag = new CompoundTag();
-                jobTag.put("pos", NbtUtils.writeBlockPos(entry.getKey()));
-                jobTag.put("state", NbtUtils.writeBlockState(entry.getValue()));
-                hibernatingList.add(jobTag);
-            }
+        for (Long2IntMap.Entry entry : manager.getHibernatingJobs().long2IntEntrySet()) {
+            CompoundTag jobTag = new CompoundTag();
+            jobTag.put("pos", NbtUtils.writeBlockPos(BlockPos.of(entry.getLongKey())));
+            jobTag.put("state", NbtUtils.writeBlockState(Block.stateById(entry.getIntValue())));
+            hibernatingList.add(jobTag);
         }
         tag.put("hibernating_jobs", hibernatingList);
 
-        // Save assignments
+        // Save assignments (slots are per-session, so the UUID is what goes to disk)
         ListTag assignmentsList = new ListTag();
-        for (Map.Entry<BlockPos, UUID> entry : manager.getAssignments().entrySet()) {
+        manager.forEachAssignment((packed, slot) -> {
+            UUID droneId = manager.getDroneId(slot);
+            if (droneId == null) return;
             CompoundTag assignTag = new CompoundTag();
-            assignTag.put("pos", NbtUtils.writeBlockPos(entry.getKey()));
-            assignTag.putUUID("drone_id", entry.getValue());
+            assignTag.put("pos", NbtUtils.writeBlockPos(BlockPos.of(packed)));
+            assignTag.putUUID("drone_id", droneId);
             assignmentsList.add(assignTag);
-        }
+        });
         tag.put("assignments", assignmentsList);
 
+        // Save paged-out jobs
+        tag.put("cold_chunks", manager.getColdStore().save());
+
+        // Save job owners
+        tag.put("job_owners", manager.getFairShare().save());
+
         GhostLib.LOGGER.debug("Saved jobs to SavedData");
 
         return tag;
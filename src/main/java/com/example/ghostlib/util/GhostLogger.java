@@ -38,7 +38,14 @@ public class GhostLogger {
         }
     }
 
-    public static void drone(String message) { log("DRONE", message); }
+    /**
+     * Per-action drone logging is off unless {@code logging.verbose_drones} is set. Hot paths check
+     * this before building the message, so a disabled log costs no string work.
+     */
+    public static boolean droneEnabled() { return writer != null && com.example.ghostlib.config.GhostLibConfig.VERBOSE_DRONE_LOG; }
+
+    public static void drone(String message) { if (droneEnabled()) log("DRONE", message); }
+    public static void drone(java.util.function.Supplier<String> message) { if (droneEnabled()) log("DRONE", message.get()); }
     public static void multiblock(String message) { log("MULTIBLOCK", message); }
     public static void energy(String message) { log("ENERGY", message); }
     public static void logistics(String message) { log("LOGISTICS", message); }
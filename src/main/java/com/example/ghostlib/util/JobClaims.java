@@ -0,0 +1,212 @@
+package com.example.ghostlib.util;
+
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.ChunkPos;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Job claims without a global lock.
+ *
+ * Every section with at least one live claim owns an {@link AtomicIntegerArray} with a claim word
+ * per block: 0 means unclaimed, anything else is the claimer's {@link DroneSlotRegistry} slot + 1.
+ * Claiming, releasing and handing over a job are single compare-and-set operations on that word,
+ * so claimers in different sections (or threads) never wait on each other.
+ *
+ * Sections live in {@link #STRIPES} primitive-keyed maps, each guarded by its own monitor. The
+ * monitor is only held to find, create or retire a section, never across a claim. The invariants
+ * that keep that safe:
+ * <ol>
+ *     <li>A section's {@code live} count is its number of non-free words plus the claimers that
+ *     have reserved a slot in it and not yet finished their CAS.</li>
+ *     <li>Reservations are only taken under the stripe monitor, and a section is only retired
+ *     under it with {@code live == 0}. So a retired section holds no claims and nobody is about
+ *     to write one.</li>
+ *     <li>A word only goes from free to claimed through a reservation, and from claimed to free
+ *     by the CAS that also drops its count. Releases and reassigns need no reservation: the
+ *     claim they act on keeps the section alive.</li>
+ *     <li>{@link #removeColumn} marks a section retired before visiting it, and a claimer re-checks
+ *     the mark after its CAS. Either the claimer sees the mark and reports failure, or its claim
+ *     landed before the visit and is reported as dropped.</li>
+ * </ol>
+ */
+public class JobClaims {
+    private static final int FREE = 0;
+    private static final int STRIPES = 64;
+    private static final int SIZE = 4096;
+
+    private static final class Section {
+        final AtomicIntegerArray words = new AtomicIntegerArray(SIZE);
+        final AtomicInteger live = new AtomicInteger();
+        volatile boolean retired;
+    }
+
+    @SuppressWarnings("unchecked")
+    private final Long2ObjectOpenHashMap<Section>[] stripes = new Long2ObjectOpenHashMap[STRIPES];
+
+    public JobClaims() {
+        for (int i = 0; i < STRIPES; i++) stripes[i] = new Long2ObjectOpenHashMap<>();
+    }
+
+    @FunctionalInterface
+    public interface ClaimVisitor {
+        void accept(long packedPos, int slot);
+    }
+
+    private Long2ObjectOpenHashMap<Section> stripe(long key) {
+        return stripes[HashCommon.mix((int) (key ^ (key >>> 32))) & (STRIPES - 1)];
+    }
+
+    private Section find(long key) {
+        Long2ObjectOpenHashMap<Section> stripe = stripe(key);
+        synchronized (stripe) {
+            return stripe.get(key);
+        }
+    }
+
+    /**
+     * Gets or creates the section and takes a reservation in it.
+     */
+    private Section reserve(long key) {
+        Long2ObjectOpenHashMap<Section> stripe = stripe(key);
+        synchronized (stripe) {
+            Section section = stripe.get(key);
+            if (section == null) {
+                section = new Section();
+                stripe.put(key, section);
+            }
+            section.live.incrementAndGet();
+            return section;
+        }
+    }
+
+    /**
+     * Drops one from the live count, retiring the section once nothing holds it.
+     */
+    private void drop(long key, Section section) {
+        if (section.live.decrementAndGet() != 0) return;
+        Long2ObjectOpenHashMap<Section> stripe = stripe(key);
+        synchronized (stripe) {
+            // Re-checked under the monitor: a reservation may have been taken in between
+            if (section.live.get() == 0 && stripe.get(key) == section) {
+                section.retired = true;
+                stripe.remove(key);
+            }
+        }
+    }
+
+    /**
+     * @return true if the position was free and now belongs to {@code slot}.
+     */
+    public boolean tryClaim(long packed, int slot) {
+        long key = JobSpatialIndex.sectionKey(packed);
+        Section section = reserve(key);
+        if (!section.words.compareAndSet(JobSpatialIndex.localIndex(packed), FREE, slot + 1)) {
+            drop(key, section);
+            return false;
+        }
+        // The reservation now counts for the claim itself
+        return !section.retired;
+    }
+
+    /**
+     * Releases the claim only if it is still held by {@code slot}.
+     */
+    public boolean release(long packed, int slot) {
+        long key = JobSpatialIndex.sectionKey(packed);
+        Section section = find(key);
+        if (section == null || !section.words.compareAndSet(JobSpatialIndex.localIndex(packed), slot + 1, FREE)) return false;
+        drop(key, section);
+        return true;
+    }
+
+    /**
+     * Hands a claim from {@code oldSlot} to {@code newSlot}; fails if someone else holds it.
+     */
+    public boolean reassign(long packed, int oldSlot, int newSlot) {
+        Section section = find(JobSpatialIndex.sectionKey(packed));
+        return section != null && section.words.compareAndSet(JobSpatialIndex.localIndex(packed), oldSlot + 1, newSlot + 1);
+    }
+
+    /**
+     * Unconditionally clears the claim, used when the job itself goes away.
+     */
+    public void clear(long packed) {
+        long key = JobSpatialIndex.sectionKey(packed);
+        Section section = find(key);
+        if (section != null && section.words.getAndSet(JobSpatialIndex.localIndex(packed), FREE) != FREE) drop(key, section);
+    }
+
+    /**
+     * Unconditionally sets the claim, used when restoring saved assignments.
+     */
+    public void restore(long packed, int slot) {
+        long key = JobSpatialIndex.sectionKey(packed);
+        Section section = reserve(key);
+        if (section.words.getAndSet(JobSpatialIndex.localIndex(packed), slot + 1) != FREE) drop(key, section);
+    }
+
+    /**
+     * @return The claiming slot, or {@link DroneSlotRegistry#NONE}.
+     */
+    public int owner(long packed) {
+        Section section = find(JobSpatialIndex.sectionKey(packed));
+        return section == null ? DroneSlotRegistry.NONE : section.words.get(JobSpatialIndex.localIndex(packed)) - 1;
+    }
+
+    public boolean isClaimed(long packed) {
+        Section section = find(JobSpatialIndex.sectionKey(packed));
+        return section != null && section.words.get(JobSpatialIndex.localIndex(packed)) != FREE;
+    }
+
+    /**
+     * Drops every claim in the given chunk column, reporting each dropped claim to {@code dropped} if given.
+     */
+    public void removeColumn(long chunkKey, int minSectionY, int maxSectionY, ClaimVisitor dropped) {
+        int cx = ChunkPos.getX(chunkKey);
+        int cz = ChunkPos.getZ(chunkKey);
+        for (int y = minSectionY; y <= maxSectionY; y++) {
+            long key = SectionPos.asLong(cx, y, cz);
+            Long2ObjectOpenHashMap<Section> stripe = stripe(key);
+            Section section;
+            synchronized (stripe) {
+                section = stripe.remove(key);
+                if (section != null) section.retired = true;
+            }
+            if (section != null && dropped != null) visitSection(key, section, dropped);
+        }
+    }
+
+    /**
+     * Visits every live claim. The view is weakly consistent with concurrent claimers.
+     */
+    public void forEach(ClaimVisitor visitor) {
+        List<Long2ObjectMap.Entry<Section>> entries = new ArrayList<>();
+        for (Long2ObjectOpenHashMap<Section> stripe : stripes) {
+            synchronized (stripe) {
+                for (Long2ObjectMap.Entry<Section> entry : stripe.long2ObjectEntrySet()) {
+                    entries.add(new it.unimi.dsi.fastutil.longs.AbstractLong2ObjectMap.BasicEntry<>(entry.getLongKey(), entry.getValue()));
+                }
+            }
+        }
+        for (Long2ObjectMap.Entry<Section> entry : entries) visitSection(entry.getLongKey(), entry.getValue(), visitor);
+    }
+
+    private static void visitSection(long key, Section section, ClaimVisitor visitor) {
+        int baseX = SectionPos.sectionToBlockCoord(SectionPos.x(key));
+        int baseY = SectionPos.sectionToBlockCoord(SectionPos.y(key));
+        int baseZ = SectionPos.sectionToBlockCoord(SectionPos.z(key));
+        for (int i = 0; i < SIZE; i++) {
+            int word = section.words.get(i);
+            if (word != FREE) {
+                visitor.accept(net.minecraft.core.BlockPos.asLong(baseX + (i & 15), baseY + (i >>> 8), baseZ + ((i >>> 4) & 15)), word - 1);
+            }
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.ghostlib.util;
+
+import com.example.ghostlib.GhostLib;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Always-on counters for one level's job engine.
+ *
+ * Counters are {@link LongAdder}s so drones on any thread never contend on a shared word. Timing
+ * {@code requestJob} costs two {@link System#nanoTime()} calls, so only one request in
+ * {@value #SAMPLE_EVERY} is timed; samples land in a log2 histogram (bucket {@code i} holds
+ * latencies below {@code 2^i} ns) and percentiles are read off the bucket bounds.
+ */
+public class JobMetrics implements JobMetricsMBean {
+    private static final int SAMPLE_EVERY = 16;
+    private static final int BUCKETS = 40;
+
+    private final GhostJobManager manager;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder requestsWithoutJob = new LongAdder();
+    private final LongAdder sectionsScanned = new LongAdder();
+    private final LongAdder claimAttempts = new LongAdder();
+    private final LongAdder claimFailures = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final AtomicLongArray latencyBuckets = new AtomicLongArray(BUCKETS);
+    /** Racy on purpose: a lost increment only shifts which request gets sampled. */
+    private int sampleCounter;
+
+    private long rateWindowStart = System.nanoTime();
+    private long rateWindowCompleted;
+    private volatile double completedPerSecond;
+
+    public JobMetrics(GhostJobManager manager) {
+        this.manager = manager;
+    }
+
+    /**
+     * @return A {@link System#nanoTime()} start stamp if this request should be timed, otherwise 0.
+     */
+    public long startRequest() {
+        requests.increment();
+        return (++sampleCounter % SAMPLE_EVERY) == 0 ? System.nanoTime() : 0L;
+    }
+
+    public void endRequest(long startStamp, boolean found, long scanned) {
+        if (!found) requestsWithoutJob.increment();
+        if (scanned > 0) sectionsScanned.add(scanned);
+        if (startStamp != 0L) {
+            long nanos = Math.max(1L, System.nanoTime() - startStamp);
+            latencyBuckets.incrementAndGet(Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos)));
+        }
+    }
+
+    public void recordClaim(boolean won) {
+        claimAttempts.increment();
+        if (!won) claimFailures.increment();
+    }
+
+    public void recordCompleted() {
+        completed.increment();
+    }
+
+    /**
+     * Rolls the completion rate over once a second. Called from the level tick.
+     */
+    public void tick() {
+        long now = System.nanoTime();
+        long elapsed = now - rateWindowStart;
+        if (elapsed < 1_000_000_000L) return;
+        long total = completed.sum();
+        completedPerSecond = (total - rateWindowCompleted) * 1e9 / elapsed;
+        rateWindowCompleted = total;
+        rateWindowStart = now;
+    }
+
+    private double latencyPercentileMicros(double p) {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) total += latencyBuckets.get(i);
+        if (total == 0) return 0;
+        long target = (long) Math.ceil(p * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += latencyBuckets.get(i);
+            if (seen >= target) return (1L << i) / 1000.0;
+        }
+        return (1L << (BUCKETS - 1)) / 1000.0;
+    }
+
+    @Override public long getRequests() { return requests.sum(); }
+    @Override public long getRequestsWithoutJob() { return requestsWithoutJob.sum(); }
+    @Override public double getRequestLatencyP50Micros() { return latencyPercentileMicros(0.50); }
+    @Override public double getRequestLatencyP99Micros() { return latencyPercentileMicros(0.99); }
+    @Override public double getRequestLatencyMaxMicros() { return latencyPercentileMicros(1.0); }
+    @Override public long getSectionsScanned() { return sectionsScanned.sum(); }
+    @Override public long getClaimAttempts() { return claimAttempts.sum(); }
+    @Override public long getClaimFailures() { return claimFailures.sum(); }
+    @Override public long getCompletedJobs() { return completed.sum(); }
+    @Override public double getCompletedPerSecond() { return completedPerSecond; }
+
+    @Override
+    public double getSectionsScannedPerRequest() {
+        long n = requests.sum();
+        return n == 0 ? 0 : (double) sectionsScanned.sum() / n;
+    }
+
+    @Override
+    public double getClaimContention() {
+        long n = claimAttempts.sum();
+        return n == 0 ? 0 : (double) claimFailures.sum() / n;
+    }
+
+    // Queue gauges read sizes owned by the level thread; good enough for monitoring.
+    @Override public int getConstructionQueue() { return manager.getConstructionJobs().size(); }
+    @Override public int getGhostRemovalQueue() { return manager.getGhostRemovalJobs().size(); }
+    @Override public int getDeconstructQueue() { return manager.getDirectDeconstructJobs().size(); }
+    @Override public int getHibernatingJobs() { return manager.getHibernatingJobs().size(); }
+    @Override public int getColdJobs() { return manager.getColdStore().jobCount(); }
+
+    @Override
+    public void reset() {
+        requests.reset();
+        requestsWithoutJob.reset();
+        sectionsScanned.reset();
+        claimAttempts.reset();
+        claimFailures.reset();
+        completed.reset();
+        for (int i = 0; i < BUCKETS; i++) latencyBuckets.set(i, 0);
+        rateWindowCompleted = 0;
+        rateWindowStart = System.nanoTime();
+        completedPerSecond = 0;
+    }
+
+    public String summary() {
+        return String.format(
+                "Queues: %d construction, %d ghost removal, %d deconstruct, %d hibernating, %d in unloaded chunks%n"
+                        + "requestJob: %d calls (%d empty), p50 %.1fus, p99 %.1fus, max %.1fus, %.1f sections/request%n"
+                        + "Claims: %d attempts, %d lost (%.2f%% contention)%n"
+                        + "Completed: %d total, %.1f/s",
+                getConstructionQueue(), getGhostRemovalQueue(), getDeconstructQueue(), getHibernatingJobs(), getColdJobs(),
+                getRequests(), getRequestsWithoutJob(), getRequestLatencyP50Micros(), getRequestLatencyP99Micros(),
+                getRequestLatencyMaxMicros(), getSectionsScannedPerRequest(),
+                getClaimAttempts(), getClaimFailures(), getClaimContention() * 100,
+                getCompletedJobs(), getCompletedPerSecond());
+    }
+
+    /**
+     * Publishes this instance over JMX, replacing a stale registration for the same dimension
+     * (integrated servers reuse the JVM across worlds).
+     */
+    public void register(String dimension) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName("com.example.ghostlib:type=JobMetrics,dimension=" + ObjectName.quote(dimension));
+            if (server.isRegistered(name)) server.unregisterMBean(name);
+            server.registerMBean(this, name);
+        } catch (JMException | SecurityException e) {
+            GhostLib.LOGGER.warn("Could not register job metrics MBean for {}", dimension, e);
+        }
+    }
+}
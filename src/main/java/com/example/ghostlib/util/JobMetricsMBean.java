@@ -0,0 +1,26 @@
+package com.example.ghostlib.util;
+
+/**
+ * JMX view of {@link JobMetrics}. Registered per dimension as
+ * {@code com.example.ghostlib:type=JobMetrics,dimension="<id>"}.
+ */
+public interface JobMetricsMBean {
+    long getRequests();
+    long getRequestsWithoutJob();
+    double getRequestLatencyP50Micros();
+    double getRequestLatencyP99Micros();
+    double getRequestLatencyMaxMicros();
+    long getSectionsScanned();
+    double getSectionsScannedPerRequest();
+    long getClaimAttempts();
+    long getClaimFailures();
+    double getClaimContention();
+    int getConstructionQueue();
+    int getGhostRemovalQueue();
+    int getDeconstructQueue();
+    int getHibernatingJobs();
+    int getColdJobs();
+    long getCompletedJobs();
+    double getCompletedPerSecond();
+    void reset();
+}
@@ -0,0 +1,252 @@
+package com.example.ghostlib.util;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.ChunkPos;
+
+import java.util.function.LongConsumer;
+import java.util.function.LongPredicate;
+
+/**
+ * 3D spatial index over queued jobs, keyed by {@link SectionPos}.
+ *
+ * Each 16x16x16 section keeps one 4096-bit occupancy bitset per {@link GhostJobManager.JobType}.
+ * Nearest-job queries walk outward in Chebyshev shells of sections around the origin, so the
+ * cost of a lookup depends on how many sections are searched, not on how many jobs exist.
+ *
+ * Only touched on the level's server thread.
+ */
+public class JobSpatialIndex {
+    private static final int TYPES = GhostJobManager.JobType.values().length;
+
+    private final Long2ObjectOpenHashMap<Section> sections = new Long2ObjectOpenHashMap<>();
+    /** Scratch list for {@link #findNearest}. */
+    private final LongArrayList shell = new LongArrayList();
+    private long sectionsScanned;
+
+    /**
+     * Occupancy bits for a single chunk section.
+     */
+    static final class Section {
+        final long[][] bits = new long[TYPES][64];
+        final int[] counts = new int[TYPES];
+        int total;
+
+        boolean isEmpty() {
+            return total == 0;
+        }
+    }
+
+    public void add(GhostJobManager.JobType type, BlockPos pos) {
+        add(type, pos.asLong());
+    }
+
+    public void add(GhostJobManager.JobType type, long packed) {
+        long key = sectionKey(packed);
+        Section section = sections.computeIfAbsent(key, k -> new Section());
+        int index = localIndex(packed);
+        long[] bits = section.bits[type.ordinal()];
+        long mask = 1L << (index & 63);
+        if ((bits[index >>> 6] & mask) == 0) {
+            bits[index >>> 6] |= mask;
+            section.counts[type.ordinal()]++;
+            section.total++;
+        }
+    }
+
+    public void remove(GhostJobManager.JobType type, BlockPos pos) {
+        remove(type, pos.asLong());
+    }
+
+    public void remove(GhostJobManager.JobType type, long packed) {
+        long key = sectionKey(packed);
+        Section section = sections.get(key);
+        if (section == null) return;
+        int index = localIndex(packed);
+        long[] bits = section.bits[type.ordinal()];
+        long mask = 1L << (index & 63);
+        if ((bits[index >>> 6] & mask) != 0) {
+            bits[index >>> 6] &= ~mask;
+            section.counts[type.ordinal()]--;
+            section.total--;
+            if (section.isEmpty()) sections.remove(key);
+        }
+    }
+
+    public boolean contains(GhostJobManager.JobType type, BlockPos pos) {
+        return contains(type, pos.asLong());
+    }
+
+    public boolean contains(GhostJobManager.JobType type, long packed) {
+        Section section = sections.get(sectionKey(packed));
+        if (section == null) return false;
+        int index = localIndex(packed);
+        return (section.bits[type.ordinal()][index >>> 6] & (1L << (index & 63))) != 0;
+    }
+
+    /**
+     * Drops every section in the given chunk column.
+     */
+    public void removeColumn(long chunkKey, int minSectionY, int maxSectionY) {
+        int cx = ChunkPos.getX(chunkKey);
+        int cz = ChunkPos.getZ(chunkKey);
+        for (int y = minSectionY; y <= maxSectionY; y++) {
+            sections.remove(SectionPos.asLong(cx, y, cz));
+        }
+    }
+
+    /**
+     * Visits the packed position of every indexed job (any type) in the given chunk column.
+     */
+    public void forEachInColumn(long chunkKey, int minSectionY, int maxSectionY, LongConsumer consumer) {
+        int cx = ChunkPos.getX(chunkKey);
+        int cz = ChunkPos.getZ(chunkKey);
+        for (int y = minSectionY; y <= maxSectionY; y++) {
+            Section section = sections.get(SectionPos.asLong(cx, y, cz));
+            if (section == null) continue;
+            int baseX = SectionPos.sectionToBlockCoord(cx);
+            int baseY = SectionPos.sectionToBlockCoord(y);
+            int baseZ = SectionPos.sectionToBlockCoord(cz);
+            for (int word = 0; word < 64; word++) {
+                long w = 0;
+                for (long[] bits : section.bits) w |= bits[word];
+                while (w != 0) {
+                    int index = (word << 6) | Long.numberOfTrailingZeros(w);
+                    w &= w - 1;
+                    consumer.accept(BlockPos.asLong(baseX + (index & 15), baseY + (index >>> 8), baseZ + ((index >>> 4) & 15)));
+                }
+            }
+        }
+    }
+
+    public boolean isEmpty() {
+        return sections.isEmpty();
+    }
+
+    public int sectionCount() {
+        return sections.size();
+    }
+
+    /**
+     * Running total of occupied sections {@link #findNearest} has looked inside, for metrics.
+     */
+    public long sectionsScanned() {
+        return sectionsScanned;
+    }
+
+    /**
+     * Finds the nearest job of the given type around {@code origin}, searching section shells
+     * of increasing Chebyshev radius up to {@code radius} sections.
+     *
+     * @param available Filter applied to each candidate's packed position (e.g. "not yet assigned").
+     * @return The packed {@link BlockPos#asLong()} of the nearest candidate, or {@link Long#MAX_VALUE} if none.
+     */
+    public long findNearest(BlockPos origin, int radius, int minSectionY, int maxSectionY,
+                            GhostJobManager.JobType type, LongPredicate available) {
+        if (sections.isEmpty()) return Long.MAX_VALUE;
+
+        int sx = SectionPos.blockToSectionCoord(origin.getX());
+        int sy = SectionPos.blockToSectionCoord(origin.getY());
+        int sz = SectionPos.blockToSectionCoord(origin.getZ());
+        int t = type.ordinal();
+
+        long best = Long.MAX_VALUE;
+        double bestDist = Double.MAX_VALUE;
+        for (int r = 0; r <= radius; r++) {
+            // Every block of shell r is at least (r - 1) * 16 away along one axis, so once that
+            // reaches the best distance no later shell can hold anything closer.
+            double shellMin = Math.max(0, r - 1) * 16.0;
+            if (shellMin * shellMin >= bestDist) break;
+            shell.clear();
+            collectShell(sx, sy, sz, r, minSectionY, maxSectionY, t, shell);
+            for (int i = 0; i < shell.size(); i++) {
+                long key = shell.getLong(i);
+                long candidate = nearestInSection(key, sections.get(key), t, origin, bestDist, available);
+                if (candidate != Long.MAX_VALUE) {
+                    best = candidate;
+                    bestDist = distSqr(candidate, origin);
+                }
+            }
+        }
+        return best;
+    }
+
+    private long nearestInSection(long key, Section section, int t, BlockPos origin, double bestDist, LongPredicate available) {
+        if (section == null || section.counts[t] == 0) return Long.MAX_VALUE;
+        sectionsScanned++;
+        int baseX = SectionPos.sectionToBlockCoord(SectionPos.x(key));
+        int baseY = SectionPos.sectionToBlockCoord(SectionPos.y(key));
+        int baseZ = SectionPos.sectionToBlockCoord(SectionPos.z(key));
+        long best = Long.MAX_VALUE;
+        long[] bits = section.bits[t];
+        for (int word = 0; word < 64; word++) {
+            long w = bits[word];
+            while (w != 0) {
+                int index = (word << 6) | Long.numberOfTrailingZeros(w);
+                w &= w - 1;
+                long packed = BlockPos.asLong(baseX + (index & 15), baseY + (index >>> 8), baseZ + ((index >>> 4) & 15));
+                double dist = distSqr(packed, origin);
+                if (dist < bestDist && available.test(packed)) {
+                    best = packed;
+                    bestDist = dist;
+                }
+            }
+        }
+        return best;
+    }
+
+    private static double distSqr(long packed, BlockPos origin) {
+        double dx = BlockPos.getX(packed) - origin.getX();
+        double dy = BlockPos.getY(packed) - origin.getY();
+        double dz = BlockPos.getZ(packed) - origin.getZ();
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    /**
+     * Collects the keys of occupied sections lying exactly on the shell of Chebyshev radius r.
+     */
+    private void collectShell(int sx, int sy, int sz, int r, int minSectionY, int maxSectionY, int t, LongArrayList out) {
+        int yFrom = Math.max(sy - r, minSectionY);
+        int yTo = Math.min(sy + r, maxSectionY);
+        for (int y = yFrom; y <= yTo; y++) {
+            boolean yFace = Math.abs(y - sy) == r;
+            for (int x = sx - r; x <= sx + r; x++) {
+                boolean xFace = Math.abs(x - sx) == r;
+                if (yFace || xFace) {
+                    for (int z = sz - r; z <= sz + r; z++) {
+                        addIfOccupied(SectionPos.asLong(x, y, z), t, out);
+                    }
+                } else {
+                    // Interior rows only contribute their two z faces
+                    addIfOccupied(SectionPos.asLong(x, y, sz - r), t, out);
+                    if (r != 0) addIfOccupied(SectionPos.asLong(x, y, sz + r), t, out);
+                }
+            }
+        }
+    }
+
+    private void addIfOccupied(long key, int t, LongArrayList out) {
+        Section section = sections.get(key);
+        if (section != null && section.counts[t] > 0) out.add(key);
+    }
+
+    /**
+     * Section-local index in YZX order, matching vanilla's PalettedContainer layout.
+     */
+    static int localIndex(BlockPos pos) {
+        return ((pos.getY() & 15) << 8) | ((pos.getZ() & 15) << 4) | (pos.getX() & 15);
+    }
+
+    static int localIndex(long packed) {
+        return ((BlockPos.getY(packed) & 15) << 8) | ((BlockPos.getZ(packed) & 15) << 4) | (BlockPos.getX(packed) & 15);
+    }
+
+    static long sectionKey(long packed) {
+        return SectionPos.asLong(
+                SectionPos.blockToSectionCoord(BlockPos.getX(packed)),
+                SectionPos.blockToSectionCoord(BlockPos.getY(packed)),
+                SectionPos.blockToSectionCoord(BlockPos.getZ(packed)));
+    }
+}
@@ -172,6 +172,10 @@ public class LogisticsNetworkManager extends SavedData {
         return posToNetworkId.get(pos);
     }
 
+    public Set<Integer> getNetworkIds() {
+        return networkMembers.keySet();
+    }
+
     public Set<BlockPos> getNetworkMembers(int id) {
         return networkMembers.getOrDefault(id, new HashSet<>());
     }
@@ -0,0 +1,225 @@
+package com.example.ghostlib.util;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.ChunkPos;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Hammers {@link JobClaims} from several threads at once.
+ *
+ * Covers the three places the class relies on its invariants rather than a lock: the claim word
+ * CAS, the live count that retires a section once it holds nothing, and {@link JobClaims#removeColumn}
+ * retiring a section while claimers are mid-claim.
+ */
+class JobClaimsStressTest {
+    private static final int THREADS = 8;
+
+    /** Positions over a 3x3 chunk area, four sections high, so claims spread over many stripes. */
+    private static long[] area(int count, long seed) {
+        Random random = new Random(seed);
+        Set<Long> positions = new LinkedHashSet<>();
+        while (positions.size() < count) {
+            positions.add(BlockPos.asLong(random.nextInt(48), random.nextInt(64), random.nextInt(48)));
+        }
+        return positions.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static void runAll(int threads, Worker worker) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int slot = t;
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    worker.run(slot);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) future.get(60, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Worker {
+        void run(int slot) throws Exception;
+    }
+
+    @Test
+    void everyPositionGoesToExactlyOneClaimer() throws Exception {
+        JobClaims claims = new JobClaims();
+        long[] positions = area(2_000, 1);
+        AtomicIntegerArray winners = new AtomicIntegerArray(positions.length);
+
+        runAll(THREADS, slot -> {
+            // Every thread walks the same positions in its own order
+            List<Integer> order = new ArrayList<>();
+            for (int i = 0; i < positions.length; i++) order.add(i);
+            Collections.shuffle(order, new Random(slot));
+            for (int i : order) {
+                if (claims.tryClaim(positions[i], slot)) {
+                    assertTrue(winners.compareAndSet(i, 0, slot + 1), "claimed twice: " + BlockPos.of(positions[i]));
+                }
+            }
+        });
+
+        for (int i = 0; i < positions.length; i++) {
+            assertTrue(winners.get(i) != 0, "nobody claimed " + BlockPos.of(positions[i]));
+            assertEquals(winners.get(i) - 1, claims.owner(positions[i]));
+        }
+    }
+
+    @Test
+    void claimReleaseChurnNeverOverlapsAndLeavesNothingBehind() throws Exception {
+        JobClaims claims = new JobClaims();
+        // Few positions, so sections keep emptying out, retiring and being created again
+        long[] positions = area(64, 2);
+        AtomicIntegerArray holders = new AtomicIntegerArray(positions.length);
+
+        runAll(THREADS, slot -> {
+            Random random = new Random(slot);
+            for (int op = 0; op < 200_000; op++) {
+                int i = random.nextInt(positions.length);
+                if (!claims.tryClaim(positions[i], slot)) continue;
+                assertTrue(holders.compareAndSet(i, 0, slot + 1), "held twice: " + BlockPos.of(positions[i]));
+                // Hand the claim to a second slot of ours; only the holder can release or pass it on
+                int handedTo = slot + THREADS;
+                assertFalse(claims.release(positions[i], handedTo), "released by a slot that doesn't hold it");
+                assertTrue(claims.reassign(positions[i], slot, handedTo));
+                assertEquals(handedTo, claims.owner(positions[i]));
+                // Cleared before the release: once the word is free, another thread may take it
+                holders.set(i, 0);
+                assertTrue(claims.release(positions[i], handedTo), "lost a claim nobody removed");
+            }
+        });
+
+        AtomicInteger left = new AtomicInteger();
+        claims.forEach((packed, slot) -> left.incrementAndGet());
+        assertEquals(0, left.get());
+        for (long packed : positions) assertFalse(claims.isClaimed(packed));
+    }
+
+    @Test
+    void removeColumnReportsEveryClaimItTakes() throws Exception {
+        // The window between a claimer's reservation and its CAS is short, so give it many chances
+        for (int round = 0; round < 200; round++) removeColumnRound();
+    }
+
+    private static void removeColumnRound() throws Exception {
+        JobClaims claims = new JobClaims();
+        long chunk = ChunkPos.asLong(0, 0);
+        // One column, split between the claimers, so only the remover competes with each claim
+        int perThread = 64;
+        long[][] owned = new long[THREADS][perThread];
+        for (int t = 0; t < THREADS; t++) {
+            for (int i = 0; i < perThread; i++) {
+                int n = t * perThread + i;
+                owned[t][i] = BlockPos.asLong(n & 15, n >>> 8, (n >>> 4) & 15);
+            }
+        }
+        Map<Long, Integer> dropped = new ConcurrentHashMap<>();
+        AtomicBoolean conflicting = new AtomicBoolean();
+        AtomicBoolean done = new AtomicBoolean();
+
+        Thread remover = new Thread(() -> {
+            while (!done.get()) {
+                claims.removeColumn(chunk, 0, 1, (packed, slot) -> {
+                    Integer previous = dropped.put(packed, slot);
+                    if (previous != null && previous != slot) conflicting.set(true);
+                });
+                Thread.yield();
+            }
+        });
+        remover.start();
+        try {
+            runAll(THREADS, slot -> {
+                for (long packed : owned[slot]) {
+                    // A claim into a section that is being removed fails; try again on the new one
+                    while (!claims.tryClaim(packed, slot)) Thread.onSpinWait();
+                    Thread.yield();
+                }
+            });
+        } finally {
+            done.set(true);
+            remover.join();
+        }
+
+        assertFalse(conflicting.get(), "a position was reported for two claimers");
+        for (int t = 0; t < THREADS; t++) {
+            for (long packed : owned[t]) {
+                int owner = claims.owner(packed);
+                Integer reported = dropped.get(packed);
+                // Every successful claim either survived or was reported as dropped; none vanished
+                assertTrue(owner == t || (reported != null && reported == t), "claim lost silently: " + BlockPos.of(packed));
+                assertTrue(owner == DroneSlotRegistry.NONE || owner == t);
+            }
+        }
+        for (Map.Entry<Long, Integer> entry : dropped.entrySet()) {
+            long packed = entry.getKey();
+            int n = (BlockPos.getY(packed) << 8) | (BlockPos.getZ(packed) << 4) | BlockPos.getX(packed);
+            assertEquals(n / perThread, (int) entry.getValue(), "reported a claim its slot never made");
+        }
+    }
+
+    @Test
+    void throughputScalesWithThreads() throws Exception {
+        int cores = Runtime.getRuntime().availableProcessors();
+        assumeTrue(cores >= 4, "needs at least 4 cores, have " + cores);
+
+        double single = opsPerSecond(1);
+        double quad = opsPerSecond(4);
+        System.out.printf("JobClaims claim+release: 1 thread %.0f ops/s, 4 threads %.0f ops/s (%.2fx)%n", single, quad, quad / single);
+        // Claimers in different sections share nothing but a stripe monitor now and then
+        assertTrue(quad > single * 1.5, "4 threads " + quad + " ops/s vs 1 thread " + single);
+    }
+
+    private static double opsPerSecond(int threads) throws Exception {
+        JobClaims claims = new JobClaims();
+        int ops = 2_000_000;
+        // Each thread works its own chunk. An anchor claim under another slot keeps its sections
+        // alive, so this times the claim words rather than section turnover.
+        for (int slot = 0; slot < threads; slot++) {
+            for (int y = 0; y < 64; y += 16) claims.tryClaim(BlockPos.asLong(slot * 64, y, 0), slot + THREADS);
+        }
+        // Warm up, then time
+        for (int round = 0; round < 2; round++) {
+            long start = System.nanoTime();
+            runAll(threads, slot -> {
+                int baseX = slot * 64;
+                for (int op = 0; op < ops; op++) {
+                    long packed = BlockPos.asLong(baseX + (op & 15), (op >>> 4) & 63, (op >>> 10) & 15);
+                    claims.tryClaim(packed, slot);
+                    claims.release(packed, slot);
+                }
+            });
+            if (round == 1) return (double) threads * ops / ((System.nanoTime() - start) / 1e9);
+        }
+        throw new IllegalStateException();
+    }
+}